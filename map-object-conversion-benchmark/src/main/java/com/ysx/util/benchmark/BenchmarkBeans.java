@@ -0,0 +1,186 @@
+package com.ysx.util.benchmark;
+
+import com.ysx.util.annotation.DateMapping;
+import com.ysx.util.demo.Address;
+import com.ysx.util.demo.School;
+import com.ysx.util.demo.Student;
+import com.ysx.util.demo.enums.Sex;
+
+import java.util.Date;
+
+/**
+ * 基准测试使用的数据
+ * 平铺对象 FlatBean，多层继承 Level1 - Level4，属性抓取嵌套直接使用 demo 中的 Student/School/Address
+ * ysx
+ */
+public final class BenchmarkBeans {
+
+    private BenchmarkBeans() {
+    }
+
+    /**
+     * 只有普通字段的平铺对象
+     */
+    public static class FlatBean {
+        private Integer id;
+        private String name;
+        private String code;
+        private Long amount;
+        private Double price;
+        private Boolean enabled;
+        private String remark;
+        private Integer version;
+
+        public Integer getId() {
+            return id;
+        }
+
+        public void setId(Integer id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        public Long getAmount() {
+            return amount;
+        }
+
+        public void setAmount(Long amount) {
+            this.amount = amount;
+        }
+
+        public Double getPrice() {
+            return price;
+        }
+
+        public void setPrice(Double price) {
+            this.price = price;
+        }
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getRemark() {
+            return remark;
+        }
+
+        public void setRemark(String remark) {
+            this.remark = remark;
+        }
+
+        public Integer getVersion() {
+            return version;
+        }
+
+        public void setVersion(Integer version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * 多层继承 转化时用 stopClass 限定层级 字段包内可见 直接赋值
+     */
+    public static class Level1 {
+        String level1Name;
+        Integer level1Value;
+    }
+
+    public static class Level2 extends Level1 {
+        String level2Name;
+        Integer level2Value;
+    }
+
+    public static class Level3 extends Level2 {
+        String level3Name;
+        Integer level3Value;
+    }
+
+    public static class Level4 extends Level3 {
+        String level4Name;
+        Integer level4Value;
+    }
+
+    /**
+     * 带日期映射的对象
+     */
+    public static class DatedBean {
+        String name;
+        @DateMapping
+        Date createDate;
+        @DateMapping("yyyy/MM/dd")
+        Date updateDate;
+    }
+
+    public static FlatBean flatBean() {
+        FlatBean bean = new FlatBean();
+        bean.setId(1);
+        bean.setName("name");
+        bean.setCode("code");
+        bean.setAmount(100L);
+        bean.setPrice(9.9D);
+        bean.setEnabled(Boolean.TRUE);
+        bean.setRemark("");
+        bean.setVersion(3);
+        return bean;
+    }
+
+    public static Level4 level4() {
+        Level4 bean = new Level4();
+        bean.level1Name = "l1";
+        bean.level1Value = 1;
+        bean.level2Name = "l2";
+        bean.level2Value = 2;
+        bean.level3Name = "l3";
+        bean.level3Value = 3;
+        bean.level4Name = "l4";
+        bean.level4Value = 4;
+        return bean;
+    }
+
+    public static DatedBean datedBean() {
+        DatedBean bean = new DatedBean();
+        bean.name = "dated";
+        bean.createDate = new Date(1000000000000L);
+        bean.updateDate = new Date(1000000000000L);
+        return bean;
+    }
+
+    public static Student student() {
+        Address address = new Address();
+        address.setSheng("安徽省");
+        address.setShi("合肥市");
+        address.setXian("肥东县");
+
+        School school = new School();
+        school.setSchoolName("第二中学");
+        school.setAddress(address);
+        school.setCreateDate(new Date(1000000000000L));
+
+        Student student = new Student();
+        student.setName("张三");
+        student.setAge(10);
+        student.setStuNo(1);
+        student.setSex(Sex.MAN);
+        student.setSchool(school);
+        return student;
+    }
+}
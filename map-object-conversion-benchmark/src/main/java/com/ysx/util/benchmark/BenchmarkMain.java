@@ -0,0 +1,32 @@
+package com.ysx.util.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+/**
+ * 运行全部基准测试 - 吞吐量，平均耗时，并开启 gc 分析器输出内存分配速率(gc.alloc.rate.norm 为每次操作分配的字节数)
+ * 结果写入 jmh-result.json 便于不同版本之间比较，参数可追加 benchmarks.jar 支持的正则过滤要运行的测试
+ * ysx
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder builder = new OptionsBuilder();
+        if (args.length == 0) {
+            builder.include(BenchmarkMain.class.getPackage().getName() + ".*Benchmark");
+        }
+        for (String include : args) {
+            builder.include(include);
+        }
+        Options options = builder
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,113 @@
+package com.ysx.util.benchmark;
+
+import com.ysx.util.ObjectMappingMapUtil;
+import com.ysx.util.demo.Student;
+import com.ysx.util.demo.enums.Sex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * map 转对象 基准测试 数据源由对象转map 得到 flatNormalizedKeys 为key 需经通用处理(去下划线，忽略大小写)才能匹配的情况
+ * manyKeyShapes 为轮流转化多种 key 集合的数据源(如多张表的查询结果)，衡量键结构缓存在多种 key 集合下的命中情况
+ * ysx
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapToObjectBenchmark {
+
+    private Map<String, Object> flatMap;
+    private Map<String, Object> normalizedKeyMap;
+    private Map<String, Object> level4Map;
+    private Map<String, Object> studentMap;
+    private Map<String, Object> datedMap;
+    private Map<String, Object> enumMap;
+    private Map<String, Object>[] shapedMaps;
+    private int shapeIndex;
+
+    @Setup
+    public void setup() {
+        flatMap = ObjectMappingMapUtil.objectToMap(BenchmarkBeans.flatBean());
+        normalizedKeyMap = new HashMap<>(16);
+        for (Map.Entry<String, Object> entry : flatMap.entrySet()) {
+            normalizedKeyMap.put(entry.getKey().toUpperCase() + "_", entry.getValue());
+        }
+        level4Map = ObjectMappingMapUtil.objectToMap(BenchmarkBeans.level4());
+        studentMap = ObjectMappingMapUtil.objectToMap(BenchmarkBeans.student());
+        datedMap = ObjectMappingMapUtil.objectToMap(BenchmarkBeans.datedBean());
+        enumMap = ObjectMappingMapUtil.objectToMap(Sex.WOMEN, null);
+        shapedMaps = newShapedMaps(SHAPE_COUNT);
+    }
+
+    /**
+     * 不同 key 集合的个数
+     */
+    private static final int SHAPE_COUNT = 64;
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object>[] newShapedMaps(int count) {
+        Map<String, Object>[] maps = new Map[count];
+        for (int i = 0; i < count; i++) {
+            maps[i] = new HashMap<>(flatMap);
+            maps[i].put("extra" + i, i);
+        }
+        return maps;
+    }
+
+    @Benchmark
+    public BenchmarkBeans.FlatBean flat() {
+        return ObjectMappingMapUtil.mapToObject(flatMap, BenchmarkBeans.FlatBean.class, null);
+    }
+
+    @Benchmark
+    public BenchmarkBeans.FlatBean flatNormalizedKeys() {
+        return ObjectMappingMapUtil.mapToObject(normalizedKeyMap, BenchmarkBeans.FlatBean.class, null);
+    }
+
+    @Benchmark
+    public BenchmarkBeans.Level4 deepInheritance() {
+        return ObjectMappingMapUtil.mapToObject(level4Map, BenchmarkBeans.Level4.class, null);
+    }
+
+    @Benchmark
+    public BenchmarkBeans.Level4 deepInheritanceStopClass() {
+        return ObjectMappingMapUtil.mapToObject(level4Map, BenchmarkBeans.Level4.class, BenchmarkBeans.Level2.class);
+    }
+
+    @Benchmark
+    public Student nestedCatchProperty() {
+        return ObjectMappingMapUtil.mapToObject(studentMap, Student.class, null);
+    }
+
+    @Benchmark
+    public BenchmarkBeans.DatedBean dateMapping() {
+        return ObjectMappingMapUtil.mapToObject(datedMap, BenchmarkBeans.DatedBean.class, null);
+    }
+
+    @Benchmark
+    public BenchmarkBeans.FlatBean manyKeyShapes() {
+        Map<String, Object> map = shapedMaps[shapeIndex];
+        shapeIndex = (shapeIndex + 1) % SHAPE_COUNT;
+        return ObjectMappingMapUtil.mapToObject(map, BenchmarkBeans.FlatBean.class, null);
+    }
+
+    @Benchmark
+    public Sex enumInference() {
+        return ObjectMappingMapUtil.mapToObject(enumMap, Sex.class, null);
+    }
+}
@@ -0,0 +1,82 @@
+package com.ysx.util.benchmark;
+
+import com.ysx.util.ObjectMappingMapUtil;
+import com.ysx.util.demo.Student;
+import com.ysx.util.demo.enums.Sex;
+import com.ysx.util.handler.impl.ValueEmptyHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对象转map 基准测试
+ * ysx
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ObjectToMapBenchmark {
+
+    private BenchmarkBeans.FlatBean flatBean;
+    private BenchmarkBeans.Level4 level4;
+    private BenchmarkBeans.DatedBean datedBean;
+    private Student student;
+    private ValueEmptyHandler valueEmptyHandler;
+
+    @Setup
+    public void setup() {
+        flatBean = BenchmarkBeans.flatBean();
+        level4 = BenchmarkBeans.level4();
+        datedBean = BenchmarkBeans.datedBean();
+        student = BenchmarkBeans.student();
+        valueEmptyHandler = new ValueEmptyHandler();
+    }
+
+    @Benchmark
+    public Map<String, Object> flat() {
+        return ObjectMappingMapUtil.objectToMap(flatBean);
+    }
+
+    @Benchmark
+    public Map<String, Object> deepInheritance() {
+        return ObjectMappingMapUtil.objectToMap(level4);
+    }
+
+    @Benchmark
+    public Map<String, Object> deepInheritanceStopClass() {
+        return ObjectMappingMapUtil.objectToMap(level4, BenchmarkBeans.Level2.class);
+    }
+
+    @Benchmark
+    public Map<String, Object> nestedCatchProperty() {
+        return ObjectMappingMapUtil.objectToMap(student);
+    }
+
+    @Benchmark
+    public Map<String, Object> dateMapping() {
+        return ObjectMappingMapUtil.objectToMap(datedBean);
+    }
+
+    @Benchmark
+    public Map<String, Object> enumObject() {
+        return ObjectMappingMapUtil.objectToMap(Sex.WOMEN, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> valueEmptyHandler() {
+        return ObjectMappingMapUtil.objectToMap(flatBean, Object.class, valueEmptyHandler);
+    }
+}
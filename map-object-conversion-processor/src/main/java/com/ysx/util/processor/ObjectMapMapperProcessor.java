@@ -0,0 +1,397 @@
+package com.ysx.util.processor;
+
+import com.ysx.util.ObjectMapMapper;
+import com.ysx.util.annotation.CatchAllProperty;
+import com.ysx.util.annotation.CatchSingleProperty;
+import com.ysx.util.annotation.DateMapping;
+import com.ysx.util.annotation.IgnoreMapMapping;
+import com.ysx.util.annotation.MapCreator;
+import com.ysx.util.annotation.MapKeyMapping;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 编译期生成对象-map映射器的注解处理器
+ * 对字段上标注了映射注解的类 生成 ObjectMapMapper 实现，映射器可以直接访问的字段 以字段声明类限定后直接读写，结果与反射方式相同
+ * 属性抓取、日期映射、private 等生成代码无法直接处理的字段 交由 GeneratedMapperSupport 按反射规则处理，
+ * 存在这类字段时 映射器加载时即通过反射解析类的映射计划
+ * 生成的映射器仅对应默认停止类(Object)的转化
+ * ysx
+ */
+@SupportedAnnotationTypes({
+        "com.ysx.util.annotation.MapKeyMapping",
+        "com.ysx.util.annotation.IgnoreMapMapping",
+        "com.ysx.util.annotation.CatchSingleProperty",
+        "com.ysx.util.annotation.CatchAllProperty",
+        "com.ysx.util.annotation.DateMapping"
+})
+public class ObjectMapMapperProcessor extends AbstractProcessor {
+
+    private static final String SUPPORT = "com.ysx.util.GeneratedMapperSupport";
+    private static final String CONVERTER = "com.ysx.util.converter.CachedConverter";
+
+    /**
+     * 已生成过映射器的类 避免多轮处理时重复生成
+     */
+    private final Set<String> generatedTypes = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> mappedTypes = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.FIELD && element.getEnclosingElement() instanceof TypeElement) {
+                    mappedTypes.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+        for (TypeElement mappedType : mappedTypes) {
+            String typeName = mappedType.getQualifiedName().toString();
+            if (generatedTypes.contains(typeName) || !isSupportedType(mappedType)) {
+                continue;
+            }
+            generatedTypes.add(typeName);
+            try {
+                generateMapper(mappedType);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "生成映射器失败: " + e.getMessage(), mappedType);
+            }
+        }
+        // 不独占这些注解 其他处理器仍可处理
+        return false;
+    }
+
+    /**
+     * 判断是否可以为该类生成映射器 - 可访问的非抽象普通类，且有可访问的无参构造，未指定 MapCreator 创建方法
+     *
+     * @param type 类
+     * @return 是否可以生成
+     */
+    private boolean isSupportedType(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        Element current = type;
+        while (current instanceof TypeElement) {
+            TypeElement currentType = (TypeElement) current;
+            if (currentType.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            NestingKind nestingKind = currentType.getNestingKind();
+            if (nestingKind == NestingKind.LOCAL || nestingKind == NestingKind.ANONYMOUS) {
+                return false;
+            }
+            if (nestingKind == NestingKind.MEMBER && !currentType.getModifiers().contains(Modifier.STATIC)) {
+                return false;
+            }
+            current = currentType.getEnclosingElement();
+        }
+        // 指定了 MapCreator 创建方法的类 由反射方式按创建方法创建对象
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getAnnotation(MapCreator.class) != null) {
+                return false;
+            }
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 生成映射器源文件
+     *
+     * @param type 要生成映射器的类
+     * @throws IOException 写入源文件异常
+     */
+    private void generateMapper(TypeElement type) throws IOException {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleBinaryName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        String mapperName = simpleBinaryName.replace('$', '_') + ObjectMapMapper.CLASS_SUFFIX;
+        String typeName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+
+        List<MappedFieldModel> fields = collectFields(type, packageElement);
+        for (MappedFieldModel field : fields) {
+            // 交由反射处理的字段 需要在映射器中引用其声明类
+            if ((field.delegateRead || field.delegateWrite) && !field.declaringTypeAccessible) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "字段 " + field.name + " 的声明类无法访问 不生成映射器 使用反射方式转化", type);
+                return;
+            }
+        }
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n * 由 ").append(getClass().getName()).append(" 根据 ").append(typeName).append(" 的映射注解生成 请勿修改\n */\n");
+        source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        source.append("public final class ").append(mapperName).append(" implements com.ysx.util.ObjectMapMapper<").append(typeName).append("> {\n\n");
+        for (MappedFieldModel field : fields) {
+            if (field.delegateRead || field.delegateWrite) {
+                source.append("    private static final ").append(SUPPORT).append(".MappedField F_").append(field.index)
+                        .append(" = ").append(SUPPORT).append(".field(").append(field.declaringType).append(".class, ")
+                        .append(literal(field.name)).append(");\n");
+            }
+            if (!field.delegateWrite) {
+                source.append("    private static final String N_").append(field.index).append(" = ").append(SUPPORT)
+                        .append(".normalizeKey(").append(literal(field.key)).append(");\n");
+                source.append("    private static final ").append(CONVERTER).append(" C_").append(field.index)
+                        .append(" = new ").append(CONVERTER).append("(").append(field.erasedType).append(".class);\n");
+            }
+        }
+
+        source.append("\n    @Override\n");
+        source.append("    public void populateMap(").append(typeName).append(" source, java.util.Map<String, Object> resultMap, com.ysx.util.handler.MapIgnoreHandler mapIgnoreHandler) {\n");
+        source.append("        Object value;\n");
+        for (MappedFieldModel field : fields) {
+            if (field.delegateRead) {
+                source.append("        ").append(SUPPORT).append(".populateField(resultMap, source, F_").append(field.index).append(", mapIgnoreHandler);\n");
+                continue;
+            }
+            source.append("        value = ").append(field.readExpression).append(";\n");
+            source.append("        if (mapIgnoreHandler == null || !mapIgnoreHandler.ignoreHandler(").append(literal(field.key)).append(", value)) {\n");
+            source.append("            resultMap.put(").append(literal(field.key)).append(", value);\n");
+            source.append("        }\n");
+        }
+        source.append("    }\n\n");
+
+        source.append("    @Override\n");
+        source.append("    public ").append(typeName).append(" mapToObject(java.util.Map<String, Object> sourceMap) {\n");
+        source.append("        ").append(typeName).append(" target = new ").append(typeName).append("();\n");
+        source.append("        java.util.Map<String, String> keyIndex = ").append(SUPPORT).append(".keyIndex(sourceMap);\n");
+        source.append("        Object value;\n");
+        for (MappedFieldModel field : fields) {
+            if (field.delegateWrite) {
+                source.append("        ").append(SUPPORT).append(".bindField(sourceMap, keyIndex, target, F_").append(field.index).append(");\n");
+                continue;
+            }
+            // 值类型与字段类型不一致时 按注册的类型转换器转换 基本类型字段由包装类型拆箱赋值
+            source.append("        value = ").append(SUPPORT).append(".convert(C_").append(field.index).append(", ").append(SUPPORT).append(".lookup(sourceMap, keyIndex, ")
+                    .append(literal(field.key)).append(", N_").append(field.index).append("));\n");
+            source.append("        if (value != null) {\n");
+            source.append("            ").append(String.format(field.writeTemplate, "(" + field.castType + ") value")).append(";\n");
+            source.append("        }\n");
+        }
+        source.append("        return target;\n");
+        source.append("    }\n");
+        source.append("}\n");
+
+        String qualifiedMapperName = packageName.isEmpty() ? mapperName : packageName + "." + mapperName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedMapperName, type).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    /**
+     * 收集类及其父类(Object以下)中需要映射的字段，顺序同反射获取字段的顺序
+     *
+     * @param type           要映射的类
+     * @param mapperPackage  映射器所在包
+     * @return 需要映射的字段
+     */
+    private List<MappedFieldModel> collectFields(TypeElement type, PackageElement mapperPackage) {
+        List<MappedFieldModel> fields = new ArrayList<>();
+        TypeElement current = type;
+        while (current != null && !"java.lang.Object".equals(current.getQualifiedName().toString())) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                IgnoreMapMapping ignore = field.getAnnotation(IgnoreMapMapping.class);
+                if (ignore != null && ignore.value()) {
+                    continue;
+                }
+                fields.add(createModel(fields.size(), field, type, current, mapperPackage));
+            }
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        return fields;
+    }
+
+    /**
+     * 解析单个字段的生成方式
+     */
+    private MappedFieldModel createModel(int index, VariableElement field, TypeElement type, TypeElement declaringType, PackageElement mapperPackage) {
+        MappedFieldModel model = new MappedFieldModel();
+        model.index = index;
+        model.name = field.getSimpleName().toString();
+        model.declaringType = processingEnv.getTypeUtils().erasure(declaringType.asType()).toString();
+        model.declaringTypeAccessible = isAccessible(declaringType, mapperPackage);
+        TypeMirror fieldType = field.asType();
+        model.primitive = fieldType.getKind().isPrimitive();
+        model.erasedType = processingEnv.getTypeUtils().erasure(fieldType).toString();
+        model.castType = model.primitive
+                ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) fieldType).getQualifiedName().toString()
+                : model.erasedType;
+        MapKeyMapping keyMapping = field.getAnnotation(MapKeyMapping.class);
+        model.key = keyMapping != null && !"".equals(keyMapping.value()) ? keyMapping.value() : model.name;
+
+        // 属性抓取，日期，静态字段，泛型字段，元素为对象的容器字段，映射器无法直接访问的字段 交由反射规则处理
+        boolean delegate = field.getAnnotation(CatchAllProperty.class) != null
+                || field.getAnnotation(CatchSingleProperty.class) != null
+                || field.getAnnotation(DateMapping.class) != null
+                || field.getModifiers().contains(Modifier.STATIC)
+                || fieldType.getKind() == TypeKind.TYPEVAR
+                || isDateType(fieldType)
+                || hasObjectElement(fieldType)
+                || !model.declaringTypeAccessible
+                || !isAccessible(field, declaringType, mapperPackage);
+        if (!delegate) {
+            // 父类字段以声明类限定 子类声明了同名字段时仍读写父类的字段
+            String qualifier = declaringType.equals(type) ? "%s." : "((" + model.declaringType + ") %s).";
+            model.readExpression = String.format(qualifier, "source") + model.name;
+            if (!field.getModifiers().contains(Modifier.FINAL)) {
+                model.writeTemplate = String.format(qualifier, "target") + model.name + " = %s";
+            }
+        }
+        model.delegateRead = model.readExpression == null;
+        model.delegateWrite = model.writeTemplate == null;
+        return model;
+    }
+
+    private boolean isDateType(TypeMirror type) {
+        TypeElement dateElement = processingEnv.getElementUtils().getTypeElement("java.util.Date");
+        return type.getKind() == TypeKind.DECLARED && dateElement != null
+                && processingEnv.getTypeUtils().isAssignable(type, dateElement.asType());
+    }
+
+    /**
+     * 集合，数组，map 的元素(map 的值)是否可能为需要转化的对象 - 宽于运行期的判断，多出的字段交由反射规则处理结果相同
+     */
+    private boolean hasObjectElement(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isObjectElement(((ArrayType) type).getComponentType());
+        }
+        if (type.getKind() != TypeKind.DECLARED || !isContainer(type)) {
+            return false;
+        }
+        for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+            if (isObjectElement(argument)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isObjectElement(TypeMirror type) {
+        if (type.getKind() == TypeKind.WILDCARD) {
+            TypeMirror bound = ((WildcardType) type).getExtendsBound();
+            return bound != null && isObjectElement(bound);
+        }
+        if (type.getKind() == TypeKind.ARRAY || type.getKind() == TypeKind.DECLARED && isContainer(type)) {
+            return hasObjectElement(type);
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        String name = element.getQualifiedName().toString();
+        return element.getKind() == ElementKind.CLASS && !name.startsWith("java.") && !name.startsWith("javax.");
+    }
+
+    private boolean isContainer(TypeMirror type) {
+        for (String container : new String[]{"java.util.Collection", "java.util.Map"}) {
+            TypeElement containerElement = processingEnv.getElementUtils().getTypeElement(container);
+            if (containerElement != null && processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type), processingEnv.getTypeUtils().erasure(containerElement.asType()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 类型是否可以被映射器(与被映射类同包)访问 - 类型及其外部类均可访问
+     */
+    private boolean isAccessible(TypeElement type, PackageElement mapperPackage) {
+        Element current = type;
+        while (current instanceof TypeElement) {
+            Set<Modifier> modifiers = current.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)
+                    || !modifiers.contains(Modifier.PUBLIC) && !processingEnv.getElementUtils().getPackageOf(current).equals(mapperPackage)) {
+                return false;
+            }
+            current = current.getEnclosingElement();
+        }
+        return true;
+    }
+
+    /**
+     * 成员是否可以被映射器(与被映射类同包)直接访问
+     */
+    private boolean isAccessible(Element member, TypeElement declaringType, PackageElement mapperPackage) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        boolean samePackage = processingEnv.getElementUtils().getPackageOf(declaringType).equals(mapperPackage);
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return samePackage || declaringType.getModifiers().contains(Modifier.PUBLIC);
+        }
+        return samePackage;
+    }
+
+    private String literal(String value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    /**
+     * 单个字段的生成信息
+     */
+    private static final class MappedFieldModel {
+        int index;
+        String name;
+        String key;
+        String declaringType;
+        boolean declaringTypeAccessible;
+        String erasedType;
+        /**
+         * 赋值时的强制转换类型 基本类型为其包装类型
+         */
+        String castType;
+        boolean primitive;
+        /**
+         * 读取字段值的表达式 为 null 时交由反射规则处理
+         */
+        String readExpression;
+        /**
+         * 写入字段值的语句模板 为 null 时交由反射规则处理
+         */
+        String writeTemplate;
+        boolean delegateRead;
+        boolean delegateWrite;
+    }
+}
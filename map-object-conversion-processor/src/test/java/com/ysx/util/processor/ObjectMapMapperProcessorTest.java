@@ -0,0 +1,117 @@
+package com.ysx.util.processor;
+
+import com.ysx.util.ObjectMappingMapUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class ObjectMapMapperProcessorTest {
+
+    private static final String BASE = "package sample;\n"
+            + "public class Base {\n"
+            + "    protected String name;\n"
+            + "    protected int count;\n"
+            + "}\n";
+
+    /**
+     * 子类声明了与父类 protected 字段同名的 private 字段，getter/setter 与字段值不同
+     */
+    private static final String SUB = "package sample;\n"
+            + "import com.ysx.util.annotation.MapKeyMapping;\n"
+            + "public class Sub extends Base {\n"
+            + "    @MapKeyMapping(\"n2\")\n"
+            + "    private String name;\n"
+            + "    public String getName() { return \"getter:\" + name; }\n"
+            + "    public void setName(String name) { this.name = \"setter:\" + name; }\n"
+            + "    public void init(String own, String inherited, int count) { this.name = own; super.name = inherited; this.count = count; }\n"
+            + "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shadowedFieldsMatchReflection() throws Exception {
+        ClassLoader generated = compile(true);
+        ClassLoader reflective = compile(false);
+        assertNotNull(generated.loadClass("sample.Sub_ObjectMapMapper"));
+
+        Map<String, Object> generatedMap = ObjectMappingMapUtil.objectToMap(newSub(generated));
+        Map<String, Object> reflectiveMap = ObjectMappingMapUtil.objectToMap(newSub(reflective));
+        assertEquals("own", generatedMap.get("n2"));
+        assertEquals("inherited", generatedMap.get("name"));
+        assertEquals(reflectiveMap, generatedMap);
+
+        Object generatedBack = ObjectMappingMapUtil.mapToObject(reflectiveMap, generated.loadClass("sample.Sub"), null);
+        Object reflectiveBack = ObjectMappingMapUtil.mapToObject(reflectiveMap, reflective.loadClass("sample.Sub"), null);
+        assertEquals(ObjectMappingMapUtil.objectToMap(reflectiveBack), ObjectMappingMapUtil.objectToMap(generatedBack));
+        assertEquals(reflectiveMap, ObjectMappingMapUtil.objectToMap(generatedBack));
+    }
+
+    private static Object newSub(ClassLoader loader) throws Exception {
+        Class<?> subClass = loader.loadClass("sample.Sub");
+        Object sub = subClass.getDeclaredConstructor().newInstance();
+        subClass.getMethod("init", String.class, String.class, int.class).invoke(sub, "own", "inherited", 3);
+        return sub;
+    }
+
+    /**
+     * 编译示例类 返回加载编译结果的类加载器
+     *
+     * @param process 是否执行注解处理
+     */
+    private ClassLoader compile(boolean process) throws Exception {
+        File sourceDir = folder.newFolder();
+        File outputDir = folder.newFolder();
+        File packageDir = new File(sourceDir, "sample");
+        assertTrue(packageDir.mkdirs());
+        File base = new File(packageDir, "Base.java");
+        File sub = new File(packageDir, "Sub.java");
+        Files.write(base.toPath(), BASE.getBytes(StandardCharsets.UTF_8));
+        Files.write(sub.toPath(), SUB.getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            List<String> options = new ArrayList<>(Arrays.asList("-classpath", System.getProperty("java.class.path"),
+                    "-d", outputDir.getPath(), "-s", sourceDir.getPath()));
+            if (!process) {
+                options.add("-proc:none");
+            }
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjects(base, sub));
+            if (process) {
+                task.setProcessors(Collections.singletonList(new ObjectMapMapperProcessor()));
+            }
+            boolean success = task.call();
+            StringBuilder errors = new StringBuilder();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                    errors.append(diagnostic).append('\n');
+                }
+            }
+            assertTrue(errors.toString(), success);
+        }
+        return new URLClassLoader(new URL[]{outputDir.toURI().toURL()}, getClass().getClassLoader());
+    }
+}
@@ -0,0 +1,253 @@
+package com.ysx.util;
+
+import com.ysx.util.handler.MapIgnoreHandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 批量转化 - 映射器与映射计划在批次内只解析一次(同类型相邻元素复用)，
+ * 元素个数达到并行阈值时按下标区间拆分到 ForkJoinPool 中并行转化，结果顺序与输入一致
+ * ysx
+ */
+final class BatchConversion {
+
+    /**
+     * 并行时单个任务最少处理的元素个数
+     */
+    private static final int MIN_LEAF_SIZE = 64;
+
+    private BatchConversion() {
+    }
+
+    /**
+     * 批量将对象转为map
+     *
+     * @param sources          要转化的对象 元素为 null 时对应空map
+     * @param stopClass        要停止在对象父类的层级
+     * @param mapIgnoreHandler 自定义属性忽略策略 并行时会被多线程同时调用
+     * @return 转化后的map 顺序与输入一致
+     */
+    static List<Map<String, Object>> objectsToMaps(Object[] sources, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler) {
+        Object[] results = new Object[sources.length];
+        run(new ObjectsToMapsTask(sources, results, stopClass, mapIgnoreHandler, 0, sources.length, leafSize(sources.length)));
+        return asList(results);
+    }
+
+    /**
+     * 批量将map 转为对象
+     *
+     * @param sources     map数据源 元素为 null 时对应 null
+     * @param targetClazz 要转化为的对象类型
+     * @param stopClass   要停止在对象父类的层级
+     * @param <T>         要转化为的对象泛型
+     * @return 转化后的对象 顺序与输入一致
+     */
+    static <T> List<T> mapsToObjects(Object[] sources, Class<T> targetClazz, Class<?> stopClass) {
+        Object[] results = new Object[sources.length];
+        if (Enum.class.isAssignableFrom(targetClazz)) {
+            // 枚举推断本身基于索引 逐个转化即可
+            for (int i = 0; i < sources.length; i++) {
+                results[i] = ObjectMappingMapUtil.mapToObject(castMap(sources[i]), targetClazz, stopClass);
+            }
+            return asList(results);
+        }
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(targetClazz) || Void.class == stopClass) {
+            stopClass = ObjectMappingMapUtil.getDefaultStopClass(targetClazz);
+        }
+        ObjectMapMapper<Object> mapper = ObjectMappingMapUtil.getGeneratedMapper(targetClazz, stopClass);
+        MappingPlan mappingPlan = mapper == null ? ObjectMappingMapUtil.getMappingPlan(targetClazz, stopClass) : null;
+        run(new MapsToObjectsTask(sources, results, targetClazz, mapper, mappingPlan, 0, sources.length, leafSize(sources.length)));
+        return asList(results);
+    }
+
+    /**
+     * 转化容器字段的元素 结果写回数组
+     *
+     * @param elements     元素
+     * @param elementCodec 元素的转化方式
+     * @param toMapValue   为 true 时转为map 中的值，否则转为字段值
+     */
+    static void convertElements(Object[] elements, ContainerCodec elementCodec, boolean toMapValue) {
+        run(new ElementsTask(elements, elementCodec, toMapValue, ContainerCodec.currentGuard(), 0, elements.length, leafSize(elements.length)));
+    }
+
+    /**
+     * 未达到并行阈值时在当前线程直接转化 否则提交到配置的线程池
+     */
+    private static void run(RangeTask task) {
+        if (task.to - task.from < ObjectMappingConfig.getParallelThreshold()) {
+            task.convert();
+        } else {
+            ObjectMappingConfig.getForkJoinPool().invoke(task);
+        }
+    }
+
+    private static int leafSize(int size) {
+        return Math.max(MIN_LEAF_SIZE, size / (ObjectMappingConfig.getForkJoinPool().getParallelism() * 4));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> asList(Object[] results) {
+        return new ArrayList<>((List<T>) Arrays.asList(results));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object source) {
+        return (Map<String, Object>) source;
+    }
+
+    /**
+     * 按下标区间拆分的转化任务
+     */
+    private abstract static class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final Object[] sources;
+        final Object[] results;
+        final int from;
+        final int to;
+        final int leafSize;
+
+        RangeTask(Object[] sources, Object[] results, int from, int to, int leafSize) {
+            this.sources = sources;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leafSize) {
+                convert();
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(split(from, middle), split(middle, to));
+        }
+
+        abstract RangeTask split(int from, int to);
+
+        abstract void convert();
+    }
+
+    private static final class ObjectsToMapsTask extends RangeTask {
+        private static final long serialVersionUID = 1L;
+
+        private final Class<?> stopClass;
+        private final MapIgnoreHandler mapIgnoreHandler;
+
+        ObjectsToMapsTask(Object[] sources, Object[] results, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler, int from, int to, int leafSize) {
+            super(sources, results, from, to, leafSize);
+            this.stopClass = stopClass;
+            this.mapIgnoreHandler = mapIgnoreHandler;
+        }
+
+        @Override
+        RangeTask split(int from, int to) {
+            return new ObjectsToMapsTask(sources, results, stopClass, mapIgnoreHandler, from, to, leafSize);
+        }
+
+        @Override
+        void convert() {
+            // 批量数据通常为同一类型 记录上一个元素的类型及其解析结果
+            Class<?> lastClass = null;
+            ObjectMapMapper<Object> mapper = null;
+            MappingPlan mappingPlan = null;
+            for (int i = from; i < to; i++) {
+                Object source = sources[i];
+                Map<String, Object> resultMap = new HashMap<>(16);
+                results[i] = resultMap;
+                if (source == null) {
+                    continue;
+                }
+                Class<?> sourceClass = source.getClass();
+                if (sourceClass != lastClass) {
+                    Class<?> actualStopClass = stopClass;
+                    if (actualStopClass == null || !actualStopClass.isAssignableFrom(sourceClass) || Void.class == actualStopClass) {
+                        actualStopClass = ObjectMappingMapUtil.getDefaultStopClass(sourceClass);
+                    }
+                    mapper = ObjectMappingMapUtil.getGeneratedMapper(sourceClass, actualStopClass);
+                    mappingPlan = mapper == null ? ObjectMappingMapUtil.getMappingPlan(sourceClass, actualStopClass) : null;
+                    lastClass = sourceClass;
+                }
+                ObjectMappingMapUtil.populateMap(resultMap, source, mapper, mappingPlan, mapIgnoreHandler);
+            }
+        }
+    }
+
+    private static final class MapsToObjectsTask extends RangeTask {
+        private static final long serialVersionUID = 1L;
+
+        private final Class<?> targetClazz;
+        private final ObjectMapMapper<Object> mapper;
+        private final MappingPlan mappingPlan;
+
+        MapsToObjectsTask(Object[] sources, Object[] results, Class<?> targetClazz, ObjectMapMapper<Object> mapper, MappingPlan mappingPlan, int from, int to, int leafSize) {
+            super(sources, results, from, to, leafSize);
+            this.targetClazz = targetClazz;
+            this.mapper = mapper;
+            this.mappingPlan = mappingPlan;
+        }
+
+        @Override
+        RangeTask split(int from, int to) {
+            return new MapsToObjectsTask(sources, results, targetClazz, mapper, mappingPlan, from, to, leafSize);
+        }
+
+        @Override
+        void convert() {
+            for (int i = from; i < to; i++) {
+                Map<String, Object> source = castMap(sources[i]);
+                results[i] = source == null ? null : ObjectMappingMapUtil.mapToObject(source, targetClazz, mapper, mappingPlan);
+            }
+        }
+    }
+
+    private static final class ElementsTask extends RangeTask {
+        private static final long serialVersionUID = 1L;
+
+        private final ContainerCodec elementCodec;
+        private final boolean toMapValue;
+        /**
+         * 发起转化的线程上元素的转化路径 工作线程上使用其副本
+         */
+        private final CycleGuard guard;
+
+        ElementsTask(Object[] elements, ContainerCodec elementCodec, boolean toMapValue, CycleGuard guard, int from, int to, int leafSize) {
+            super(elements, elements, from, to, leafSize);
+            this.elementCodec = elementCodec;
+            this.toMapValue = toMapValue;
+            this.guard = guard;
+        }
+
+        @Override
+        protected void compute() {
+            CycleGuard previous = ContainerCodec.currentGuard();
+            ContainerCodec.setCurrentGuard(guard == null ? null : guard.copy());
+            try {
+                super.compute();
+            } finally {
+                ContainerCodec.setCurrentGuard(previous);
+            }
+        }
+
+        @Override
+        RangeTask split(int from, int to) {
+            return new ElementsTask(sources, elementCodec, toMapValue, guard, from, to, leafSize);
+        }
+
+        @Override
+        void convert() {
+            for (int i = from; i < to; i++) {
+                results[i] = toMapValue ? elementCodec.toMapValue(sources[i]) : elementCodec.fromMapValue(sources[i]);
+            }
+        }
+    }
+}
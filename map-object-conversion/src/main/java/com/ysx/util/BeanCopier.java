@@ -0,0 +1,394 @@
+package com.ysx.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 对象复制器 - 按 源类型 - 目标类型 一次性解析出 源字段 到 目标字段 的绑定，复制时直接在字段间搬运值，不经过中间map
+ * 复制结果与 mapToObject(objectToMap(源对象), 目标类型) 相同: 遵循 MapKeyMapping，IgnoreMapMapping，CatchSingleProperty，
+ * CatchAllProperty，DateMapping 的规则，值类型不一致时按类型转换器转换，同一基本类型的字段间复制不装箱
+ * 源对象属性抓取的字段按声明类型解析键，运行时子类中多出的字段不会复制
+ * 目标类型(或其属性抓取的嵌套类型)需通过构造参数创建，或源类型的属性抓取字段声明为接口，抽象类时 退回到经过map 的转化
+ * ysx
+ */
+public final class BeanCopier<S, T> {
+
+    private final Class<S> sourceClass;
+    private final Class<T> targetClass;
+    /**
+     * 目标类型的字段绑定 需要退回到经过map 的转化时为 null
+     */
+    private final TargetBinding binding;
+
+    private BeanCopier(Class<S> sourceClass, Class<T> targetClass, TargetBinding binding) {
+        this.sourceClass = sourceClass;
+        this.targetClass = targetClass;
+        this.binding = binding;
+    }
+
+    /**
+     * 获取 源类型 - 目标类型 的对象复制器 每对类型只解析一次(两个类型的类加载器没有父子关系时每次解析)
+     *
+     * @param sourceClass 源类型
+     * @param targetClass 目标类型
+     * @param <S>         源类型泛型
+     * @param <T>         目标类型泛型
+     * @return 对象复制器
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> BeanCopier<S, T> of(Class<S> sourceClass, Class<T> targetClass) {
+        BeanCopier<?, ?> copier = ClassMetadata.getCopier(sourceClass, targetClass);
+        if (copier == null) {
+            // 复制器不可变 并发情况下重复解析无副作用
+            copier = ClassMetadata.putCopier(sourceClass, targetClass, new BeanCopier<>(sourceClass, targetClass, resolve(sourceClass, targetClass)));
+        }
+        return (BeanCopier<S, T>) copier;
+    }
+
+    /**
+     * 复制为新的目标对象
+     *
+     * @param source 源对象
+     * @return 目标对象 源对象为 null 或创建失败时返回 null
+     */
+    public T copy(S source) {
+        if (source == null) {
+            return null;
+        }
+        if (binding == null) {
+            return ObjectMappingMapUtil.mapToObject(ObjectMappingMapUtil.objectToMap(source, null), targetClass, null);
+        }
+        T target = targetClass.cast(binding.instantiator.newInstance());
+        if (target != null) {
+            binding.bind(source, target, true);
+        }
+        return target;
+    }
+
+    /**
+     * 复制到已有的目标对象上 规则同 mapIntoObject: 源对象中为 null 或无法转换的值 目标字段保持原值
+     *
+     * @param source 源对象
+     * @param target 目标对象
+     * @return 目标对象
+     */
+    public T copyInto(S source, T target) {
+        if (source == null || target == null) {
+            return target;
+        }
+        if (binding == null) {
+            return ObjectMappingMapUtil.mapIntoObject(ObjectMappingMapUtil.objectToMap(source, null), target);
+        }
+        binding.bind(source, target, false);
+        return target;
+    }
+
+    /**
+     * 解析目标类型的字段绑定
+     *
+     * @return 字段绑定 需要退回到经过map 的转化时返回 null
+     */
+    private static TargetBinding resolve(Class<?> sourceClass, Class<?> targetClass) {
+        if (targetClass.isEnum() || targetClass.isPrimitive() || targetClass.isArray()) {
+            return null;
+        }
+        Map<String, SourcePath> exactPaths = new LinkedHashMap<>();
+        if (!collectSourcePaths(sourceClass, null, new FieldMapping[0], exactPaths, new HashSet<Class<?>>())) {
+            return null;
+        }
+        // 通用处理后相同的键 取填充顺序靠后的
+        Map<String, SourcePath> normalizedPaths = new HashMap<>(exactPaths.size() * 2);
+        for (SourcePath path : exactPaths.values()) {
+            normalizedPaths.put(path.leaf.getNormalizedKey(), path);
+        }
+        return resolveTarget(targetClass, null, exactPaths, normalizedPaths, new HashSet<Class<?>>());
+    }
+
+    /**
+     * 按 objectToMap 的填充顺序收集源类型的所有键及取值路径 同名键以后填充的为准
+     *
+     * @param type      源类型
+     * @param stopClass 停止类
+     * @param chain     到达该类型所经过的属性抓取字段
+     * @param paths     键 - 取值路径
+     * @param visiting  正在解析的类型 防止属性抓取循环
+     * @return 能否静态确定全部键
+     */
+    private static boolean collectSourcePaths(Class<?> type, Class<?> stopClass, FieldMapping[] chain, Map<String, SourcePath> paths, Set<Class<?>> visiting) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type == Object.class || !visiting.add(type)) {
+            return false;
+        }
+        for (FieldMapping mapping : ObjectMappingMapUtil.getMappingPlan(type, stopClass).getMappings()) {
+            if (mapping.isCatchAll()) {
+                FieldMapping[] nestedChain = new FieldMapping[chain.length + 1];
+                System.arraycopy(chain, 0, nestedChain, 0, chain.length);
+                nestedChain[chain.length] = mapping;
+                if (!collectSourcePaths(mapping.getType(), mapping.getCatchAllStopClass(), nestedChain, paths, visiting)) {
+                    return false;
+                }
+            } else {
+                // 与 map 相同 后放入的键覆盖先放入的 并移到最后
+                paths.remove(mapping.getMapKey());
+                paths.put(mapping.getMapKey(), new SourcePath(chain, mapping));
+            }
+        }
+        visiting.remove(type);
+        return true;
+    }
+
+    /**
+     * 解析目标类型(或属性抓取的嵌套类型)的字段绑定
+     *
+     * @return 字段绑定 类型不能无参创建时返回 null
+     */
+    private static TargetBinding resolveTarget(Class<?> type, Class<?> stopClass, Map<String, SourcePath> exactPaths, Map<String, SourcePath> normalizedPaths, Set<Class<?>> visiting) {
+        Instantiator instantiator = Instantiator.of(type);
+        if (!instantiator.isNoArgs() || !visiting.add(type)) {
+            return null;
+        }
+        List<Binding> bindings = new ArrayList<>();
+        for (FieldMapping mapping : ObjectMappingMapUtil.getMappingPlan(type, stopClass).getMappings()) {
+            if (!mapping.isNestedTarget()) {
+                SourcePath exact = exactPaths.get(mapping.getMapKey());
+                SourcePath normalized = normalizedPaths.get(mapping.getNormalizedKey());
+                if (exact == null && normalized == null) {
+                    continue;
+                }
+                MethodHandle primitiveCopier = exact != null && exact.chain.length == 0 && isPlain(exact.leaf) && isPlain(mapping)
+                        ? FieldAccessor.primitiveCopier(exact.leaf.getField(), mapping.getField()) : null;
+                bindings.add(primitiveCopier != null ? new PrimitiveCopy(primitiveCopier) : new ValueCopy(mapping, exact, normalized));
+            } else if (mapping.getType().isEnum()) {
+                bindings.add(new EnumInference(mapping, enumPaths(mapping, exactPaths)));
+            } else {
+                TargetBinding nested = resolveTarget(mapping.getType(), mapping.getCatchAllStopClass(), exactPaths, normalizedPaths, visiting);
+                if (nested == null) {
+                    return null;
+                }
+                bindings.add(new NestedCopy(mapping, nested));
+            }
+        }
+        visiting.remove(type);
+        return new TargetBinding(instantiator, bindings.toArray(new Binding[0]));
+    }
+
+    /**
+     * 不需要属性抓取，日期格式化的字段
+     */
+    private static boolean isPlain(FieldMapping mapping) {
+        return !mapping.isCatchSingle() && mapping.getDateCodec() == null;
+    }
+
+    /**
+     * 推断枚举时要读取的键对应的取值路径
+     */
+    private static SourcePath[] enumPaths(FieldMapping enumMapping, Map<String, SourcePath> exactPaths) {
+        Set<String> keys = new LinkedHashSet<>();
+        Class<?> enumClass = enumMapping.getType();
+        if (enumMapping.isCatchSingle()) {
+            FieldMapping single = ObjectMappingMapUtil.getMappingPlan(enumClass, null).getByName(enumMapping.getSingleProperty());
+            if (single != null) {
+                keys.add(single.getMapKey());
+            }
+        } else {
+            // 带有类体的枚举对象 其实际类型的字段可能不同
+            for (Object constant : enumClass.getEnumConstants()) {
+                for (FieldMapping mapping : ObjectMappingMapUtil.getMappingPlan(constant.getClass(), Enum.class).getMappings()) {
+                    keys.add(mapping.getMapKey());
+                }
+            }
+        }
+        List<SourcePath> paths = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            SourcePath path = exactPaths.get(key);
+            if (path != null) {
+                paths.add(path);
+            }
+        }
+        return paths.toArray(new SourcePath[0]);
+    }
+
+    @Override
+    public String toString() {
+        return "BeanCopier{" + sourceClass.getName() + " -> " + targetClass.getName() + (binding == null ? ", map" : "") + "}";
+    }
+
+    /**
+     * 源对象中一个键的取值路径 - 经过的属性抓取字段 及最终的字段映射
+     */
+    private static final class SourcePath {
+        private final FieldMapping[] chain;
+        private final FieldMapping leaf;
+
+        private SourcePath(FieldMapping[] chain, FieldMapping leaf) {
+            this.chain = chain;
+            this.leaf = leaf;
+        }
+
+        /**
+         * @return 按 objectToMap 规则取得的值 属性抓取的对象为 null 时返回 null
+         */
+        private Object read(Object source) {
+            Object owner = source;
+            for (FieldMapping mapping : chain) {
+                owner = mapping.get(owner);
+                if (owner == null) {
+                    return null;
+                }
+            }
+            return ObjectMappingMapUtil.getMapValue(leaf, owner);
+        }
+    }
+
+    /**
+     * 一个类型的全部字段绑定 及其创建器
+     */
+    private static final class TargetBinding {
+        private final Instantiator instantiator;
+        private final Binding[] bindings;
+
+        private TargetBinding(Instantiator instantiator, Binding[] bindings) {
+            this.instantiator = instantiator;
+            this.bindings = bindings;
+        }
+
+        private void bind(Object source, Object target, boolean fresh) {
+            for (Binding binding : bindings) {
+                binding.bind(source, target, fresh);
+            }
+        }
+    }
+
+    /**
+     * 单个目标字段的绑定
+     */
+    private abstract static class Binding {
+        /**
+         * @param source 源对象
+         * @param target 目标对象
+         * @param fresh  目标对象是否为新创建的 新对象的属性抓取字段与 mapToObject 相同 始终赋值
+         */
+        abstract void bind(Object source, Object target, boolean fresh);
+    }
+
+    /**
+     * 同一基本类型字段间的直接复制
+     */
+    private static final class PrimitiveCopy extends Binding {
+        private final MethodHandle copier;
+
+        private PrimitiveCopy(MethodHandle copier) {
+            this.copier = copier;
+        }
+
+        @Override
+        void bind(Object source, Object target, boolean fresh) {
+            try {
+                copier.invokeExact(source, target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * 普通字段 按 map 转对象的规则取值 转换 赋值
+     */
+    private static final class ValueCopy extends Binding {
+        private final FieldMapping mapping;
+        private final SourcePath exact;
+        private final SourcePath normalized;
+
+        private ValueCopy(FieldMapping mapping, SourcePath exact, SourcePath normalized) {
+            this.mapping = mapping;
+            this.exact = exact;
+            this.normalized = normalized;
+        }
+
+        @Override
+        void bind(Object source, Object target, boolean fresh) {
+            Object value = exact == null ? null : exact.read(source);
+            // 没有取到值 兼容 驼峰，_,大小写取值
+            if (value == null && normalized != null && normalized != exact) {
+                value = normalized.read(source);
+            }
+            value = ObjectMappingMapUtil.valueTypeChange(mapping, value);
+            Object fieldValue = mapping.convert(value);
+            if (fieldValue != null) {
+                mapping.set(target, fieldValue);
+            } else if (value != null) {
+                ConversionMetrics.recordDroppedValue();
+            }
+        }
+    }
+
+    /**
+     * 属性抓取的枚举字段 只将推断用到的键放入临时map 中推断
+     */
+    private static final class EnumInference extends Binding {
+        private final FieldMapping mapping;
+        private final SourcePath[] paths;
+
+        private EnumInference(FieldMapping mapping, SourcePath[] paths) {
+            this.mapping = mapping;
+            this.paths = paths;
+        }
+
+        @Override
+        void bind(Object source, Object target, boolean fresh) {
+            if (paths.length == 0 && !fresh) {
+                return;
+            }
+            Map<String, Object> matchMap = new HashMap<>(paths.length * 2);
+            for (SourcePath path : paths) {
+                matchMap.put(path.leaf.getMapKey(), path.read(source));
+            }
+            Enum<?> value = ObjectMappingMapUtil.matchEnumByProperty(matchMap, mapping);
+            if (value != null || fresh) {
+                mapping.set(target, value);
+            }
+        }
+    }
+
+    /**
+     * 属性抓取的嵌套对象 使用同一源对象复制
+     */
+    private static final class NestedCopy extends Binding {
+        private final FieldMapping mapping;
+        private final TargetBinding nested;
+
+        private NestedCopy(FieldMapping mapping, TargetBinding nested) {
+            this.mapping = mapping;
+            this.nested = nested;
+        }
+
+        @Override
+        void bind(Object source, Object target, boolean fresh) {
+            Object nestedTarget = fresh ? null : mapping.get(target);
+            if (nestedTarget != null) {
+                nested.bind(source, nestedTarget, false);
+                return;
+            }
+            // 已有对象上为 null 的嵌套对象 没有可复制的字段时不创建
+            if (!fresh && nested.bindings.length == 0) {
+                return;
+            }
+            nestedTarget = nested.instantiator.newInstance();
+            if (nestedTarget != null) {
+                nested.bind(source, nestedTarget, true);
+            }
+            if (nestedTarget != null || fresh) {
+                mapping.set(target, nestedTarget);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.ysx.util;
+
+import com.ysx.util.handler.MapIgnoreHandler;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 对象差异 - 按 objectToMap 的规则(键，忽略，属性抓取，日期格式化)比较两个对象，只输出映射值不同的键
+ * 同类型的对象按映射计划逐字段比较一次，基本类型字段不装箱比较，不生成两份完整的map
+ * ysx
+ */
+final class BeanDiff {
+
+    private BeanDiff() {
+    }
+
+    /**
+     * 比较两个对象 填充映射值发生变化的键
+     *
+     * @param diffMap          要填充的map 值为变化后的映射值
+     * @param before           变化前的对象
+     * @param after            变化后的对象
+     * @param stopClass        要停止在对象父类的层级
+     * @param mapIgnoreHandler 自定义属性忽略策略 按变化后的键值判断
+     */
+    static void diff(Map<String, Object> diffMap, Object before, Object after, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler) {
+        diff(diffMap, before, after, stopClass, mapIgnoreHandler, new CycleGuard());
+    }
+
+    /**
+     * @param guard 属性抓取路径上的对象(按变化后的对象记录)
+     */
+    private static void diff(Map<String, Object> diffMap, Object before, Object after, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler, CycleGuard guard) {
+        if (before == null && after == null) {
+            return;
+        }
+        if (before == null || after == null || before.getClass() != after.getClass()) {
+            diffMaps(diffMap, before, after, stopClass, mapIgnoreHandler);
+            return;
+        }
+        Class<?> sourceClass = after.getClass();
+        // 循环引用或超过最大嵌套深度时 按 CyclePolicy 处理
+        if (!guard.enter(after, sourceClass)) {
+            return;
+        }
+        try {
+            diffFields(diffMap, before, after, sourceClass, stopClass, mapIgnoreHandler, guard);
+        } finally {
+            guard.exit(after);
+        }
+    }
+
+    /**
+     * 同类型的对象 按映射计划逐字段比较
+     */
+    private static void diffFields(Map<String, Object> diffMap, Object before, Object after, Class<?> sourceClass, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler, CycleGuard guard) {
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(sourceClass) || Void.class == stopClass) {
+            stopClass = ObjectMappingMapUtil.getDefaultStopClass(sourceClass);
+        }
+        for (FieldMapping mapping : ObjectMappingMapUtil.getMappingPlan(sourceClass, stopClass).getMappings()) {
+            if (mapping.isCatchAll()) {
+                // 属性抓取的对象 递归比较 键由运行时类型决定
+                diff(diffMap, mapping.get(before), mapping.get(after), mapping.getCatchAllStopClass(), mapIgnoreHandler, guard);
+                continue;
+            }
+            String key = mapping.getMapKey();
+            boolean changed;
+            Object afterValue;
+            if (mapping.isPlainPrimitive()) {
+                changed = !mapping.primitiveEquals(before, after);
+                afterValue = changed ? mapping.get(after) : null;
+            } else {
+                afterValue = ObjectMappingMapUtil.getMapValue(mapping, after);
+                changed = !Objects.deepEquals(ObjectMappingMapUtil.getMapValue(mapping, before), afterValue);
+            }
+            record(diffMap, key, changed, afterValue, mapIgnoreHandler);
+        }
+    }
+
+    /**
+     * 类型不同 或一方为 null 时 按转化后的map 比较
+     */
+    private static void diffMaps(Map<String, Object> diffMap, Object before, Object after, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler) {
+        Map<String, Object> beforeMap = before == null ? new HashMap<String, Object>() : ObjectMappingMapUtil.objectToMap(before, stopClass);
+        Map<String, Object> afterMap = after == null ? new HashMap<String, Object>() : ObjectMappingMapUtil.objectToMap(after, stopClass);
+        Set<String> keys = new HashSet<>(beforeMap.keySet());
+        keys.addAll(afterMap.keySet());
+        for (String key : keys) {
+            Object afterValue = afterMap.get(key);
+            // 变化后不存在的键 值为 null
+            record(diffMap, key, !afterMap.containsKey(key) || !beforeMap.containsKey(key) || !Objects.deepEquals(beforeMap.get(key), afterValue), afterValue, mapIgnoreHandler);
+        }
+    }
+
+    /**
+     * 与 map 相同 同名键以后出现的为准
+     */
+    private static void record(Map<String, Object> diffMap, String key, boolean changed, Object afterValue, MapIgnoreHandler mapIgnoreHandler) {
+        if (changed && (mapIgnoreHandler == null || !mapIgnoreHandler.ignoreHandler(key, afterValue))) {
+            diffMap.put(key, afterValue);
+        } else {
+            diffMap.remove(key);
+        }
+    }
+}
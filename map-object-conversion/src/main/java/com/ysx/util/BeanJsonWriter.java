@@ -0,0 +1,277 @@
+package com.ysx.util;
+
+import com.ysx.util.handler.MapIgnoreHandler;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 对象直接写为 JSON - 按映射计划逐字段写出，键值与 objectToMap 的结果相同(键，忽略，属性抓取，日期格式化，自定义忽略策略)，不生成中间map
+ * 字段的键 "key": 按映射计划预先编码一次；存在抓取全部属性的字段或同名键时，键由运行时类型及忽略策略决定，
+ * 该层对象先填充到按嵌套层级复用的map 中再写出
+ * 值的写法: 数字，布尔为字面量(NaN，Infinity 为字符串)，Date 为毫秒数，字符，枚举(名称)，java.time 及其他 JDK 类型为字符串，
+ * map 为对象，集合与数组为数组(byte[] 为 Base64 字符串，char[] 为字符串)，其他对象按 objectToMap 的规则写为对象
+ * ysx
+ */
+final class BeanJsonWriter {
+
+    private final JsonOutput out;
+    /**
+     * 对象，map，集合的写出路径 循环引用或超过最大嵌套深度时按 CyclePolicy 处理(STOP 时写为 null)
+     */
+    private final CycleGuard guard = new CycleGuard();
+    /**
+     * 按嵌套层级复用的map
+     */
+    private final List<Map<String, Object>> buffers = new ArrayList<>();
+    private int bufferDepth;
+
+    private BeanJsonWriter(JsonOutput out) {
+        this.out = out;
+    }
+
+    /**
+     * 将对象写为 JSON 并刷新输出
+     *
+     * @param sourceObject     要写出的对象 为 map，集合，数组等时按值的规则写出
+     * @param stopClass        要停止在对象父类的层级
+     * @param mapIgnoreHandler 自定义属性忽略策略 只作用于最外层对象
+     * @param out              JSON 输出
+     */
+    static void write(Object sourceObject, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler, JsonOutput out) throws IOException {
+        BeanJsonWriter writer = new BeanJsonWriter(out);
+        // 与 objectToMap 相同 最外层的枚举对象按其属性写出
+        if (sourceObject instanceof Enum || sourceObject != null && isBean(sourceObject.getClass())) {
+            writer.writeBean(sourceObject, stopClass, mapIgnoreHandler);
+        } else {
+            writer.writeValue(sourceObject);
+        }
+        out.flush();
+    }
+
+    /**
+     * 按 objectToMap 的规则写为对象的类型
+     */
+    private static boolean isBean(Class<?> type) {
+        String name = type.getName();
+        return !ObjectMappingMapUtil.isBaseType(type) && !type.isEnum() && !name.startsWith("java.") && !name.startsWith("javax.");
+    }
+
+    private void writeBean(Object bean, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler) throws IOException {
+        Class<?> beanClass = bean.getClass();
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(beanClass) || Void.class == stopClass) {
+            stopClass = ObjectMappingMapUtil.getDefaultStopClass(beanClass);
+        }
+        if (!guard.enter(bean, beanClass)) {
+            out.writeAscii("null");
+            return;
+        }
+        try {
+            MappingPlan mappingPlan = ObjectMappingMapUtil.getMappingPlan(beanClass, stopClass);
+            Layout layout = Layout.of(mappingPlan);
+            if (layout.keys == null) {
+                writeBuffered(bean, mappingPlan, mapIgnoreHandler);
+            } else {
+                writeFields(bean, mappingPlan.getMappings(), layout.keys, mapIgnoreHandler);
+            }
+        } finally {
+            guard.exit(bean);
+        }
+    }
+
+    /**
+     * 键固定且不重复 逐字段直接写出
+     */
+    private void writeFields(Object bean, FieldMapping[] mappings, JsonOutput.EncodedKey[] keys, MapIgnoreHandler mapIgnoreHandler) throws IOException {
+        out.write('{');
+        boolean first = true;
+        for (int i = 0; i < mappings.length; i++) {
+            FieldMapping mapping = mappings[i];
+            Object value;
+            if (mapping.getContainerCodec() != null && mapIgnoreHandler == null) {
+                // 元素为对象的容器 不转为中间的map 直接按值的规则写出
+                value = mapping.get(bean);
+            } else {
+                value = ObjectMappingMapUtil.getMapValue(mapping, bean);
+                if (mapIgnoreHandler != null && mapIgnoreHandler.ignoreHandler(mapping.getMapKey(), value)) {
+                    continue;
+                }
+            }
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            out.writeKey(keys[i]);
+            writeValue(value);
+        }
+        out.write('}');
+    }
+
+    /**
+     * 键由运行时类型决定 先按 objectToMap 的规则填充到复用的map 中再写出
+     */
+    private void writeBuffered(Object bean, MappingPlan mappingPlan, MapIgnoreHandler mapIgnoreHandler) throws IOException {
+        if (bufferDepth == buffers.size()) {
+            buffers.add(new HashMap<String, Object>(32));
+        }
+        Map<String, Object> buffer = buffers.get(bufferDepth++);
+        try {
+            ObjectMappingMapUtil.populateMapDirect(buffer, bean, null, mappingPlan, mapIgnoreHandler);
+            writeMap(buffer);
+        } finally {
+            buffer.clear();
+            bufferDepth--;
+        }
+    }
+
+    private void writeMap(Map<?, ?> map) throws IOException {
+        out.write('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            out.writeString(String.valueOf(entry.getKey()));
+            out.write(':');
+            writeValue(entry.getValue());
+        }
+        out.write('}');
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            out.writeAscii("null");
+        } else if (value instanceof String) {
+            out.writeString((String) value);
+        } else if (value instanceof Number) {
+            writeNumber((Number) value);
+        } else if (value instanceof Boolean) {
+            out.writeAscii(value.toString());
+        } else if (value instanceof Character) {
+            out.writeString(value.toString());
+        } else if (value instanceof Enum) {
+            out.writeString(((Enum<?>) value).name());
+        } else if (value instanceof Date) {
+            out.writeAscii(Long.toString(((Date) value).getTime()));
+        } else if (value instanceof TemporalAccessor) {
+            out.writeString(value.toString());
+        } else if (value instanceof Map || value instanceof Collection || value instanceof Object[]) {
+            writeContainer(value);
+        } else if (value.getClass().isArray()) {
+            writePrimitiveArray(value);
+        } else if (isBean(value.getClass())) {
+            writeBean(value, null, null);
+        } else {
+            out.writeString(value.toString());
+        }
+    }
+
+    private void writeNumber(Number value) throws IOException {
+        if (value instanceof Double && !Double.isFinite((Double) value) || value instanceof Float && !Float.isFinite((Float) value)) {
+            out.writeString(value.toString());
+        } else {
+            out.writeAscii(value.toString());
+        }
+    }
+
+    private void writeContainer(Object container) throws IOException {
+        if (!guard.enter(container, container.getClass())) {
+            out.writeAscii("null");
+            return;
+        }
+        try {
+            if (container instanceof Map) {
+                writeMap((Map<?, ?>) container);
+                return;
+            }
+            out.write('[');
+            boolean first = true;
+            Iterable<?> elements = container instanceof Collection ? (Collection<?>) container : Arrays.asList((Object[]) container);
+            for (Object element : elements) {
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+                writeValue(element);
+            }
+            out.write(']');
+        } finally {
+            guard.exit(container);
+        }
+    }
+
+    private void writePrimitiveArray(Object array) throws IOException {
+        if (array instanceof byte[]) {
+            out.writeString(Base64.getEncoder().encodeToString((byte[]) array));
+            return;
+        }
+        if (array instanceof char[]) {
+            out.writeString(new String((char[]) array));
+            return;
+        }
+        out.write('[');
+        int length = Array.getLength(array);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (array instanceof int[]) {
+                out.writeAscii(Integer.toString(((int[]) array)[i]));
+            } else if (array instanceof long[]) {
+                out.writeAscii(Long.toString(((long[]) array)[i]));
+            } else if (array instanceof boolean[]) {
+                out.writeAscii(Boolean.toString(((boolean[]) array)[i]));
+            } else {
+                writeNumber((Number) Array.get(array, i));
+            }
+        }
+        out.write(']');
+    }
+
+    /**
+     * 映射计划的 JSON 写法 - 键固定且不重复时各字段预先编码的键
+     */
+    static final class Layout {
+        /**
+         * 与 mappingPlan.getMappings() 对应 存在抓取全部属性的字段或同名键时为 null
+         */
+        private final JsonOutput.EncodedKey[] keys;
+
+        private Layout(MappingPlan mappingPlan) {
+            FieldMapping[] mappings = mappingPlan.getMappings();
+            JsonOutput.EncodedKey[] encodedKeys = new JsonOutput.EncodedKey[mappings.length];
+            Set<String> names = new HashSet<>(mappings.length * 2);
+            for (int i = 0; i < mappings.length && encodedKeys != null; i++) {
+                // 同名键以后放入的为准 且受忽略策略影响 无法逐字段直接写出
+                if (mappings[i].isCatchAll() || !names.add(mappings[i].getMapKey())) {
+                    encodedKeys = null;
+                } else {
+                    encodedKeys[i] = new JsonOutput.EncodedKey(mappings[i].getMapKey());
+                }
+            }
+            this.keys = encodedKeys;
+        }
+
+        static Layout of(MappingPlan mappingPlan) {
+            Layout layout = mappingPlan.getJsonLayout();
+            if (layout == null) {
+                layout = new Layout(mappingPlan);
+                mappingPlan.setJsonLayout(layout);
+            }
+            return layout;
+        }
+    }
+}
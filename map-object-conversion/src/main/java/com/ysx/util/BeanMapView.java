@@ -0,0 +1,213 @@
+package com.ysx.util;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 对象的map 视图 - 不复制字段值，get 时才按映射规则(属性抓取，日期格式化)计算对应的值
+ * 键 - 字段映射 的索引按映射计划只建立一次，按键读取的开销与字段个数无关
+ * 可写视图的 put 会写回对象字段，遍历视图(entrySet 等)时按 objectToMap 的规则临时生成全部内容
+ * 没有抓取全部属性的字段时键是固定的，size，isEmpty 直接由键索引得到
+ * ysx
+ */
+final class BeanMapView extends AbstractMap<String, Object> {
+
+    private final Object bean;
+    private final MappingPlan mappingPlan;
+    private final KeyIndex keyIndex;
+    private final boolean writable;
+
+    BeanMapView(Object bean, MappingPlan mappingPlan, boolean writable) {
+        this.bean = bean;
+        this.mappingPlan = mappingPlan;
+        this.keyIndex = KeyIndex.of(mappingPlan);
+        this.writable = writable;
+    }
+
+    @Override
+    public Object get(Object key) {
+        Owner owner = resolve(key);
+        return owner == null ? null : ObjectMappingMapUtil.getMapValue(owner.mapping, owner.target);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return resolve(key) != null;
+    }
+
+    @Override
+    public int size() {
+        int size = keyIndex.size();
+        return size < 0 ? entrySet().size() : size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (!writable) {
+            throw new UnsupportedOperationException("只读的对象map 视图");
+        }
+        Owner owner = resolve(key);
+        if (owner == null) {
+            throw new IllegalArgumentException("对象中不存在映射到键 " + key + " 的字段");
+        }
+        FieldMapping mapping = owner.mapping;
+        if (mapping.getSingleProperty() != null) {
+            throw new IllegalArgumentException("键 " + key + " 对应抓取单个属性的字段 不支持写回");
+        }
+        Object old = ObjectMappingMapUtil.getMapValue(mapping, owner.target);
+        Object fieldValue = mapping.convert(ObjectMappingMapUtil.valueTypeChange(mapping, value));
+        if (fieldValue == null && value != null) {
+            throw new IllegalArgumentException("键 " + key + " 的值 " + value + " 无法转换为字段类型 " + mapping.getType().getName());
+        }
+        if (fieldValue == null && mapping.getType().isPrimitive()) {
+            throw new IllegalArgumentException("键 " + key + " 对应基本类型字段 不能为 null");
+        }
+        mapping.set(owner.target, fieldValue);
+        return old;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        throw new UnsupportedOperationException("对象map 视图不支持删除键");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("对象map 视图不支持删除键");
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> snapshot = new LinkedHashMap<>(32);
+        ObjectMappingMapUtil.populateMap(snapshot, bean, null, mappingPlan, null);
+        return Collections.unmodifiableMap(snapshot).entrySet();
+    }
+
+    /**
+     * 查找键对应的字段映射及所属对象 同名键以 objectToMap 中后放入的为准
+     *
+     * @param key 键
+     * @return 键的归属 不存在返回 null
+     */
+    private Owner resolve(Object key) {
+        return keyIndex.resolve(bean, key);
+    }
+
+    /**
+     * 键的归属 - 字段映射 及 字段所属的对象(属性抓取时为嵌套对象)
+     */
+    private static final class Owner {
+        private final FieldMapping mapping;
+        private final Object target;
+
+        private Owner(FieldMapping mapping, Object target) {
+            this.mapping = mapping;
+            this.target = target;
+        }
+    }
+
+    /**
+     * 映射计划的键索引 - 直接映射的键记录最后一个映射的位置，
+     * 抓取全部属性的字段其键由运行时类型决定，按位置从后向前在嵌套对象的索引中查找
+     */
+    static final class KeyIndex {
+        private final FieldMapping[] mappings;
+        /**
+         * 键 - 直接映射该键的最后一个字段位置
+         */
+        private final Map<String, Integer> lastPositions;
+        /**
+         * 抓取全部属性的字段位置 从小到大
+         */
+        private final int[] catchAllPositions;
+
+        private KeyIndex(MappingPlan mappingPlan) {
+            this.mappings = mappingPlan.getMappings();
+            Map<String, Integer> positions = new HashMap<>(mappings.length * 2);
+            int catchAllCount = 0;
+            for (int i = 0; i < mappings.length; i++) {
+                if (mappings[i].isCatchAll()) {
+                    catchAllCount++;
+                } else {
+                    positions.put(mappings[i].getMapKey(), i);
+                }
+            }
+            this.lastPositions = positions;
+            this.catchAllPositions = new int[catchAllCount];
+            for (int i = 0, j = 0; i < mappings.length; i++) {
+                if (mappings[i].isCatchAll()) {
+                    catchAllPositions[j++] = i;
+                }
+            }
+        }
+
+        static KeyIndex of(MappingPlan mappingPlan) {
+            KeyIndex keyIndex = mappingPlan.getKeyIndex();
+            if (keyIndex == null) {
+                keyIndex = new KeyIndex(mappingPlan);
+                mappingPlan.setKeyIndex(keyIndex);
+            }
+            return keyIndex;
+        }
+
+        /**
+         * @return 键的个数 存在抓取全部属性的字段时键由运行时类型决定，返回 -1
+         */
+        private int size() {
+            return catchAllPositions.length == 0 ? lastPositions.size() : -1;
+        }
+
+        private Owner resolve(Object bean, Object key) {
+            if (catchAllPositions.length == 0) {
+                return resolve(bean, key, null);
+            }
+            CycleGuard guard = new CycleGuard();
+            guard.enter(bean, bean.getClass());
+            return resolve(bean, key, guard);
+        }
+
+        /**
+         * @param guard 属性抓取路径上的对象 没有抓取全部属性的字段时为 null
+         */
+        private Owner resolve(Object bean, Object key, CycleGuard guard) {
+            Integer position = lastPositions.get(key);
+            int direct = position == null ? -1 : position;
+            for (int i = catchAllPositions.length - 1; i >= 0 && catchAllPositions[i] > direct; i--) {
+                FieldMapping catchAll = mappings[catchAllPositions[i]];
+                Object nested = catchAll.get(bean);
+                if (nested == null) {
+                    continue;
+                }
+                Class<?> nestedClass = nested.getClass();
+                Class<?> stopClass = catchAll.getCatchAllStopClass();
+                // 与对象转map 相同 结束类不是数据源类型的父类时 设置默认结束类
+                if (stopClass == null || !stopClass.isAssignableFrom(nestedClass) || Void.class == stopClass) {
+                    stopClass = ObjectMappingMapUtil.getDefaultStopClass(nestedClass);
+                }
+                // 循环引用或超过最大嵌套深度时 按 CyclePolicy 跳过该对象
+                if (!guard.enter(nested, nestedClass)) {
+                    continue;
+                }
+                Owner owner;
+                try {
+                    owner = of(ObjectMappingMapUtil.getMappingPlan(nestedClass, stopClass)).resolve(nested, key, guard);
+                } finally {
+                    guard.exit(nested);
+                }
+                if (owner != null) {
+                    return owner;
+                }
+            }
+            return direct < 0 ? null : new Owner(mappings[direct], bean);
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package com.ysx.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 同一类型转化出的map 的紧凑二进制编码 - 类型解析出的键列表作为结构头只写一次，每条记录按键的顺序只保存带类型标记的值
+ * 结构头: 魔数，版本，长度，类名，键列表；记录: 长度，每个键一个值(不存在的键只占一个字节)，结构外的键 - 值
+ * 键列表按 objectToMap 的填充顺序解析，属性抓取的字段按声明类型展开；运行时子类，忽略策略等产生的结构外的键按 键 - 值 保存
+ * 值的编码见 BinaryValues: 基本类型，字符串，Date，BigDecimal，BigInteger，枚举，java.time，byte[]，数组，集合，map，
+ * 其他可序列化的值(只能由 JDK 值类型及类型字段涉及的类组成)
+ * 可写入 ByteBuffer，或写入内存映射的溢出文件；读取时直接从缓冲区(映射区域)解码，按 mapToObject 的规则转回对象
+ * 编解码器不可变 可在多线程间复用
+ * ysx
+ */
+public final class BinaryMapCodec<T> {
+
+    private static final int MAGIC = 0x5953584D;
+    private static final byte VERSION = 1;
+    /**
+     * 溢出文件每次映射的区域大小
+     */
+    private static final int SPILL_REGION_SIZE = 64 * 1024 * 1024;
+
+    private final Class<T> type;
+    private final Class<?> stopClass;
+    /**
+     * 记录中值的顺序
+     */
+    private final MapSchema schema;
+    /**
+     * 类型字段涉及的类 及其父类 - 除 JDK 值类型外 值中允许序列化的类
+     */
+    private final Set<Class<?>> valueTypes;
+
+    private BinaryMapCodec(Class<T> type, Class<?> stopClass, MapSchema schema, Set<Class<?>> valueTypes) {
+        this.type = type;
+        this.stopClass = stopClass;
+        this.schema = schema;
+        this.valueTypes = valueTypes;
+    }
+
+    /**
+     * 获取类型的编解码器 停止类为默认停止类
+     *
+     * @param type 转化为map 的对象类型
+     * @param <T>  对象泛型
+     * @return 编解码器
+     */
+    public static <T> BinaryMapCodec<T> of(Class<T> type) {
+        return of(type, null);
+    }
+
+    /**
+     * 获取类型的编解码器 - 解析键列表 结果应复用
+     *
+     * @param type      转化为map 的对象类型
+     * @param stopClass 要停止在对象父类的层级，不传或传递的非父类则默认Object
+     * @param <T>       对象泛型
+     * @return 编解码器
+     */
+    public static <T> BinaryMapCodec<T> of(Class<T> type, Class<?> stopClass) {
+        if (type == null) {
+            throw new IllegalArgumentException("type 不能为 null");
+        }
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(type) || Void.class == stopClass) {
+            stopClass = ObjectMappingMapUtil.getDefaultStopClass(type);
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        collectKeys(type, stopClass, keys, new HashSet<Class<?>>());
+        Set<Class<?>> valueTypes = new HashSet<>();
+        collectValueTypes(type, valueTypes);
+        return new BinaryMapCodec<>(type, stopClass, new MapSchema(keys.toArray(new String[0])), Collections.unmodifiableSet(valueTypes));
+    }
+
+    /**
+     * 按 objectToMap 的填充顺序收集键 属性抓取的字段按声明类型展开，声明为接口，抽象类，Object 或循环时不展开
+     */
+    private static void collectKeys(Class<?> type, Class<?> stopClass, Set<String> keys, Set<Class<?>> visiting) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type == Object.class || !visiting.add(type)) {
+            return;
+        }
+        for (FieldMapping mapping : ObjectMappingMapUtil.getMappingPlan(type, stopClass).getMappings()) {
+            if (mapping.isCatchAll()) {
+                collectKeys(mapping.getType(), mapping.getCatchAllStopClass(), keys, visiting);
+            } else {
+                keys.add(mapping.getMapKey());
+            }
+        }
+        visiting.remove(type);
+    }
+
+    /**
+     * 收集类型，其父类 及其字段类型(递归) 中的非 JDK 类
+     */
+    private static void collectValueTypes(Class<?> type, Set<Class<?>> valueTypes) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive() || type.getClassLoader() == null || !valueTypes.add(type)) {
+            return;
+        }
+        if (type.getSuperclass() != null) {
+            collectValueTypes(type.getSuperclass(), valueTypes);
+        }
+        if (type.isInterface() || type.isEnum()) {
+            return;
+        }
+        for (FieldMapping mapping : ObjectMappingMapUtil.getMappingPlan(type, Object.class).getMappings()) {
+            collectValueTypes(mapping.getType(), valueTypes);
+        }
+    }
+
+    /**
+     * @return 结构头中的键列表 即记录中值的顺序
+     */
+    public List<String> getKeys() {
+        List<String> keys = new ArrayList<>(schema.size());
+        for (int i = 0; i < schema.size(); i++) {
+            keys.add(schema.keyAt(i));
+        }
+        return Collections.unmodifiableList(keys);
+    }
+
+    /**
+     * 写入结构头
+     *
+     * @param buffer 目标缓冲区 空间不足时抛出 BufferOverflowException 且位置不变
+     */
+    public void writeHeader(ByteBuffer buffer) {
+        int start = buffer.position();
+        try {
+            buffer.putInt(MAGIC).put(VERSION);
+            int bodyStart = buffer.position() + 4;
+            buffer.position(bodyStart);
+            BinaryValues.writeString(buffer, type.getName());
+            BinaryValues.writeVarLong(buffer, schema.size());
+            for (int i = 0; i < schema.size(); i++) {
+                BinaryValues.writeString(buffer, schema.keyAt(i));
+            }
+            buffer.putInt(bodyStart - 4, buffer.position() - bodyStart);
+        } catch (BufferOverflowException e) {
+            buffer.position(start);
+            throw e;
+        }
+    }
+
+    /**
+     * 读取结构头 记录按结构头中的键列表解码，写入后类型的字段发生变化也能读取
+     *
+     * @param buffer 数据 读取后位于第一条记录
+     * @return 按结构头的键列表解码的编解码器
+     */
+    public BinaryMapCodec<T> readHeader(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalStateException("不是 BinaryMapCodec 写入的数据");
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalStateException("不支持的编码版本 " + version);
+        }
+        buffer.getInt();
+        String typeName = BinaryValues.readString(buffer);
+        if (!typeName.equals(type.getName())) {
+            throw new IllegalStateException("数据的类型为 " + typeName + " 与 " + type.getName() + " 不一致");
+        }
+        List<String> keys = BinaryValues.readKeys(buffer);
+        return new BinaryMapCodec<>(type, stopClass, new MapSchema(keys.toArray(new String[0])), valueTypes);
+    }
+
+    /**
+     * 写入一条记录
+     *
+     * @param map    要写入的map 通常为该类型 objectToMap 的结果
+     * @param buffer 目标缓冲区 空间不足时抛出 BufferOverflowException 且位置不变
+     */
+    public void write(Map<String, ?> map, ByteBuffer buffer) {
+        int start = buffer.position();
+        try {
+            buffer.position(start + 4);
+            encode(map, buffer);
+            buffer.putInt(start, buffer.position() - start - 4);
+        } catch (BufferOverflowException | IllegalArgumentException e) {
+            buffer.position(start);
+            throw e;
+        }
+    }
+
+    private void encode(Map<String, ?> map, ByteBuffer buffer) {
+        int present = 0;
+        for (int i = 0; i < schema.size(); i++) {
+            String key = schema.keyAt(i);
+            Object value = map.get(key);
+            if (value == null && !map.containsKey(key)) {
+                buffer.put(BinaryValues.ABSENT);
+            } else {
+                present++;
+                BinaryValues.write(buffer, value, valueTypes);
+            }
+        }
+        int extras = map.size() - present;
+        BinaryValues.writeVarLong(buffer, extras);
+        if (extras == 0) {
+            return;
+        }
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            if (schema.indexOf(entry.getKey()) < 0) {
+                BinaryValues.writeString(buffer, String.valueOf(entry.getKey()));
+                BinaryValues.write(buffer, entry.getValue(), valueTypes);
+            }
+        }
+    }
+
+    /**
+     * 读取一条记录
+     *
+     * @param buffer 数据 读取后位于下一条记录
+     * @return 记录的map
+     */
+    public Map<String, Object> readMap(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        int end = buffer.position() + length;
+        Map<String, Object> map = decode(buffer);
+        if (buffer.position() != end) {
+            throw new IllegalStateException("记录长度不一致 位置 " + buffer.position() + " 应为 " + end);
+        }
+        return map;
+    }
+
+    /**
+     * 读取一条记录 按 mapToObject 的规则转为对象
+     *
+     * @param buffer 数据 读取后位于下一条记录
+     * @return 对象
+     */
+    public T readObject(ByteBuffer buffer) {
+        return ObjectMappingMapUtil.mapToObject(readMap(buffer), type, stopClass);
+    }
+
+    private Map<String, Object> decode(ByteBuffer buffer) {
+        ClassLoader classLoader = type.getClassLoader();
+        Map<String, Object> map = BinaryValues.newRecordMap(schema.size());
+        for (int i = 0; i < schema.size(); i++) {
+            byte tag = buffer.get();
+            if (tag != BinaryValues.ABSENT) {
+                map.put(schema.keyAt(i), BinaryValues.readValue(buffer, tag, classLoader, valueTypes));
+            }
+        }
+        long extras = BinaryValues.readVarLong(buffer);
+        for (long i = 0; i < extras; i++) {
+            String key = BinaryValues.readString(buffer);
+            map.put(key, BinaryValues.read(buffer, classLoader, valueTypes));
+        }
+        return map;
+    }
+
+    /**
+     * 将map 写入溢出文件 - 结构头及每条记录直接编码到文件的内存映射区域中
+     *
+     * @param file 溢出文件 已存在时覆盖
+     * @param maps 要写入的map
+     * @return 写入的记录数
+     */
+    public long spill(Path file, Iterator<? extends Map<String, ?>> maps) throws IOException {
+        try (SpillWriter writer = new SpillWriter(file)) {
+            while (maps.hasNext()) {
+                writer.write(maps.next());
+            }
+            return writer.count;
+        }
+    }
+
+    /**
+     * 将对象按 objectToMap 的规则转化后写入溢出文件 转化使用同一个map
+     *
+     * @param file    溢出文件 已存在时覆盖
+     * @param objects 要写入的对象
+     * @return 写入的记录数
+     */
+    public long spillObjects(Path file, Iterator<? extends T> objects) throws IOException {
+        Map<String, Object> map = new HashMap<>(Math.max(16, schema.size() * 2));
+        try (SpillWriter writer = new SpillWriter(file)) {
+            while (objects.hasNext()) {
+                ObjectMappingMapUtil.objectToMap(objects.next(), map, stopClass, null);
+                writer.write(map);
+                map.clear();
+            }
+            return writer.count;
+        }
+    }
+
+    /**
+     * 打开溢出文件 按文件结构头中的键列表读取记录
+     *
+     * @param file 溢出文件
+     * @return 记录读取器 使用后需关闭
+     */
+    public Reader<T> open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new Reader<>(this, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BinaryMapCodec{" + type.getName() + " " + schema + "}";
+    }
+
+    /**
+     * 溢出文件写入 - 依次映射文件的区域，记录直接编码到映射区域中，区域剩余空间不足时从记录的起始位置重新映射
+     */
+    private final class SpillWriter implements Closeable {
+        private final FileChannel channel;
+        private MappedByteBuffer region;
+        /**
+         * 当前映射区域在文件中的起始位置
+         */
+        private long regionStart;
+        private long count;
+
+        private SpillWriter(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                this.region = channel.map(FileChannel.MapMode.READ_WRITE, 0, SPILL_REGION_SIZE);
+                writeHeader(region);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        private void write(Map<String, ?> map) throws IOException {
+            int regionSize = SPILL_REGION_SIZE;
+            while (true) {
+                try {
+                    BinaryMapCodec.this.write(map, region);
+                    count++;
+                    return;
+                } catch (BufferOverflowException e) {
+                    if (region.position() == 0) {
+                        // 单条记录超过区域大小
+                        if (regionSize > Integer.MAX_VALUE / 2) {
+                            throw new IllegalStateException("记录超过可映射的大小", e);
+                        }
+                        regionSize *= 2;
+                    }
+                    regionStart += region.position();
+                    region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, regionSize);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                // 去掉最后一个区域未使用的部分
+                channel.truncate(regionStart + region.position());
+            } finally {
+                region = null;
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * 溢出文件的记录读取器 - 记录直接从文件的只读映射区域中解码，区域剩余部分不足一条记录时从记录的起始位置重新映射
+     * 非线程安全
+     */
+    public static final class Reader<T> implements Iterator<T>, Closeable {
+        private final FileChannel channel;
+        private final long size;
+        private final BinaryMapCodec<T> codec;
+        private MappedByteBuffer region;
+        private long regionStart;
+
+        private Reader(BinaryMapCodec<T> codec, FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            map(0, 9);
+            // 魔数，版本之后为结构头的长度
+            int headerLength = region.getInt(5);
+            ensure(9 + headerLength);
+            this.codec = codec.readHeader(region);
+        }
+
+        private void map(long position, int minimum) throws IOException {
+            long length = Math.min(size - position, Math.max(SPILL_REGION_SIZE, minimum));
+            if (length < minimum) {
+                throw new IllegalStateException("溢出文件不完整 位置 " + position);
+            }
+            region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            regionStart = position;
+        }
+
+        private void ensure(int length) throws IOException {
+            if (region.remaining() < length) {
+                map(regionStart + region.position(), length);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return regionStart + region.position() < size;
+        }
+
+        /**
+         * @return 下一条记录的map
+         */
+        public Map<String, Object> nextMap() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                ensure(4);
+                ensure(4 + region.getInt(region.position()));
+            } catch (IOException e) {
+                throw new IllegalStateException("溢出文件映射失败", e);
+            }
+            return codec.readMap(region);
+        }
+
+        /**
+         * @return 下一条记录 按 mapToObject 的规则转化的对象
+         */
+        @Override
+        public T next() {
+            return ObjectMappingMapUtil.mapToObject(nextMap(), codec.type, codec.stopClass);
+        }
+
+        /**
+         * @return 文件结构头中的键列表
+         */
+        public List<String> getKeys() {
+            return codec.getKeys();
+        }
+
+        @Override
+        public void close() throws IOException {
+            region = null;
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.ysx.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 二进制编码中带类型标记的值 - 一个字节的标记 后接值的内容
+ * 整数为 zigzag 变长编码，字符串为 UTF-8 (变长长度前缀)，集合，数组与 map 递归编码，
+ * 其他可序列化的值使用 Java 序列化 - 序列化内容中的类只能为 java.lang，java.util，java.math，java.time 中的类或编解码类型字段涉及的类，
+ * 写入时遇到其他类抛出 IllegalArgumentException，读取时拒绝反序列化
+ * ysx
+ */
+final class BinaryValues {
+
+    /**
+     * map 中不存在该键
+     */
+    static final byte ABSENT = 0;
+    static final byte NULL = 1;
+    private static final byte TRUE = 2;
+    private static final byte FALSE = 3;
+    private static final byte INT = 4;
+    private static final byte LONG = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte FLOAT = 7;
+    private static final byte STRING = 8;
+    private static final byte SHORT = 9;
+    private static final byte BYTE = 10;
+    private static final byte CHAR = 11;
+    private static final byte DATE = 12;
+    private static final byte BIG_DECIMAL = 13;
+    private static final byte BIG_INTEGER = 14;
+    private static final byte ENUM = 15;
+    /**
+     * java.time 类型 类名及 toString 的结果，按类型的 parse 方法(ZoneOffset 为 of 方法)解析，没有解析方法的类型使用 Java 序列化
+     */
+    private static final byte TEMPORAL = 16;
+    private static final byte BYTES = 17;
+    private static final byte LIST = 18;
+    private static final byte SET = 19;
+    private static final byte MAP = 20;
+    private static final byte SERIALIZED = 21;
+    /**
+     * 数组 元素类型名，长度，各元素 - byte[] 为 BYTES
+     */
+    private static final byte ARRAY = 22;
+
+    private static final Class<?>[] PRIMITIVES = {boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class};
+
+    /**
+     * java.time 类型 - 由 toString 的结果解析值的静态方法 没有时为 null
+     */
+    private static final ClassValue<Method> TEMPORAL_PARSERS = new ClassValue<Method>() {
+        @Override
+        protected Method computeValue(Class<?> type) {
+            try {
+                Method parse = type == ZoneOffset.class ? type.getMethod("of", String.class) : type.getMethod("parse", CharSequence.class);
+                return Modifier.isStatic(parse.getModifiers()) && type.isAssignableFrom(parse.getReturnType()) ? parse : null;
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    };
+
+    private BinaryValues() {
+    }
+
+    /**
+     * 写入带类型标记的值
+     *
+     * @param buffer     目标缓冲区
+     * @param value      值
+     * @param valueTypes 除 JDK 值类型外 允许序列化的类
+     */
+    static void write(ByteBuffer buffer, Object value, Set<Class<?>> valueTypes) {
+        if (value == null) {
+            buffer.put(NULL);
+        } else if (value instanceof String) {
+            buffer.put(STRING);
+            writeString(buffer, (String) value);
+        } else if (value instanceof Integer) {
+            buffer.put(INT);
+            writeVarLong(buffer, zigzag((Integer) value));
+        } else if (value instanceof Long) {
+            buffer.put(LONG);
+            writeVarLong(buffer, zigzag((Long) value));
+        } else if (value instanceof Boolean) {
+            buffer.put((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Double) {
+            buffer.put(DOUBLE).putDouble((Double) value);
+        } else if (value instanceof Float) {
+            buffer.put(FLOAT).putFloat((Float) value);
+        } else if (value instanceof Short) {
+            buffer.put(SHORT).putShort((Short) value);
+        } else if (value instanceof Byte) {
+            buffer.put(BYTE).put((Byte) value);
+        } else if (value instanceof Character) {
+            buffer.put(CHAR).putChar((Character) value);
+        } else if (value.getClass() == Date.class) {
+            buffer.put(DATE);
+            writeVarLong(buffer, zigzag(((Date) value).getTime()));
+        } else if (value instanceof BigDecimal) {
+            buffer.put(BIG_DECIMAL);
+            writeString(buffer, value.toString());
+        } else if (value instanceof BigInteger) {
+            buffer.put(BIG_INTEGER);
+            writeString(buffer, value.toString());
+        } else if (value instanceof Enum) {
+            buffer.put(ENUM);
+            writeString(buffer, ((Enum<?>) value).getDeclaringClass().getName());
+            writeString(buffer, ((Enum<?>) value).name());
+        } else if (value instanceof TemporalAccessor && value.getClass().getName().startsWith("java.time.") && TEMPORAL_PARSERS.get(value.getClass()) != null) {
+            buffer.put(TEMPORAL);
+            writeString(buffer, value.getClass().getName());
+            writeString(buffer, value.toString());
+        } else if (value instanceof byte[]) {
+            buffer.put(BYTES);
+            writeBytes(buffer, (byte[]) value);
+        } else if (value.getClass().isArray()) {
+            // 记录元素类型 读取时还原为同类型的数组
+            int length = Array.getLength(value);
+            buffer.put(ARRAY);
+            writeString(buffer, value.getClass().getComponentType().getName());
+            writeVarLong(buffer, length);
+            for (int i = 0; i < length; i++) {
+                write(buffer, Array.get(value, i), valueTypes);
+            }
+        } else if (value instanceof Collection) {
+            Collection<?> elements = (Collection<?>) value;
+            buffer.put(value instanceof Set ? SET : LIST);
+            writeVarLong(buffer, elements.size());
+            for (Object element : elements) {
+                write(buffer, element, valueTypes);
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            buffer.put(MAP);
+            writeVarLong(buffer, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(buffer, entry.getKey(), valueTypes);
+                write(buffer, entry.getValue(), valueTypes);
+            }
+        } else if (value instanceof Serializable && isAllowed(value.getClass(), valueTypes)) {
+            buffer.put(SERIALIZED);
+            writeBytes(buffer, serialize(value, valueTypes));
+        } else {
+            throw new IllegalArgumentException("不支持二进制编码的值类型 " + value.getClass().getName());
+        }
+    }
+
+    /**
+     * 读取带类型标记的值
+     *
+     * @param buffer      数据
+     * @param classLoader 枚举，数组元素，序列化类型使用的类加载器
+     * @param valueTypes  除 JDK 值类型外 允许反序列化的类
+     * @return 值
+     */
+    static Object read(ByteBuffer buffer, ClassLoader classLoader, Set<Class<?>> valueTypes) {
+        byte tag = buffer.get();
+        return readValue(buffer, tag, classLoader, valueTypes);
+    }
+
+    static Object readValue(ByteBuffer buffer, byte tag, ClassLoader classLoader, Set<Class<?>> valueTypes) {
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(buffer);
+            case INT:
+                return (int) unzigzag(readVarLong(buffer));
+            case LONG:
+                return unzigzag(readVarLong(buffer));
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case DOUBLE:
+                return buffer.getDouble();
+            case FLOAT:
+                return buffer.getFloat();
+            case SHORT:
+                return buffer.getShort();
+            case BYTE:
+                return buffer.get();
+            case CHAR:
+                return buffer.getChar();
+            case DATE:
+                return new Date(unzigzag(readVarLong(buffer)));
+            case BIG_DECIMAL:
+                return new BigDecimal(readString(buffer));
+            case BIG_INTEGER:
+                return new BigInteger(readString(buffer));
+            case ENUM:
+                return readEnum(buffer, classLoader);
+            case TEMPORAL:
+                return readTemporal(buffer);
+            case BYTES:
+                return readBytes(buffer);
+            case LIST:
+            case SET: {
+                int size = (int) readVarLong(buffer);
+                Collection<Object> elements = tag == SET ? new LinkedHashSet<>(capacity(size)) : new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    elements.add(read(buffer, classLoader, valueTypes));
+                }
+                return elements;
+            }
+            case ARRAY:
+                return readArray(buffer, classLoader, valueTypes);
+            case MAP: {
+                int size = (int) readVarLong(buffer);
+                Map<Object, Object> map = new LinkedHashMap<>(capacity(size));
+                for (int i = 0; i < size; i++) {
+                    map.put(read(buffer, classLoader, valueTypes), read(buffer, classLoader, valueTypes));
+                }
+                return map;
+            }
+            case SERIALIZED:
+                return deserialize(readBytes(buffer), classLoader, valueTypes);
+            default:
+                throw new IllegalStateException("无法识别的值类型标记 " + tag + " 位置 " + (buffer.position() - 1));
+        }
+    }
+
+    static void writeString(ByteBuffer buffer, String value) {
+        writeBytes(buffer, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String readString(ByteBuffer buffer) {
+        int length = (int) readVarLong(buffer);
+        if (buffer.hasArray()) {
+            // 堆内数据直接解码 不复制
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(ByteBuffer buffer, byte[] bytes) {
+        writeVarLong(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[(int) readVarLong(buffer)];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    static void writeVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("变长整数格式错误 位置 " + buffer.position());
+    }
+
+    private static long zigzag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unzigzag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    private static int capacity(int size) {
+        return Math.max(16, (int) (size / 0.75f) + 1);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object readEnum(ByteBuffer buffer, ClassLoader classLoader) {
+        String className = readString(buffer);
+        String name = readString(buffer);
+        try {
+            return Enum.valueOf((Class) Class.forName(className, false, classLoader), name);
+        } catch (ClassNotFoundException | IllegalArgumentException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static Object readTemporal(ByteBuffer buffer) {
+        String className = readString(buffer);
+        String text = readString(buffer);
+        Method parse = null;
+        if (className.startsWith("java.time.")) {
+            try {
+                parse = TEMPORAL_PARSERS.get(Class.forName(className, false, null));
+            } catch (ClassNotFoundException e) {
+                // 按不可识别的类型处理
+            }
+        }
+        if (parse == null) {
+            throw new IllegalStateException("无法识别的时间类型 " + className + " 位置 " + buffer.position());
+        }
+        try {
+            return parse.invoke(null, text);
+        } catch (ReflectiveOperationException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 读取数组 元素类型无法加载或元素与元素类型不符时返回元素的列表
+     */
+    private static Object readArray(ByteBuffer buffer, ClassLoader classLoader, Set<Class<?>> valueTypes) {
+        String componentName = readString(buffer);
+        int length = (int) readVarLong(buffer);
+        Object[] elements = new Object[length];
+        for (int i = 0; i < length; i++) {
+            elements[i] = read(buffer, classLoader, valueTypes);
+        }
+        Class<?> componentType = null;
+        for (Class<?> primitive : PRIMITIVES) {
+            if (primitive.getName().equals(componentName)) {
+                componentType = primitive;
+            }
+        }
+        try {
+            if (componentType == null) {
+                componentType = Class.forName(componentName, false, classLoader);
+            }
+            Object array = Array.newInstance(componentType, length);
+            for (int i = 0; i < length; i++) {
+                Array.set(array, i, elements[i]);
+            }
+            return array;
+        } catch (ClassNotFoundException | IllegalArgumentException e) {
+            return new ArrayList<>(Arrays.asList(elements));
+        }
+    }
+
+    /**
+     * 类是否允许序列化 - 基本类型，java.lang，java.util，java.math，java.time 中的 JDK 类，编解码类型字段涉及的类，及其数组
+     *
+     * @param type       类
+     * @param valueTypes 编解码类型字段涉及的类
+     * @return 是否允许
+     */
+    static boolean isAllowed(Class<?> type, Set<Class<?>> valueTypes) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive() || valueTypes.contains(type)) {
+            return true;
+        }
+        if (type.getClassLoader() != null) {
+            return false;
+        }
+        String name = type.getName();
+        return name.startsWith("java.lang.") && !name.startsWith("java.lang.invoke.") && !name.startsWith("java.lang.reflect.")
+                || name.startsWith("java.util.") || name.startsWith("java.math.") || name.startsWith("java.time.");
+    }
+
+    private static byte[] serialize(Object value, final Set<Class<?>> valueTypes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes) {
+            @Override
+            protected void annotateClass(Class<?> type) throws IOException {
+                if (!isAllowed(type, valueTypes)) {
+                    throw new NotSerializableException(type.getName());
+                }
+            }
+
+            @Override
+            protected void annotateProxyClass(Class<?> type) throws IOException {
+                throw new NotSerializableException(type.getName());
+            }
+        }) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("值无法序列化 " + value.getClass().getName(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes, final ClassLoader classLoader, final Set<Class<?>> valueTypes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                Class<?> type;
+                try {
+                    type = Class.forName(desc.getName(), false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    type = super.resolveClass(desc);
+                }
+                if (!isAllowed(type, valueTypes)) {
+                    throw new InvalidClassException(desc.getName(), "不允许反序列化的类型");
+                }
+                return type;
+            }
+
+            @Override
+            protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+                throw new InvalidClassException("代理类", "不允许反序列化的类型");
+            }
+        }) {
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * @return 容纳 size 个键的记录 map
+     */
+    static Map<String, Object> newRecordMap(int size) {
+        return new HashMap<>(capacity(size));
+    }
+
+    static List<String> readKeys(ByteBuffer buffer) {
+        int count = (int) readVarLong(buffer);
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add(readString(buffer));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,159 @@
+package com.ysx.util;
+
+import com.ysx.util.handler.MapIgnoreHandler;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 对象转map 时抓取全部属性的遍历 - 使用显式的工作栈代替递归，填充顺序与递归相同
+ * 按引用记录当前抓取路径上的对象: 对象再次出现在自身的抓取路径上为循环引用，按 CyclePolicy 停止或抛出异常；
+ * 经多条路径(非循环)到达的同一对象 每条路径各自填充，键的覆盖顺序与递归相同
+ * 嵌套深度超过 ObjectMappingConfig 中的最大嵌套深度时 同样按 CyclePolicy 处理
+ * ysx
+ */
+final class CatchAllTraversal {
+
+    private final Map<String, Object> resultMap;
+    private final MapIgnoreHandler mapIgnoreHandler;
+    /**
+     * 要填充的键 为 null 时填充全部
+     */
+    private final Set<String> keys;
+    /**
+     * 当前抓取路径上的对象
+     */
+    private final Map<Object, Boolean> onPath = new IdentityHashMap<>();
+
+    /**
+     * 工作栈 - 对象，其待处理的字段映射，下一个字段的下标
+     */
+    private Object[] objects = new Object[8];
+    private FieldMapping[][] mappings = new FieldMapping[8][];
+    private int[] next = new int[8];
+    private int size;
+
+    private CatchAllTraversal(Map<String, Object> resultMap, MapIgnoreHandler mapIgnoreHandler, Set<String> keys) {
+        this.resultMap = resultMap;
+        this.mapIgnoreHandler = mapIgnoreHandler;
+        this.keys = keys;
+    }
+
+    /**
+     * 按映射计划填充对象及其抓取的全部嵌套对象
+     *
+     * @param resultMap        要填充的map集合
+     * @param sourceObject     map填充的"数据源"
+     * @param mappingPlan      数据源的映射计划 存在抓取全部属性的字段
+     * @param mapIgnoreHandler 自定义属性忽略策略
+     */
+    static void populate(Map<String, Object> resultMap, Object sourceObject, MappingPlan mappingPlan, MapIgnoreHandler mapIgnoreHandler) {
+        CatchAllTraversal traversal = new CatchAllTraversal(resultMap, mapIgnoreHandler, null);
+        traversal.push(sourceObject, mappingPlan.getMappings());
+        traversal.run();
+    }
+
+    /**
+     * 按键投影 只填充指定的键
+     *
+     * @param resultMap    要填充的map集合
+     * @param sourceObject map填充的"数据源"
+     * @param mappingPlan  数据源的映射计划
+     * @param keys         要填充的键
+     */
+    static void populateProjected(Map<String, Object> resultMap, Object sourceObject, MappingPlan mappingPlan, Set<String> keys) {
+        CatchAllTraversal traversal = new CatchAllTraversal(resultMap, null, keys);
+        traversal.push(sourceObject, KeySelector.of(mappingPlan, keys).getPopulatedMappings());
+        traversal.run();
+    }
+
+    /**
+     * 填充某个对象抓取全部属性的字段 - 供生成的映射器调用，所属对象视为已在路径上
+     *
+     * @param resultMap        要填充的map集合
+     * @param owner            字段所属的对象
+     * @param mapping          抓取全部属性的字段映射
+     * @param mapIgnoreHandler 自定义属性忽略策略
+     */
+    static void populateCatchAll(Map<String, Object> resultMap, Object owner, FieldMapping mapping, MapIgnoreHandler mapIgnoreHandler) {
+        CatchAllTraversal traversal = new CatchAllTraversal(resultMap, mapIgnoreHandler, null);
+        traversal.push(owner, new FieldMapping[]{mapping});
+        traversal.run();
+    }
+
+    private void run() {
+        while (size > 0) {
+            int top = size - 1;
+            FieldMapping[] frameMappings = mappings[top];
+            if (next[top] == frameMappings.length) {
+                onPath.remove(objects[top]);
+                objects[top] = null;
+                mappings[top] = null;
+                size--;
+                continue;
+            }
+            Object sourceObject = objects[top];
+            FieldMapping mapping = frameMappings[next[top]++];
+            if (mapping.isCatchAll()) {
+                enter(mapping.get(sourceObject), mapping.getCatchAllStopClass());
+            } else {
+                String standardKey = mapping.getMapKey();
+                Object standardValue = ObjectMappingMapUtil.getMapValue(mapping, sourceObject);
+                // 对用户自定义的忽略策略做处理
+                if (mapIgnoreHandler == null || !mapIgnoreHandler.ignoreHandler(standardKey, standardValue)) {
+                    resultMap.put(standardKey, standardValue);
+                }
+            }
+        }
+    }
+
+    /**
+     * 进入抓取的嵌套对象
+     */
+    private void enter(Object nested, Class<?> stopClass) {
+        if (nested == null) {
+            return;
+        }
+        if (onPath.containsKey(nested)) {
+            CycleGuard.stop(nested.getClass().getName() + " 的属性抓取循环引用自身");
+            return;
+        }
+        if (size > ObjectMappingConfig.getMaxNestingDepth()) {
+            CycleGuard.stop(nested.getClass().getName() + " 的属性抓取嵌套深度超过 " + ObjectMappingConfig.getMaxNestingDepth());
+            return;
+        }
+        Class<?> nestedClass = nested.getClass();
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(nestedClass) || Void.class == stopClass) {
+            stopClass = ObjectMappingMapUtil.getDefaultStopClass(nestedClass);
+        }
+        MappingPlan mappingPlan = ObjectMappingMapUtil.getMappingPlan(nestedClass, stopClass);
+        if (keys != null) {
+            push(nested, KeySelector.of(mappingPlan, keys).getPopulatedMappings());
+            return;
+        }
+        ObjectMapMapper<Object> mapper = mappingPlan.hasCatchAll() ? null : ObjectMappingMapUtil.getGeneratedMapper(nestedClass, stopClass);
+        if (mapper != null) {
+            // 没有嵌套对象的类型 直接使用生成的映射器
+            mapper.populateMap(nested, resultMap, mapIgnoreHandler);
+            return;
+        }
+        push(nested, mappingPlan.getMappings());
+    }
+
+    private void push(Object sourceObject, FieldMapping[] frameMappings) {
+        if (size == objects.length) {
+            int capacity = size * 2;
+            objects = Arrays.copyOf(objects, capacity);
+            mappings = Arrays.copyOf(mappings, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        objects[size] = sourceObject;
+        mappings[size] = frameMappings;
+        next[size] = 0;
+        size++;
+        onPath.put(sourceObject, Boolean.TRUE);
+    }
+}
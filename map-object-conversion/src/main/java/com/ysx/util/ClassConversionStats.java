@@ -0,0 +1,56 @@
+package com.ysx.util;
+
+/**
+ * 单个类的转化指标快照 - 转化次数，总耗时，耗时分布
+ * 耗时分布的区间见 ObjectMappingMetricsMXBean.getLatencyBucketUpperBoundsNanos
+ * ysx
+ */
+public final class ClassConversionStats {
+
+    private final long objectToMapCount;
+    private final long objectToMapTotalNanos;
+    private final long[] objectToMapLatencyHistogram;
+    private final long mapToObjectCount;
+    private final long mapToObjectTotalNanos;
+    private final long[] mapToObjectLatencyHistogram;
+
+    public ClassConversionStats(long objectToMapCount, long objectToMapTotalNanos, long[] objectToMapLatencyHistogram,
+                                long mapToObjectCount, long mapToObjectTotalNanos, long[] mapToObjectLatencyHistogram) {
+        this.objectToMapCount = objectToMapCount;
+        this.objectToMapTotalNanos = objectToMapTotalNanos;
+        this.objectToMapLatencyHistogram = objectToMapLatencyHistogram;
+        this.mapToObjectCount = mapToObjectCount;
+        this.mapToObjectTotalNanos = mapToObjectTotalNanos;
+        this.mapToObjectLatencyHistogram = mapToObjectLatencyHistogram;
+    }
+
+    public long getObjectToMapCount() {
+        return objectToMapCount;
+    }
+
+    public long getObjectToMapTotalNanos() {
+        return objectToMapTotalNanos;
+    }
+
+    public long[] getObjectToMapLatencyHistogram() {
+        return objectToMapLatencyHistogram.clone();
+    }
+
+    public long getMapToObjectCount() {
+        return mapToObjectCount;
+    }
+
+    public long getMapToObjectTotalNanos() {
+        return mapToObjectTotalNanos;
+    }
+
+    public long[] getMapToObjectLatencyHistogram() {
+        return mapToObjectLatencyHistogram.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "ClassConversionStats{objectToMapCount=" + objectToMapCount + ", objectToMapTotalNanos=" + objectToMapTotalNanos
+                + ", mapToObjectCount=" + mapToObjectCount + ", mapToObjectTotalNanos=" + mapToObjectTotalNanos + "}";
+    }
+}
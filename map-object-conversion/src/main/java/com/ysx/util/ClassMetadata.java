@@ -0,0 +1,248 @@
+package com.ysx.util;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 类的元数据缓存 - 字段列表，映射计划，紧凑map 键结构，对象创建器，对象复制器，生成的映射器均挂在类对象自身上(ClassValue)
+ * 以类对象身份作为key，读取无锁，类加载器卸载后缓存随类一起回收
+ * 涉及两个类的缓存(对象复制器，转化计数等) 挂在类加载器可见另一个类的那个类上，以另一个类为key，不会延长另一个类加载器的生命周期
+ * ysx
+ */
+final class ClassMetadata {
+
+    /**
+     * 每个停止类缓存的紧凑map 键结构个数
+     */
+    private static final int MAX_COMPACT_SCHEMAS = 4;
+
+    private static final ClassValue<ClassMetadata> CACHE = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata();
+        }
+    };
+
+    /**
+     * 停止类 - 字段列表
+     */
+    private final ConcurrentMap<Class<?>, List<Field>> fields = new ConcurrentHashMap<>(4);
+    /**
+     * 停止类 - 映射计划
+     */
+    private final ConcurrentMap<Class<?>, MappingPlan> plans = new ConcurrentHashMap<>(4);
+    /**
+     * 停止类 - 最近生成的紧凑map 键结构 新的在前 不可变数组
+     */
+    private final ConcurrentMap<Class<?>, MapSchema[]> compactSchemas = new ConcurrentHashMap<>(4);
+    /**
+     * 目标类 - 以本类为源类型的对象复制器 目标类的类加载器为本类的类加载器或其父加载器
+     */
+    private final ConcurrentMap<Class<?>, BeanCopier<?, ?>> copiersTo = new ConcurrentHashMap<>(4);
+    /**
+     * 源类 - 以本类为目标类型的对象复制器 源类的类加载器为本类的类加载器的父加载器
+     */
+    private final ConcurrentMap<Class<?>, BeanCopier<?, ?>> copiersFrom = new ConcurrentHashMap<>(4);
+    /**
+     * 编译期生成的映射器 未加载时为 null
+     */
+    private volatile Object generatedMapper;
+    /**
+     * 对象创建器 未解析时为 null
+     */
+    private volatile Instantiator instantiator;
+    /**
+     * 枚举类 全属性匹配模式的反向查找索引
+     */
+    private volatile EnumIndex allPropertiesIndex;
+    /**
+     * 枚举类 属性名 - 单属性匹配模式的反向查找索引
+     */
+    private final ConcurrentMap<String, EnumIndex> singlePropertyIndexes = new ConcurrentHashMap<>(4);
+    /**
+     * 开启监控指标期间的转化计数 未转化过时为 null
+     */
+    private volatile ConversionMetrics.ClassCounters counters;
+
+    private ClassMetadata() {
+    }
+
+    /**
+     * 获取类的元数据
+     *
+     * @param type 类
+     * @return 类的元数据
+     */
+    static ClassMetadata of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    List<Field> getFields(Class<?> stopClass) {
+        return fields.get(stopClass);
+    }
+
+    /**
+     * 缓存字段列表 并发情况下以先放入的为准
+     *
+     * @param stopClass 停止类
+     * @param fieldList 字段列表
+     * @return 缓存中的字段列表
+     */
+    List<Field> putFields(Class<?> stopClass, List<Field> fieldList) {
+        List<Field> exist = fields.putIfAbsent(stopClass, fieldList);
+        return exist != null ? exist : fieldList;
+    }
+
+    MappingPlan getPlan(Class<?> stopClass) {
+        return plans.get(stopClass);
+    }
+
+    /**
+     * 缓存映射计划 并发情况下以先放入的为准
+     *
+     * @param stopClass   停止类
+     * @param mappingPlan 映射计划
+     * @return 缓存中的映射计划
+     */
+    MappingPlan putPlan(Class<?> stopClass, MappingPlan mappingPlan) {
+        MappingPlan exist = plans.putIfAbsent(stopClass, mappingPlan);
+        return exist != null ? exist : mappingPlan;
+    }
+
+    MapSchema[] getCompactSchemas(Class<?> stopClass) {
+        return compactSchemas.get(stopClass);
+    }
+
+    /**
+     * 缓存新的紧凑map 键结构 放在最前，超出个数时淘汰最早的，已有相同键的不重复缓存
+     *
+     * @param stopClass 停止类
+     * @param schema    键结构
+     */
+    void addCompactSchema(Class<?> stopClass, MapSchema schema) {
+        while (true) {
+            MapSchema[] current = compactSchemas.get(stopClass);
+            if (current == null) {
+                if (compactSchemas.putIfAbsent(stopClass, new MapSchema[]{schema}) == null) {
+                    return;
+                }
+                continue;
+            }
+            for (MapSchema exist : current) {
+                if (exist.sameKeys(schema)) {
+                    return;
+                }
+            }
+            MapSchema[] updated = new MapSchema[Math.min(current.length + 1, MAX_COMPACT_SCHEMAS)];
+            updated[0] = schema;
+            System.arraycopy(current, 0, updated, 1, updated.length - 1);
+            if (compactSchemas.replace(stopClass, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 获取缓存的对象复制器
+     *
+     * @param sourceClass 源类
+     * @param targetClass 目标类
+     * @return 对象复制器 不存在返回 null
+     */
+    static BeanCopier<?, ?> getCopier(Class<?> sourceClass, Class<?> targetClass) {
+        if (isVisible(targetClass, sourceClass)) {
+            return of(sourceClass).copiersTo.get(targetClass);
+        }
+        return isVisible(sourceClass, targetClass) ? of(targetClass).copiersFrom.get(sourceClass) : null;
+    }
+
+    /**
+     * 缓存对象复制器 并发情况下以先放入的为准 两个类的类加载器没有父子关系时不缓存
+     *
+     * @param sourceClass 源类
+     * @param targetClass 目标类
+     * @param copier      对象复制器
+     * @return 缓存中的对象复制器
+     */
+    static BeanCopier<?, ?> putCopier(Class<?> sourceClass, Class<?> targetClass, BeanCopier<?, ?> copier) {
+        BeanCopier<?, ?> exist;
+        if (isVisible(targetClass, sourceClass)) {
+            exist = of(sourceClass).copiersTo.putIfAbsent(targetClass, copier);
+        } else if (isVisible(sourceClass, targetClass)) {
+            exist = of(targetClass).copiersFrom.putIfAbsent(sourceClass, copier);
+        } else {
+            exist = null;
+        }
+        return exist != null ? exist : copier;
+    }
+
+    /**
+     * 类的类加载器 是否为另一个类的类加载器或其父加载器 - 是则以该类为key 挂在另一个类上的缓存不会延长其类加载器的生命周期
+     *
+     * @param type  作为key 的类
+     * @param owner 缓存所在的类
+     * @return 是否可以缓存
+     */
+    static boolean isVisible(Class<?> type, Class<?> owner) {
+        ClassLoader loader = type.getClassLoader();
+        if (loader == null) {
+            return true;
+        }
+        for (ClassLoader current = owner.getClassLoader(); current != null; current = current.getParent()) {
+            if (current == loader) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    Object getGeneratedMapper() {
+        return generatedMapper;
+    }
+
+    void setGeneratedMapper(Object generatedMapper) {
+        this.generatedMapper = generatedMapper;
+    }
+
+    Instantiator getInstantiator() {
+        return instantiator;
+    }
+
+    void setInstantiator(Instantiator instantiator) {
+        this.instantiator = instantiator;
+    }
+
+    EnumIndex getAllPropertiesIndex() {
+        return allPropertiesIndex;
+    }
+
+    void setAllPropertiesIndex(EnumIndex allPropertiesIndex) {
+        this.allPropertiesIndex = allPropertiesIndex;
+    }
+
+    ConversionMetrics.ClassCounters getCounters() {
+        return counters;
+    }
+
+    void setCounters(ConversionMetrics.ClassCounters counters) {
+        this.counters = counters;
+    }
+
+    EnumIndex getSinglePropertyIndex(String propertyName) {
+        return singlePropertyIndexes.get(propertyName);
+    }
+
+    /**
+     * 缓存单属性匹配索引 并发情况下以先放入的为准
+     *
+     * @param propertyName 属性名
+     * @param enumIndex    索引
+     * @return 缓存中的索引
+     */
+    EnumIndex putSinglePropertyIndex(String propertyName, EnumIndex enumIndex) {
+        EnumIndex exist = singlePropertyIndexes.putIfAbsent(propertyName, enumIndex);
+        return exist != null ? exist : enumIndex;
+    }
+}
@@ -0,0 +1,143 @@
+package com.ysx.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 紧凑map - 键结构由同类型的所有结果共享，每个map 只保存一个值数组，不创建 Entry 对象也不会扩容
+ * 可修改已有键的值，不支持新增或删除键
+ * ysx
+ */
+final class CompactMap extends AbstractMap<String, Object> {
+
+    private final MapSchema schema;
+    private final Object[] values;
+
+    CompactMap(MapSchema schema, Object[] values) {
+        this.schema = schema;
+        this.values = values;
+    }
+
+    MapSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return schema.indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = schema.indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int index = schema.indexOf(key);
+        if (index < 0) {
+            throw new UnsupportedOperationException("紧凑map 不支持新增键: " + key);
+        }
+        Object old = values[index];
+        values[index] = value;
+        return old;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        throw new UnsupportedOperationException("紧凑map 不支持删除键");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("紧凑map 不支持删除键");
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+        };
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+            return next < values.length;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (next >= values.length) {
+                throw new NoSuchElementException();
+            }
+            return new IndexEntry(next++);
+        }
+    }
+
+    private final class IndexEntry implements Map.Entry<String, Object> {
+        private final int index;
+
+        private IndexEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return schema.keyAt(index);
+        }
+
+        @Override
+        public Object getValue() {
+            return values[index];
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object old = values[index];
+            values[index] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            Object value = values[index];
+            return getKey().equals(e.getKey()) && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = values[index];
+            return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + values[index];
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.ysx.util;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 紧凑map 的填充过程 - 作为普通map 交给对象转map 的填充逻辑
+ * 填充的键与预期的键结构逐个一致时直接写入值数组，与当前键结构不一致时 换用已填充部分相同的另一个候选键结构，
+ * 已填充过的键(属性抓取的字段与外层字段同名等)再次填充时覆盖其值，位置不变，
+ * 都不一致时退化为有序map 收集，结束时生成新的键结构
+ * 这样忽略策略，运行时类型不同的属性抓取，同名键覆盖等情况下的结果都与普通map 一致
+ * ysx
+ */
+final class CompactMapBuilder extends AbstractMap<String, Object> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    /**
+     * 候选的键结构 可为 null
+     */
+    private final MapSchema[] candidates;
+    /**
+     * 当前预期的键结构 没有候选时为 null
+     */
+    private MapSchema expected;
+    /**
+     * 长度为候选键结构中最多的键个数
+     */
+    private final Object[] values;
+    private int size;
+    /**
+     * 键顺序与预期不一致时使用的有序map
+     */
+    private LinkedHashMap<String, Object> fallback;
+
+    CompactMapBuilder(MapSchema[] candidates) {
+        this.candidates = candidates;
+        int capacity = 0;
+        if (candidates != null) {
+            this.expected = candidates[0];
+            for (MapSchema candidate : candidates) {
+                capacity = Math.max(capacity, candidate.size());
+            }
+        }
+        this.values = capacity == 0 ? EMPTY : new Object[capacity];
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (fallback == null) {
+            if (key != null && expected != null) {
+                if (accepts(expected, key) || switchExpected(key)) {
+                    values[size++] = value;
+                    return null;
+                }
+                // 同名键覆盖 同有序map 保留第一次填充的位置
+                int index = expected.indexOf(key);
+                if (index >= 0 && index < size) {
+                    Object previous = values[index];
+                    values[index] = value;
+                    return previous;
+                }
+            }
+            fallback = new LinkedHashMap<>(Math.max(16, size * 2));
+            for (int i = 0; i < size; i++) {
+                fallback.put(expected.keyAt(i), values[i]);
+            }
+        }
+        return fallback.put(key, value);
+    }
+
+    @Override
+    public Object get(Object key) {
+        return snapshot().get(key);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return snapshot().entrySet();
+    }
+
+    /**
+     * 键结构的下一个键是否为该键
+     */
+    private boolean accepts(MapSchema schema, String key) {
+        return size < schema.size() && key.equals(schema.keyAt(size));
+    }
+
+    /**
+     * 换用已填充的键与当前键结构相同 且下一个键为该键的候选键结构
+     *
+     * @return 是否找到
+     */
+    private boolean switchExpected(String key) {
+        for (MapSchema candidate : candidates) {
+            if (candidate == expected || !accepts(candidate, key)) {
+                continue;
+            }
+            if (samePrefix(candidate)) {
+                expected = candidate;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 候选键结构的前 size 个键 是否与当前键结构相同
+     */
+    private boolean samePrefix(MapSchema candidate) {
+        for (int i = 0; i < size; i++) {
+            if (!expected.keyAt(i).equals(candidate.keyAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return 当前已填充的内容
+     */
+    private Map<String, Object> snapshot() {
+        if (fallback != null) {
+            return fallback;
+        }
+        Map<String, Object> map = new LinkedHashMap<>(Math.max(16, size * 2));
+        for (int i = 0; i < size; i++) {
+            map.put(expected.keyAt(i), values[i]);
+        }
+        return map;
+    }
+
+    /**
+     * 是否完全按预期的键结构填充
+     */
+    boolean matchesExpected() {
+        return fallback == null && expected != null && size == expected.size();
+    }
+
+    /**
+     * 生成紧凑map 完全按预期填充时共享预期的键结构，否则由填充内容新建键结构
+     *
+     * @return 紧凑map
+     */
+    CompactMap build() {
+        if (fallback == null && expected != null && size < expected.size()) {
+            // 填充的键少于当前键结构 换用键个数相同的候选
+            for (MapSchema candidate : candidates) {
+                if (candidate.size() == size && samePrefix(candidate)) {
+                    expected = candidate;
+                    break;
+                }
+            }
+        }
+        if (matchesExpected()) {
+            return new CompactMap(expected, size == values.length ? values : Arrays.copyOf(values, size));
+        }
+        if (fallback != null) {
+            return new CompactMap(new MapSchema(fallback.keySet().toArray(new String[0])), fallback.values().toArray());
+        }
+        String[] keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = expected.keyAt(i);
+        }
+        return new CompactMap(new MapSchema(keys), Arrays.copyOf(values, size));
+    }
+}
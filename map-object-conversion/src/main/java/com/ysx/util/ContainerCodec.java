@@ -0,0 +1,487 @@
+package com.ysx.util;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 元素为对象的容器字段(集合，数组，map 的值)的转化 - 字段的泛型元素类型在创建字段映射时解析一次
+ * 对象转map 时元素按 objectToMap 转为map，集合与数组转为 List，map 保留键只转化值；
+ * map 转对象时按字段的声明类型创建容器，元素按 mapToObject 转为对象
+ * 容器预设容量，元素个数达到 ObjectMappingConfig 中的并行阈值时并行转化，结果顺序与输入一致
+ * 元素再次出现在自身的转化路径上，或嵌套深度超过最大嵌套深度时 按 CyclePolicy 处理(STOP 时元素为 null)
+ * ysx
+ */
+abstract class ContainerCodec {
+
+    /**
+     * 当前线程上元素的转化路径
+     */
+    private static final ThreadLocal<CycleGuard> GUARD = new ThreadLocal<>();
+
+    /**
+     * 解析字段类型对应的转化方式
+     *
+     * @param genericType 字段的泛型类型
+     * @return 转化方式 不是容器类型或元素不是对象(基本类型，String，日期，枚举，JDK 类型，接口，抽象类，泛型变量)时返回 null
+     */
+    static ContainerCodec of(Type genericType) {
+        Class<?> rawType = rawClass(genericType);
+        if (rawType == null) {
+            return null;
+        }
+        if (rawType.isArray()) {
+            Type componentType = genericType instanceof GenericArrayType ? ((GenericArrayType) genericType).getGenericComponentType() : rawType.getComponentType();
+            ContainerCodec element = element(componentType);
+            return element == null ? null : new ArrayCodec(rawType.getComponentType(), element);
+        }
+        if (Collection.class.isAssignableFrom(rawType)) {
+            ContainerCodec element = element(typeArgument(genericType, 1, 0));
+            return element == null || !CollectionCodec.isCreatable(rawType) ? null : new CollectionCodec(rawType, element);
+        }
+        if (Map.class.isAssignableFrom(rawType)) {
+            ContainerCodec element = element(typeArgument(genericType, 2, 1));
+            return element == null || !MapCodec.isCreatable(rawType) ? null : new MapCodec(rawType, element);
+        }
+        return null;
+    }
+
+    /**
+     * 解析元素类型的转化方式 元素本身可以是容器
+     */
+    private static ContainerCodec element(Type elementType) {
+        if (elementType instanceof WildcardType) {
+            elementType = ((WildcardType) elementType).getUpperBounds()[0];
+        }
+        ContainerCodec container = of(elementType);
+        if (container != null) {
+            return container;
+        }
+        if (elementType instanceof Class && isBean((Class<?>) elementType)) {
+            return new BeanCodec((Class<?>) elementType);
+        }
+        return null;
+    }
+
+    private static boolean isBean(Class<?> type) {
+        String name = type.getName();
+        return !ObjectMappingMapUtil.isBaseType(type) && !type.isEnum() && !type.isInterface() && !Modifier.isAbstract(type.getModifiers())
+                && !name.startsWith("java.") && !name.startsWith("javax.");
+    }
+
+    private static Class<?> rawClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return rawClass(((ParameterizedType) type).getRawType());
+        }
+        if (type instanceof GenericArrayType) {
+            Class<?> component = rawClass(((GenericArrayType) type).getGenericComponentType());
+            return component == null ? null : Array.newInstance(component, 0).getClass();
+        }
+        return null;
+    }
+
+    private static Type typeArgument(Type type, int count, int index) {
+        if (!(type instanceof ParameterizedType)) {
+            return null;
+        }
+        Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+        return arguments.length == count ? arguments[index] : null;
+    }
+
+    /**
+     * 字段值转为map 中的值
+     *
+     * @param value 字段值
+     * @return 转化后的值 为 null 时返回 null
+     */
+    abstract Object toMapValue(Object value);
+
+    /**
+     * 字段值转为map 中的值 不在转化中时 字段所属的对象作为转化路径的起点
+     *
+     * @param value 字段值
+     * @param owner 字段所属的对象
+     * @return 转化后的值
+     */
+    final Object toMapValue(Object value, Object owner) {
+        if (GUARD.get() != null) {
+            return toMapValue(value);
+        }
+        CycleGuard guard = new CycleGuard();
+        guard.enter(owner, owner.getClass());
+        GUARD.set(guard);
+        try {
+            return toMapValue(value);
+        } finally {
+            GUARD.remove();
+        }
+    }
+
+    /**
+     * map 中的值转为字段值
+     *
+     * @param value map 中的值
+     * @return 转化后的值 无法转化时原值返回 由类型转换器处理
+     */
+    abstract Object fromMapValue(Object value);
+
+    /**
+     * 逐个转化元素 结果写回数组
+     */
+    final void convertElements(Object[] elements, boolean toMapValue) {
+        if (elements.length >= ObjectMappingConfig.getParallelThreshold()) {
+            BatchConversion.convertElements(elements, this, toMapValue);
+            return;
+        }
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = toMapValue ? toMapValue(elements[i]) : fromMapValue(elements[i]);
+        }
+    }
+
+    /**
+     * @return 当前线程上元素的转化路径 不在转化中时为 null
+     */
+    static CycleGuard currentGuard() {
+        return GUARD.get();
+    }
+
+    /**
+     * 并行转化时 在工作线程上设置元素的转化路径
+     *
+     * @param guard 转化路径 为 null 时清除
+     */
+    static void setCurrentGuard(CycleGuard guard) {
+        if (guard == null) {
+            GUARD.remove();
+        } else {
+            GUARD.set(guard);
+        }
+    }
+
+    private static Object[] toArray(Object value) {
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).toArray();
+        }
+        if (value instanceof Object[]) {
+            // 转化结果写回数组 需为 Object[]
+            Object[] array = (Object[]) value;
+            return Arrays.copyOf(array, array.length, Object[].class);
+        }
+        return null;
+    }
+
+    private static List<Object> toList(Object[] elements) {
+        List<Object> list = new ArrayList<>(elements.length);
+        for (Object element : elements) {
+            list.add(element);
+        }
+        return list;
+    }
+
+    private static int capacity(int size) {
+        return Math.max(16, (int) (size / 0.75f) + 1);
+    }
+
+    /**
+     * 对象元素
+     */
+    private static final class BeanCodec extends ContainerCodec {
+        private final Class<?> type;
+
+        private BeanCodec(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        Object toMapValue(Object value) {
+            if (value == null) {
+                return null;
+            }
+            Class<?> valueClass = value.getClass();
+            CycleGuard guard = GUARD.get();
+            boolean opened = guard == null;
+            if (opened) {
+                guard = new CycleGuard();
+                GUARD.set(guard);
+            }
+            try {
+                if (!guard.enter(value, valueClass)) {
+                    return null;
+                }
+                try {
+                    Class<?> stopClass = ObjectMappingMapUtil.getDefaultStopClass(valueClass);
+                    ObjectMapMapper<Object> mapper = ObjectMappingMapUtil.getGeneratedMapper(valueClass, stopClass);
+                    Map<String, Object> resultMap = new HashMap<>(16);
+                    ObjectMappingMapUtil.populateMap(resultMap, value, mapper, mapper == null ? ObjectMappingMapUtil.getMappingPlan(valueClass, stopClass) : null, null);
+                    return resultMap;
+                } finally {
+                    guard.exit(value);
+                }
+            } finally {
+                if (opened) {
+                    GUARD.remove();
+                }
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Object fromMapValue(Object value) {
+            if (value == null || type.isInstance(value)) {
+                return value;
+            }
+            if (!(value instanceof Map)) {
+                ConversionMetrics.recordDroppedValue();
+                return null;
+            }
+            CycleGuard guard = GUARD.get();
+            boolean opened = guard == null;
+            if (opened) {
+                guard = new CycleGuard();
+                GUARD.set(guard);
+            }
+            try {
+                if (!guard.enter(value, type)) {
+                    return null;
+                }
+                try {
+                    Class<?> stopClass = ObjectMappingMapUtil.getDefaultStopClass(type);
+                    ObjectMapMapper<Object> mapper = ObjectMappingMapUtil.getGeneratedMapper(type, stopClass);
+                    return ObjectMappingMapUtil.mapToObject((Map<String, Object>) value, type, mapper, mapper == null ? ObjectMappingMapUtil.getMappingPlan(type, stopClass) : null);
+                } finally {
+                    guard.exit(value);
+                }
+            } finally {
+                if (opened) {
+                    GUARD.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * 数组 转为 List，由集合或数组转回
+     */
+    private static final class ArrayCodec extends ContainerCodec {
+        private final Class<?> componentType;
+        private final ContainerCodec element;
+
+        private ArrayCodec(Class<?> componentType, ContainerCodec element) {
+            this.componentType = componentType;
+            this.element = element;
+        }
+
+        @Override
+        Object toMapValue(Object value) {
+            Object[] elements = toArray(value);
+            if (elements == null) {
+                return value;
+            }
+            element.convertElements(elements, true);
+            return toList(elements);
+        }
+
+        @Override
+        Object fromMapValue(Object value) {
+            Object[] elements = toArray(value);
+            if (elements == null) {
+                return value;
+            }
+            element.convertElements(elements, false);
+            Object[] array = (Object[]) Array.newInstance(componentType, elements.length);
+            for (int i = 0; i < elements.length; i++) {
+                // 无法转化的元素为 null
+                array[i] = componentType.isInstance(elements[i]) ? elements[i] : null;
+            }
+            return array;
+        }
+    }
+
+    /**
+     * 集合 转为 List，按字段声明类型创建集合转回
+     */
+    private static final class CollectionCodec extends ContainerCodec {
+        private final Class<?> collectionType;
+        private final ContainerCodec element;
+        /**
+         * 不是常用接口时 集合类型的无参构造方法
+         */
+        private final Constructor<?> constructor;
+
+        private CollectionCodec(Class<?> collectionType, ContainerCodec element) {
+            this.collectionType = collectionType;
+            this.element = element;
+            this.constructor = defaultConstructor(collectionType, ArrayList.class, LinkedHashSet.class, TreeSet.class, ArrayDeque.class);
+        }
+
+        static boolean isCreatable(Class<?> collectionType) {
+            return collectionType.isAssignableFrom(ArrayList.class) || collectionType.isAssignableFrom(LinkedHashSet.class)
+                    || collectionType.isAssignableFrom(TreeSet.class) || collectionType.isAssignableFrom(ArrayDeque.class)
+                    || defaultConstructor(collectionType) != null;
+        }
+
+        @Override
+        Object toMapValue(Object value) {
+            Object[] elements = toArray(value);
+            if (elements == null) {
+                return value;
+            }
+            element.convertElements(elements, true);
+            return toList(elements);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Object fromMapValue(Object value) {
+            Object[] elements = toArray(value);
+            if (elements == null) {
+                return value;
+            }
+            element.convertElements(elements, false);
+            Collection<Object> collection = (Collection<Object>) newCollection(elements.length);
+            if (collection == null) {
+                return null;
+            }
+            for (Object converted : elements) {
+                collection.add(converted);
+            }
+            return collection;
+        }
+
+        private Object newCollection(int size) {
+            if (constructor != null) {
+                return newInstance(constructor);
+            }
+            if (collectionType.isAssignableFrom(ArrayList.class)) {
+                return new ArrayList<>(size);
+            }
+            if (collectionType.isAssignableFrom(LinkedHashSet.class)) {
+                return new LinkedHashSet<>(capacity(size));
+            }
+            if (collectionType.isAssignableFrom(TreeSet.class)) {
+                return new TreeSet<>();
+            }
+            return new ArrayDeque<>(size);
+        }
+    }
+
+    /**
+     * map 保留键 只转化值
+     */
+    private static final class MapCodec extends ContainerCodec {
+        private final Class<?> mapType;
+        private final ContainerCodec element;
+        /**
+         * 不是常用接口时 map 类型的无参构造方法
+         */
+        private final Constructor<?> constructor;
+
+        private MapCodec(Class<?> mapType, ContainerCodec element) {
+            this.mapType = mapType;
+            this.element = element;
+            this.constructor = defaultConstructor(mapType, LinkedHashMap.class, TreeMap.class, ConcurrentHashMap.class);
+        }
+
+        static boolean isCreatable(Class<?> mapType) {
+            return mapType.isAssignableFrom(LinkedHashMap.class) || mapType.isAssignableFrom(TreeMap.class)
+                    || mapType.isAssignableFrom(ConcurrentHashMap.class) || defaultConstructor(mapType) != null;
+        }
+
+        @Override
+        Object toMapValue(Object value) {
+            if (!(value instanceof Map)) {
+                return value;
+            }
+            return convert((Map<?, ?>) value, new LinkedHashMap<Object, Object>(capacity(((Map<?, ?>) value).size())), true);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Object fromMapValue(Object value) {
+            if (!(value instanceof Map)) {
+                return value;
+            }
+            Map<Object, Object> map = (Map<Object, Object>) newMap(((Map<?, ?>) value).size());
+            return map == null ? null : convert((Map<?, ?>) value, map, false);
+        }
+
+        private Map<Object, Object> convert(Map<?, ?> source, Map<Object, Object> result, boolean toMapValue) {
+            Object[] values = source.values().toArray();
+            element.convertElements(values, toMapValue);
+            Iterator<?> keys = source.keySet().iterator();
+            for (int i = 0; i < values.length && keys.hasNext(); i++) {
+                Object key = keys.next();
+                // ConcurrentHashMap 不接受 null
+                if (key != null && values[i] != null || !(result instanceof ConcurrentHashMap)) {
+                    result.put(key, values[i]);
+                }
+            }
+            return result;
+        }
+
+        private Object newMap(int size) {
+            if (constructor != null) {
+                return newInstance(constructor);
+            }
+            if (mapType.isAssignableFrom(LinkedHashMap.class)) {
+                return new LinkedHashMap<>(capacity(size));
+            }
+            if (mapType.isAssignableFrom(TreeMap.class)) {
+                return new TreeMap<>();
+            }
+            return new ConcurrentHashMap<>(capacity(size));
+        }
+    }
+
+    /**
+     * 容器类型不能由常用实现类赋值时 取其公有无参构造方法
+     *
+     * @param type        容器类型
+     * @param defaultTypes 常用实现类
+     * @return 无参构造方法 可由常用实现类赋值 或没有时返回 null
+     */
+    private static Constructor<?> defaultConstructor(Class<?> type, Class<?>... defaultTypes) {
+        for (Class<?> defaultType : defaultTypes) {
+            if (type.isAssignableFrom(defaultType)) {
+                return null;
+            }
+        }
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || !Modifier.isPublic(type.getModifiers())) {
+            return null;
+        }
+        try {
+            return type.getConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Object newInstance(Constructor<?> constructor) {
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.ysx.util;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 转化监控指标 - 默认关闭，关闭时热路径上只有一次 volatile 读
+ * 计数全部使用 LongAdder，多线程同时转化时不会争用同一个计数器
+ * 所有计数只在开启期间记录 缓存个数为开启期间新缓存的个数，按类的计数挂在类的元数据上 随类回收
+ * ysx
+ */
+final class ConversionMetrics implements ObjectMappingMetricsMXBean {
+
+    static final String OBJECT_NAME = "com.ysx.util:type=ObjectMappingMetrics";
+
+    /**
+     * 耗时分布的区间个数 第 i 个区间的上限为 2^(i+7) 纳秒，最后一个区间无上限
+     */
+    private static final int BUCKET_COUNT = 20;
+    private static final int FIRST_BUCKET_SHIFT = 7;
+    /**
+     * 未开启时 startTiming 的返回值
+     */
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static final ConversionMetrics INSTANCE = new ConversionMetrics();
+
+    private static volatile boolean enabled;
+
+    /**
+     * 类 - 该类的转化计数 开启期间转化过的类，仅用于列出全部计数
+     * 计数挂在类的元数据上 转化时不经过此表，弱引用类对象 类卸载后随之回收
+     */
+    private final Map<Class<?>, ClassCounters> classCounters = Collections.synchronizedMap(new WeakHashMap<Class<?>, ClassCounters>());
+    /**
+     * 计数的代数 清零时递增 元数据上代数不同的计数视为已清零
+     */
+    private volatile int generation;
+    private final LongAdder planCacheHits = new LongAdder();
+    private final LongAdder planCacheMisses = new LongAdder();
+    private final LongAdder planCacheSize = new LongAdder();
+    private final LongAdder fieldCacheHits = new LongAdder();
+    private final LongAdder fieldCacheMisses = new LongAdder();
+    private final LongAdder fieldCacheSize = new LongAdder();
+    private final LongAdder enumInferenceMisses = new LongAdder();
+    private final LongAdder droppedValues = new LongAdder();
+
+    private ConversionMetrics() {
+    }
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开启或关闭指标收集 开启时注册 MXBean，关闭时注销
+     *
+     * @param enable 是否开启
+     */
+    static synchronized void setEnabled(boolean enable) {
+        if (enabled == enable) {
+            return;
+        }
+        enabled = enable;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (enable && !server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            } else if (!enable && server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    static ObjectMappingMetricsMXBean getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 开始一次转化的计时 与 recordObjectToMap / recordMapToObject 成对使用，未开启时不读取时钟
+     *
+     * @return 开始时间 未开启时为 NOT_TIMED
+     */
+    static long startTiming() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * 记录一次对象转map 开始时未开启或计时期间关闭的不记录
+     *
+     * @param type  转化的类
+     * @param start startTiming 的返回值
+     */
+    static void recordObjectToMap(Class<?> type, long start) {
+        if (start != NOT_TIMED && enabled) {
+            INSTANCE.counters(type).objectToMap.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 记录一次map 转对象 开始时未开启或计时期间关闭的不记录
+     *
+     * @param type  转化的类
+     * @param start startTiming 的返回值
+     */
+    static void recordMapToObject(Class<?> type, long start) {
+        if (start != NOT_TIMED && enabled) {
+            INSTANCE.counters(type).mapToObject.record(System.nanoTime() - start);
+        }
+    }
+
+    static void recordPlanCacheHit() {
+        if (enabled) {
+            INSTANCE.planCacheHits.increment();
+        }
+    }
+
+    static void recordPlanCacheMiss(boolean added) {
+        if (enabled) {
+            INSTANCE.planCacheMisses.increment();
+            if (added) {
+                INSTANCE.planCacheSize.increment();
+            }
+        }
+    }
+
+    static void recordFieldCacheHit() {
+        if (enabled) {
+            INSTANCE.fieldCacheHits.increment();
+        }
+    }
+
+    static void recordFieldCacheMiss(boolean added) {
+        if (enabled) {
+            INSTANCE.fieldCacheMisses.increment();
+            if (added) {
+                INSTANCE.fieldCacheSize.increment();
+            }
+        }
+    }
+
+    static void recordEnumInferenceMiss() {
+        if (enabled) {
+            INSTANCE.enumInferenceMisses.increment();
+        }
+    }
+
+    static void recordDroppedValue() {
+        if (enabled) {
+            INSTANCE.droppedValues.increment();
+        }
+    }
+
+    private ClassCounters counters(Class<?> type) {
+        ClassMetadata metadata = ClassMetadata.of(type);
+        ClassCounters counters = metadata.getCounters();
+        if (counters == null || counters.generation != generation) {
+            synchronized (classCounters) {
+                counters = metadata.getCounters();
+                if (counters == null || counters.generation != generation) {
+                    counters = new ClassCounters(generation);
+                    metadata.setCounters(counters);
+                    classCounters.put(type, counters);
+                }
+            }
+        }
+        return counters;
+    }
+
+    @Override
+    public Map<String, ClassConversionStats> getClassStats() {
+        Map<String, ClassConversionStats> stats = new TreeMap<>();
+        synchronized (classCounters) {
+            for (Map.Entry<Class<?>, ClassCounters> entry : classCounters.entrySet()) {
+                stats.put(entry.getKey().getName(), entry.getValue().snapshot());
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    public long[] getLatencyBucketUpperBoundsNanos() {
+        long[] bounds = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+            bounds[i] = 1L << (i + FIRST_BUCKET_SHIFT);
+        }
+        bounds[BUCKET_COUNT - 1] = Long.MAX_VALUE;
+        return bounds;
+    }
+
+    @Override
+    public long getPlanCacheHits() {
+        return planCacheHits.sum();
+    }
+
+    @Override
+    public long getPlanCacheMisses() {
+        return planCacheMisses.sum();
+    }
+
+    @Override
+    public long getPlanCacheSize() {
+        return planCacheSize.sum();
+    }
+
+    @Override
+    public long getFieldCacheHits() {
+        return fieldCacheHits.sum();
+    }
+
+    @Override
+    public long getFieldCacheMisses() {
+        return fieldCacheMisses.sum();
+    }
+
+    @Override
+    public long getFieldCacheSize() {
+        return fieldCacheSize.sum();
+    }
+
+    @Override
+    public long getEnumInferenceMisses() {
+        return enumInferenceMisses.sum();
+    }
+
+    @Override
+    public long getDroppedValues() {
+        return droppedValues.sum();
+    }
+
+    @Override
+    public void reset() {
+        synchronized (classCounters) {
+            generation++;
+            classCounters.clear();
+        }
+        planCacheHits.reset();
+        planCacheMisses.reset();
+        fieldCacheHits.reset();
+        fieldCacheMisses.reset();
+        enumInferenceMisses.reset();
+        droppedValues.reset();
+    }
+
+    /**
+     * 单个类两个转化方向的计数 不引用类对象
+     */
+    static final class ClassCounters {
+        private final int generation;
+        private final LatencyCounter objectToMap = new LatencyCounter();
+        private final LatencyCounter mapToObject = new LatencyCounter();
+
+        private ClassCounters(int generation) {
+            this.generation = generation;
+        }
+
+        private ClassConversionStats snapshot() {
+            return new ClassConversionStats(objectToMap.count.sum(), objectToMap.totalNanos.sum(), objectToMap.histogram(),
+                    mapToObject.count.sum(), mapToObject.totalNanos.sum(), mapToObject.histogram());
+        }
+    }
+
+    /**
+     * 转化次数 总耗时 及按 2 的幂划分区间的耗时分布
+     */
+    private static final class LatencyCounter {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+
+        private LatencyCounter() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        private void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            // 耗时的二进制位数决定区间 小于 2^7 纳秒的都落在第一个区间
+            int bucket = 64 - Long.numberOfLeadingZeros(nanos) - FIRST_BUCKET_SHIFT;
+            buckets[bucket < 0 ? 0 : Math.min(bucket, BUCKET_COUNT - 1)].increment();
+        }
+
+        private long[] histogram() {
+            long[] histogram = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                histogram[i] = buckets[i].sum();
+            }
+            return histogram;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ysx.util;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * 属性抓取的循环引用保护 - 记录当前路径上的对象(按引用)及嵌套深度
+ * 对象再次出现在自身的抓取路径上，或深度超过 ObjectMappingConfig 中的最大嵌套深度时 按 CyclePolicy 停止或抛出异常
+ * 路径集合在首次进入嵌套对象时才创建，没有属性抓取的对象不产生额外开销
+ * ysx
+ */
+final class CycleGuard {
+
+    private Map<Object, Boolean> path;
+    private int depth;
+
+    /**
+     * 进入嵌套对象
+     *
+     * @param nested 嵌套对象 按类型防止循环时为类型本身
+     * @param type   嵌套对象的类型 用于异常说明
+     * @return 是否继续处理该对象 为 false 时不要调用 exit
+     */
+    boolean enter(Object nested, Class<?> type) {
+        if (path == null) {
+            path = new IdentityHashMap<>();
+        }
+        if (path.containsKey(nested)) {
+            return stop(type.getName() + " 的属性抓取循环引用自身");
+        }
+        if (depth > ObjectMappingConfig.getMaxNestingDepth()) {
+            return stop(type.getName() + " 的属性抓取嵌套深度超过 " + ObjectMappingConfig.getMaxNestingDepth());
+        }
+        path.put(nested, Boolean.TRUE);
+        depth++;
+        return true;
+    }
+
+    /**
+     * 离开嵌套对象
+     *
+     * @param nested 嵌套对象
+     */
+    void exit(Object nested) {
+        path.remove(nested);
+        depth--;
+    }
+
+    /**
+     * 复制当前路径 供并行转化的工作线程继续使用
+     *
+     * @return 路径相同的新对象
+     */
+    CycleGuard copy() {
+        CycleGuard copy = new CycleGuard();
+        if (path != null) {
+            copy.path = new IdentityHashMap<>(path);
+        }
+        copy.depth = depth;
+        return copy;
+    }
+
+    /**
+     * 遇到循环引用或超过最大嵌套深度 按 CyclePolicy 处理
+     *
+     * @param message 说明
+     * @return 为 STOP 时返回 false
+     * @throws IllegalStateException 为 FAIL 时
+     */
+    static boolean stop(String message) {
+        if (ObjectMappingConfig.getCyclePolicy() == ObjectMappingConfig.CyclePolicy.FAIL) {
+            throw new IllegalStateException(message);
+        }
+        return false;
+    }
+}
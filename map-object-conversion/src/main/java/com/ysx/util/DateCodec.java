@@ -0,0 +1,153 @@
+package com.ysx.util;
+
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 日期编解码器 - 每个 DateMapping 模板只编译一次，可被多线程共享
+ * java.util.Date 使用线程内缓存的 SimpleDateFormat(保持原有的解析规则)，
+ * LocalDate，LocalDateTime，Instant 使用不可变的 DateTimeFormatter，未带时区信息时按系统默认时区处理
+ * ysx
+ */
+final class DateCodec {
+
+    /**
+     * 日期模板 - 编解码器
+     */
+    private static final ConcurrentMap<String, DateCodec> CODEC_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 日期模板
+     */
+    private final String pattern;
+    /**
+     * java.util.Date 的格式化器 SimpleDateFormat 非线程安全 每个线程各自缓存一份
+     */
+    private final ThreadLocal<SimpleDateFormat> dateFormat;
+    /**
+     * java.time 类型的格式化器 模板不被 DateTimeFormatter 支持时为 null
+     */
+    private final DateTimeFormatter formatter;
+
+    private DateCodec(final String pattern) {
+        this.pattern = pattern;
+        this.dateFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat(pattern));
+        DateTimeFormatter timeFormatter = null;
+        try {
+            timeFormatter = DateTimeFormatter.ofPattern(pattern);
+        } catch (IllegalArgumentException e) {
+            // 仅 SimpleDateFormat 支持的模板 只能用于 java.util.Date
+        }
+        this.formatter = timeFormatter;
+    }
+
+    /**
+     * 获取日期模板对应的编解码器
+     *
+     * @param pattern 日期模板
+     * @return 编解码器
+     */
+    static DateCodec of(String pattern) {
+        DateCodec codec = CODEC_CACHE.get(pattern);
+        if (codec == null) {
+            // 模板错误时与原先一样 在格式化或解析时报告异常
+            codec = new DateCodec(pattern);
+            DateCodec exist = CODEC_CACHE.putIfAbsent(pattern, codec);
+            if (exist != null) {
+                codec = exist;
+            }
+        }
+        return codec;
+    }
+
+    /**
+     * 是否是编解码器支持的日期类型
+     *
+     * @param type 类型
+     * @return 是否支持
+     */
+    static boolean isSupportedType(Class<?> type) {
+        return Date.class.isAssignableFrom(type) || type == LocalDate.class || type == LocalDateTime.class || type == Instant.class;
+    }
+
+    /**
+     * 将日期转化为字符串表达
+     *
+     * @param value 要格式化的日期 Date，LocalDate，LocalDateTime，Instant
+     * @return 日期转化后的字符串表达 不支持的类型或格式化失败返回 null
+     */
+    String format(Object value) {
+        try {
+            if (value instanceof Date) {
+                return dateFormat.get().format((Date) value);
+            }
+            if (value instanceof LocalDate) {
+                return getFormatter().format(((LocalDate) value).atStartOfDay(ZoneId.systemDefault()));
+            }
+            if (value instanceof LocalDateTime) {
+                return getFormatter().format(((LocalDateTime) value).atZone(ZoneId.systemDefault()));
+            }
+            if (value instanceof Instant) {
+                return getFormatter().format(((Instant) value).atZone(ZoneId.systemDefault()));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * 将字符串解析为指定的日期类型
+     *
+     * @param text       日期字符串表示
+     * @param targetType 要转化为的日期类型 Date(及子类)，LocalDate，LocalDateTime，Instant
+     * @return 字符串转化后的日期 解析失败返回 null
+     */
+    Object parse(String text, Class<?> targetType) {
+        try {
+            if (Date.class.isAssignableFrom(targetType)) {
+                return dateFormat.get().parse(text);
+            }
+            TemporalAccessor parsed = getFormatter().parse(text);
+            LocalDate date = parsed.query(TemporalQueries.localDate());
+            LocalTime time = parsed.query(TemporalQueries.localTime());
+            if (time == null) {
+                time = LocalTime.MIDNIGHT;
+            }
+            if (targetType == LocalDate.class) {
+                return date;
+            }
+            if (targetType == LocalDateTime.class) {
+                return LocalDateTime.of(date, time);
+            }
+            if (targetType == Instant.class) {
+                ZoneId zone = parsed.query(TemporalQueries.zone());
+                return LocalDateTime.of(date, time).atZone(zone == null ? ZoneId.systemDefault() : zone).toInstant();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    private DateTimeFormatter getFormatter() {
+        if (formatter == null) {
+            throw new IllegalArgumentException("日期模板 " + pattern + " 不支持 java.time 类型");
+        }
+        return formatter;
+    }
+
+    String getPattern() {
+        return pattern;
+    }
+}
@@ -0,0 +1,164 @@
+package com.ysx.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 枚举反向查找索引 - 针对枚举类一次性建立 属性值 到 枚举对象 的哈希索引，推断枚举时无需遍历所有枚举对象
+ * 单属性模式(CatchSingleProperty) 以该属性值为key，全属性模式(CatchAllProperty) 以所有属性值组合为key
+ * 属性值相同的多个枚举对象 取声明在前的，与逐个匹配的结果一致
+ * ps: 索引在首次使用时建立，枚举对象的属性值在此之后不应再被修改
+ * ysx
+ */
+final class EnumIndex {
+
+    /**
+     * 参与匹配的字段映射分组 - 带有类体的枚举对象其实际类型不同，匹配的字段也可能不同，按实际类型分组
+     */
+    private final Group[] groups;
+
+    private EnumIndex(Group[] groups) {
+        this.groups = groups;
+    }
+
+    /**
+     * 建立全属性匹配模式的索引 - 枚举除被过滤的属性外 所有属性都要匹配
+     *
+     * @param enumClass 枚举类
+     * @return 索引
+     */
+    static EnumIndex forAllProperties(Class<?> enumClass) {
+        Map<Class<?>, Group> groups = new LinkedHashMap<>();
+        Object[] constants = enumClass.getEnumConstants();
+        for (int ordinal = 0; ordinal < constants.length; ordinal++) {
+            Object constant = constants[ordinal];
+            Group group = groups.get(constant.getClass());
+            if (group == null) {
+                FieldMapping[] mappings = ObjectMappingMapUtil.getMappingPlan(constant.getClass(), Enum.class).getMappings();
+                group = new Group(mappings);
+                groups.put(constant.getClass(), group);
+            }
+            group.add(constant, ordinal);
+        }
+        return new EnumIndex(groups.values().toArray(new Group[0]));
+    }
+
+    /**
+     * 建立单属性匹配模式的索引
+     *
+     * @param enumClass     枚举类
+     * @param singleMapping 要匹配的属性字段映射
+     * @return 索引
+     */
+    static EnumIndex forSingleProperty(Class<?> enumClass, FieldMapping singleMapping) {
+        Group group = new Group(new FieldMapping[]{singleMapping});
+        Object[] constants = enumClass.getEnumConstants();
+        for (int ordinal = 0; ordinal < constants.length; ordinal++) {
+            group.add(constants[ordinal], ordinal);
+        }
+        return new EnumIndex(new Group[]{group});
+    }
+
+    /**
+     * 根据map中的属性值 查找匹配的枚举对象
+     *
+     * @param matchMap map数据源
+     * @return 匹配的枚举对象 不存在返回 null
+     */
+    Object match(Map<String, Object> matchMap) {
+        Object result = null;
+        int resultOrdinal = Integer.MAX_VALUE;
+        for (Group group : groups) {
+            Entry entry = group.index.get(group.lookupKey(matchMap));
+            if (entry != null && entry.ordinal < resultOrdinal) {
+                result = entry.constant;
+                resultOrdinal = entry.ordinal;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 同一组字段映射下的索引
+     */
+    private static final class Group {
+        private final FieldMapping[] mappings;
+        private final Map<Object, Entry> index = new HashMap<>();
+
+        private Group(FieldMapping[] mappings) {
+            this.mappings = mappings;
+        }
+
+        private void add(Object constant, int ordinal) {
+            Object key;
+            if (mappings.length == 1) {
+                key = singleKey(mappings[0].get(constant));
+            } else {
+                Object[] values = new Object[mappings.length];
+                for (int i = 0; i < mappings.length; i++) {
+                    values[i] = mappings[i].get(constant);
+                }
+                key = new CompositeKey(values);
+            }
+            if (!index.containsKey(key)) {
+                index.put(key, new Entry(constant, ordinal));
+            }
+        }
+
+        private Object lookupKey(Map<String, Object> matchMap) {
+            if (mappings.length == 1) {
+                return singleKey(matchMap.get(mappings[0].getMapKey()));
+            }
+            Object[] values = new Object[mappings.length];
+            for (int i = 0; i < mappings.length; i++) {
+                values[i] = matchMap.get(mappings[i].getMapKey());
+            }
+            return new CompositeKey(values);
+        }
+
+        /**
+         * 单个值作为key 数组需按内容比较 包装为组合key
+         */
+        private static Object singleKey(Object value) {
+            return value != null && value.getClass().isArray() ? new CompositeKey(new Object[]{value}) : value;
+        }
+    }
+
+    /**
+     * 索引中的枚举对象及其声明顺序
+     */
+    private static final class Entry {
+        private final Object constant;
+        private final int ordinal;
+
+        private Entry(Object constant, int ordinal) {
+            this.constant = constant;
+            this.ordinal = ordinal;
+        }
+    }
+
+    /**
+     * 多个属性值组成的key 比较规则同 Objects.deepEquals
+     */
+    private static final class CompositeKey {
+        private final Object[] values;
+        private final int hash;
+
+        private CompositeKey(Object[] values) {
+            this.values = values;
+            this.hash = Arrays.deepHashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof CompositeKey && Arrays.deepEquals(values, ((CompositeKey) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.ysx.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * 字段读写器 - 基于 MethodHandle 预先构建字段的 getter/setter，读写时不再经过 Field.get/set 的访问检查
+ * getter/setter 统一适配为 (Object)Object 和 (Object,Object)void 签名，以便使用 invokeExact 调用
+ * ysx
+ */
+final class FieldAccessor {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    /**
+     * getter 统一签名
+     */
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    /**
+     * setter 统一签名
+     */
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * 字段间复制的统一签名 (源对象, 目标对象)void
+     */
+    private static final MethodType COPY_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    /**
+     * 两个对象同一字段比较的统一签名 (对象, 对象)boolean
+     */
+    private static final MethodType EQUALITY_TYPE = MethodType.methodType(boolean.class, Object.class, Object.class);
+
+    /**
+     * 读写的字段
+     */
+    private final Field field;
+    /**
+     * 字段 getter
+     */
+    private final MethodHandle getter;
+    /**
+     * 字段 setter，字段无法写入(如 static final 字段)时为 null
+     */
+    private final MethodHandle setter;
+
+    private FieldAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+        this.field = field;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * 为字段创建读写器 调用方需保证字段已 setAccessible(true)
+     *
+     * @param field 要读写的字段
+     * @return 字段读写器
+     */
+    static FieldAccessor of(Field field) {
+        boolean staticField = Modifier.isStatic(field.getModifiers());
+        MethodHandle getter;
+        try {
+            getter = LOOKUP.unreflectGetter(field);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("无法访问字段 " + field, e);
+        }
+        MethodHandle setter;
+        try {
+            setter = LOOKUP.unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            // final 等不可写字段 写入时退回到 Field.set 并按原方式报告异常
+            setter = null;
+        }
+        // 静态字段 补上被忽略的对象参数 保证签名统一
+        if (staticField) {
+            getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            if (setter != null) {
+                setter = MethodHandles.dropArguments(setter, 0, Object.class);
+            }
+        }
+        getter = getter.asType(GETTER_TYPE);
+        if (setter != null) {
+            setter = setter.asType(SETTER_TYPE);
+        }
+        return new FieldAccessor(field, getter, setter);
+    }
+
+    /**
+     * 创建两个同类型基本类型字段间直接复制的方法 复制时不装箱
+     *
+     * @param sourceField 源字段 已 setAccessible(true)
+     * @param targetField 目标字段 已 setAccessible(true)
+     * @return 签名为 (源对象, 目标对象)void 的方法 字段不是同一基本类型，为静态字段或无法写入时返回 null
+     */
+    static MethodHandle primitiveCopier(Field sourceField, Field targetField) {
+        Class<?> type = targetField.getType();
+        if (!type.isPrimitive() || sourceField.getType() != type
+                || Modifier.isStatic(sourceField.getModifiers()) || Modifier.isStatic(targetField.getModifiers()) || Modifier.isFinal(targetField.getModifiers())) {
+            return null;
+        }
+        try {
+            MethodHandle getter = LOOKUP.unreflectGetter(sourceField).asType(MethodType.methodType(type, Object.class));
+            MethodHandle setter = LOOKUP.unreflectSetter(targetField).asType(MethodType.methodType(void.class, Object.class, type));
+            // setter(目标对象, getter(源对象)) 再将参数调整为 (源对象, 目标对象)
+            MethodHandle copier = MethodHandles.filterArguments(setter, 1, getter);
+            return MethodHandles.permuteArguments(copier, COPY_TYPE, 1, 0);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 创建比较两个对象上同一基本类型字段是否相等的方法 比较时不装箱
+     * 浮点数按位比较 与包装类型的 equals 一致
+     *
+     * @param field 基本类型的实例字段 已 setAccessible(true)
+     * @return 签名为 (对象, 对象)boolean 的方法 非基本类型或静态字段返回 null
+     */
+    static MethodHandle primitiveEquality(Field field) {
+        Class<?> type = field.getType();
+        if (!type.isPrimitive() || Modifier.isStatic(field.getModifiers())) {
+            return null;
+        }
+        try {
+            MethodHandle getter = LOOKUP.unreflectGetter(field).asType(MethodType.methodType(type, Object.class));
+            MethodHandle equal = LOOKUP.findStatic(FieldAccessor.class, "equal", MethodType.methodType(boolean.class, type, type));
+            return MethodHandles.filterArguments(equal, 0, getter, getter).asType(EQUALITY_TYPE);
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 创建读取 int，long，double，boolean 字段的方法 读取时不装箱
+     *
+     * @param field 基本类型的实例字段 已 setAccessible(true)
+     * @return 签名为 (对象)字段类型 的方法 其他类型或静态字段返回 null
+     */
+    static MethodHandle primitiveReader(Field field) {
+        Class<?> type = field.getType();
+        if (type != int.class && type != long.class && type != double.class && type != boolean.class || Modifier.isStatic(field.getModifiers())) {
+            return null;
+        }
+        try {
+            return LOOKUP.unreflectGetter(field).asType(MethodType.methodType(type, Object.class));
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static boolean equal(boolean a, boolean b) {
+        return a == b;
+    }
+
+    private static boolean equal(byte a, byte b) {
+        return a == b;
+    }
+
+    private static boolean equal(short a, short b) {
+        return a == b;
+    }
+
+    private static boolean equal(char a, char b) {
+        return a == b;
+    }
+
+    private static boolean equal(int a, int b) {
+        return a == b;
+    }
+
+    private static boolean equal(long a, long b) {
+        return a == b;
+    }
+
+    private static boolean equal(float a, float b) {
+        return Float.floatToIntBits(a) == Float.floatToIntBits(b);
+    }
+
+    private static boolean equal(double a, double b) {
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+
+    /**
+     * 读取字段值
+     *
+     * @param target 字段所属对象
+     * @return 字段值 基本类型会被装箱
+     */
+    Object get(Object target) {
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 写入字段值
+     *
+     * @param target 字段所属对象
+     * @param value  要写入的值
+     */
+    void set(Object target, Object value) {
+        if (setter == null) {
+            try {
+                field.set(target, value);
+            } catch (IllegalAccessException e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+        try {
+            setter.invokeExact(target, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.CatchAllProperty;
+import com.ysx.util.annotation.CatchSingleProperty;
+import com.ysx.util.annotation.DateMapping;
+import com.ysx.util.converter.CachedConverter;
+import com.ysx.util.handler.MapIgnoreHandler;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * 单个字段的映射描述 - 字段上的注解信息，map key 等在创建时一次性解析完成，之后只读
+ * ysx
+ */
+final class FieldMapping {
+
+    /**
+     * 描述的字段
+     */
+    private final Field field;
+    /**
+     * 字段读写器
+     */
+    private final FieldAccessor accessor;
+    /**
+     * 该字段对应的map key (已处理 CatchSingleProperty 映射链和 MapKeyMapping 别名)
+     */
+    private final String mapKey;
+    /**
+     * 去除 _ 并转为小写后的 map key，用于 map 转对象时的兼容匹配
+     */
+    private final String normalizedKey;
+    /**
+     * 是否需要将字段对应对象的全部属性填充到map中
+     */
+    private final boolean catchAll;
+    /**
+     * CatchAllProperty 注解上声明的停止类，未标注该注解时为 null
+     */
+    private final Class<?> catchAllStopClass;
+    /**
+     * 字段是否标注了 CatchSingleProperty 注解
+     */
+    private final boolean catchSingle;
+    /**
+     * CatchSingleProperty 注解要抓取的属性名，未标注或为空时为 null
+     */
+    private final String singleProperty;
+    /**
+     * map 转对象时 该字段是否需要根据map构造新的对象(或推断枚举)
+     */
+    private final boolean nestedTarget;
+    /**
+     * DateMapping 注解模板对应的日期编解码器，未标注时为 null
+     */
+    private final DateCodec dateCodec;
+    /**
+     * map 转对象时 值类型与字段类型不一致时使用的转换器
+     */
+    private final CachedConverter converter;
+    /**
+     * 元素为对象的集合，数组，map 字段的转化方式 其他字段为 null
+     */
+    private final ContainerCodec containerCodec;
+    /**
+     * 字段声明类型下 CatchSingleProperty 抓取的目标字段，首次使用时解析
+     */
+    private volatile FieldMapping singleTarget;
+    /**
+     * 无属性抓取，日期格式化的 int，long，double，boolean 实例字段 不装箱的读取方法，其他字段为 null
+     */
+    private final MethodHandle primitiveReader;
+    /**
+     * 比较两个对象上该基本类型字段是否相等的方法，首次使用时创建
+     */
+    private volatile MethodHandle primitiveEquality;
+
+    FieldMapping(Field field, String mapKey) {
+        field.setAccessible(true);
+        this.field = field;
+        this.accessor = FieldAccessor.of(field);
+        this.mapKey = mapKey;
+        this.normalizedKey = ObjectMappingMapUtil.commonProcess(mapKey);
+        Class<?> type = field.getType();
+        boolean baseType = ObjectMappingMapUtil.isBaseType(type);
+        CatchAllProperty catchAllAnnotation = field.getAnnotation(CatchAllProperty.class);
+        CatchSingleProperty catchSingleAnnotation = field.getAnnotation(CatchSingleProperty.class);
+        DateMapping dateMappingAnnotation = field.getAnnotation(DateMapping.class);
+        this.catchAll = catchAllAnnotation != null && !baseType;
+        this.catchAllStopClass = catchAllAnnotation == null ? null : catchAllAnnotation.stopClass();
+        this.catchSingle = catchSingleAnnotation != null;
+        this.singleProperty = catchSingleAnnotation == null || "".equals(catchSingleAnnotation.value()) ? null : catchSingleAnnotation.value();
+        this.nestedTarget = (catchAllAnnotation != null || catchSingleAnnotation != null) && !baseType;
+        this.dateCodec = dateMappingAnnotation == null ? null : DateCodec.of(dateMappingAnnotation.value());
+        this.converter = new CachedConverter(type);
+        this.containerCodec = ContainerCodec.of(field.getGenericType());
+        this.primitiveReader = catchSingle || dateCodec != null ? null : FieldAccessor.primitiveReader(field);
+    }
+
+    /**
+     * 读取对象上该字段的原始值
+     *
+     * @param target 字段所属对象
+     * @return 字段值
+     */
+    Object get(Object target) {
+        return accessor.get(target);
+    }
+
+    /**
+     * 设置对象上该字段的值
+     *
+     * @param target 字段所属对象
+     * @param value  要设置的值
+     */
+    void set(Object target, Object value) {
+        accessor.set(target, value);
+    }
+
+    /**
+     * 获取 CatchSingleProperty 抓取的目标字段
+     *
+     * @param valueClass 字段值的实际类型
+     * @return 目标字段映射，不存在返回 null
+     */
+    FieldMapping getSingleTarget(Class<?> valueClass) {
+        if (valueClass != field.getType()) {
+            return ObjectMappingMapUtil.getMappingPlan(valueClass, null).getByName(singleProperty);
+        }
+        FieldMapping target = singleTarget;
+        if (target == null) {
+            target = ObjectMappingMapUtil.getMappingPlan(valueClass, null).getByName(singleProperty);
+            singleTarget = target;
+        }
+        return target;
+    }
+
+    Field getField() {
+        return field;
+    }
+
+    Class<?> getType() {
+        return field.getType();
+    }
+
+    String getName() {
+        return field.getName();
+    }
+
+    String getMapKey() {
+        return mapKey;
+    }
+
+    String getNormalizedKey() {
+        return normalizedKey;
+    }
+
+    boolean isCatchAll() {
+        return catchAll;
+    }
+
+    Class<?> getCatchAllStopClass() {
+        return catchAllStopClass;
+    }
+
+    boolean isCatchSingle() {
+        return catchSingle;
+    }
+
+    String getSingleProperty() {
+        return singleProperty;
+    }
+
+    boolean isNestedTarget() {
+        return nestedTarget;
+    }
+
+    /**
+     * 将值转换为字段类型
+     *
+     * @param value 要转换的值
+     * @return 可直接设置到字段上的值 值为 null 或无法转换时返回 null
+     */
+    Object convert(Object value) {
+        return converter.convert(value);
+    }
+
+    DateCodec getDateCodec() {
+        return dateCodec;
+    }
+
+    ContainerCodec getContainerCodec() {
+        return containerCodec;
+    }
+
+    /**
+     * @return 是否为 map 值即字段原值的基本类型实例字段(无属性抓取，无日期格式化)
+     */
+    boolean isPlainPrimitive() {
+        return field.getType().isPrimitive() && !catchSingle && dateCodec == null && !Modifier.isStatic(field.getModifiers());
+    }
+
+    /**
+     * @return 是否可不装箱写入 MapSink
+     */
+    boolean hasPrimitiveReader() {
+        return primitiveReader != null;
+    }
+
+    /**
+     * 将该基本类型字段的值 按字段类型对应的方法写入 MapSink 不装箱
+     *
+     * @param sourceObject     字段所属对象
+     * @param sink             输出
+     * @param mapIgnoreHandler 自定义属性忽略策略 按基本类型的重载判断
+     */
+    void putPrimitive(Object sourceObject, MapSink sink, MapIgnoreHandler mapIgnoreHandler) {
+        try {
+            Class<?> type = field.getType();
+            if (type == int.class) {
+                int value = (int) primitiveReader.invokeExact(sourceObject);
+                if (mapIgnoreHandler == null || !mapIgnoreHandler.ignoreHandler(mapKey, value)) {
+                    sink.putInt(mapKey, value);
+                }
+            } else if (type == long.class) {
+                long value = (long) primitiveReader.invokeExact(sourceObject);
+                if (mapIgnoreHandler == null || !mapIgnoreHandler.ignoreHandler(mapKey, value)) {
+                    sink.putLong(mapKey, value);
+                }
+            } else if (type == double.class) {
+                double value = (double) primitiveReader.invokeExact(sourceObject);
+                if (mapIgnoreHandler == null || !mapIgnoreHandler.ignoreHandler(mapKey, value)) {
+                    sink.putDouble(mapKey, value);
+                }
+            } else {
+                boolean value = (boolean) primitiveReader.invokeExact(sourceObject);
+                if (mapIgnoreHandler == null || !mapIgnoreHandler.ignoreHandler(mapKey, value)) {
+                    sink.putBoolean(mapKey, value);
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 比较两个对象上该基本类型字段是否相等 不装箱
+     *
+     * @param first  对象
+     * @param second 对象
+     * @return 是否相等
+     */
+    boolean primitiveEquals(Object first, Object second) {
+        MethodHandle equality = primitiveEquality;
+        if (equality == null) {
+            equality = FieldAccessor.primitiveEquality(field);
+            if (equality == null) {
+                throw new IllegalStateException("不是基本类型的实例字段 " + field);
+            }
+            primitiveEquality = equality;
+        }
+        try {
+            return (boolean) equality.invokeExact(first, second);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.ysx.util;
+
+import com.ysx.util.converter.CachedConverter;
+import com.ysx.util.handler.MapIgnoreHandler;
+
+import java.util.Map;
+
+/**
+ * 生成的映射器使用的辅助方法 - 生成代码无法直接处理的字段(属性抓取，日期，private 字段等)交由反射映射计划处理
+ * 映射器的静态字段初始化时即通过 field 方法解析声明类的映射计划
+ * 仅供生成代码调用
+ * ysx
+ */
+public final class GeneratedMapperSupport {
+
+    private GeneratedMapperSupport() {
+    }
+
+    /**
+     * 交由映射计划处理的字段
+     */
+    public static final class MappedField {
+        private final FieldMapping mapping;
+
+        private MappedField(FieldMapping mapping) {
+            this.mapping = mapping;
+        }
+    }
+
+    /**
+     * 获取字段在其声明类映射计划中的映射
+     *
+     * @param declaringClass 字段声明类
+     * @param fieldName      字段名
+     * @return 字段映射
+     */
+    public static MappedField field(Class<?> declaringClass, String fieldName) {
+        FieldMapping mapping = ObjectMappingMapUtil.getMappingPlan(declaringClass, null).getByName(fieldName);
+        if (mapping == null) {
+            throw new IllegalStateException(declaringClass.getName() + " 中不存在字段 " + fieldName);
+        }
+        return new MappedField(mapping);
+    }
+
+    /**
+     * 对 map key 做通用比较处理 即去除下划线，全部转为小写
+     *
+     * @param key map key
+     * @return 处理后的 key
+     */
+    public static String normalizeKey(String key) {
+        return ObjectMappingMapUtil.commonProcess(key);
+    }
+
+    /**
+     * 将 map 的 key 做通用处理后 建立 处理后key - 原始key 的索引 相同key 集合的数据源共享同一索引
+     *
+     * @param sourceMap map类型的数据源
+     * @return 处理后key - 原始key
+     */
+    public static Map<String, String> keyIndex(Map<String, Object> sourceMap) {
+        return KeyLayout.of(sourceMap);
+    }
+
+    /**
+     * 从map中取值 没有取到值时兼容 驼峰，_,大小写取值
+     *
+     * @param sourceMap     map类型的数据源
+     * @param keyIndex      keyIndex 方法建立的索引
+     * @param mapKey        字段对应的 map key
+     * @param normalizedKey 通用处理后的 map key
+     * @return map中的值
+     */
+    public static Object lookup(Map<String, Object> sourceMap, Map<String, String> keyIndex, String mapKey, String normalizedKey) {
+        Object mapValue = sourceMap.get(mapKey);
+        if (mapValue == null) {
+            mapValue = sourceMap.get(keyIndex.get(normalizedKey));
+        }
+        return mapValue;
+    }
+
+    /**
+     * 将map中取到的值转换为字段类型 无法转换的值计入监控指标
+     *
+     * @param converter 字段的类型转换器
+     * @param mapValue  map中的值
+     * @return 转换后的值 没有取到值或无法转换时为 null
+     */
+    public static Object convert(CachedConverter converter, Object mapValue) {
+        Object value = converter.convert(mapValue);
+        if (value == null && mapValue != null) {
+            ConversionMetrics.recordDroppedValue();
+        }
+        return value;
+    }
+
+    /**
+     * 将字段按对象转map规则填充到map中
+     *
+     * @param resultMap        要填充的map集合
+     * @param sourceObject     map填充的"数据源"
+     * @param field            字段
+     * @param mapIgnoreHandler 自定义属性忽略策略
+     */
+    public static void populateField(Map<String, Object> resultMap, Object sourceObject, MappedField field, MapIgnoreHandler mapIgnoreHandler) {
+        ObjectMappingMapUtil.populateMapping(resultMap, sourceObject, field.mapping, mapIgnoreHandler);
+    }
+
+    /**
+     * 将map中的值按map转对象规则设置到字段
+     *
+     * @param sourceMap map类型的数据源
+     * @param keyIndex  keyIndex 方法建立的索引
+     * @param target    要赋值的对象
+     * @param field     字段
+     */
+    public static void bindField(Map<String, Object> sourceMap, Map<String, String> keyIndex, Object target, MappedField field) {
+        KeyLayout keyLayout = keyIndex instanceof KeyLayout ? (KeyLayout) keyIndex : KeyLayout.of(sourceMap);
+        ObjectMappingMapUtil.bindMapping(sourceMap, keyLayout, target, field.mapping);
+    }
+}
@@ -0,0 +1,333 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.MapCreator;
+import com.ysx.util.annotation.MapKeyMapping;
+import com.ysx.util.converter.CachedConverter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 对象创建器 - 每个类只解析一次创建方式，并预先构建 MethodHandle，创建对象只需一次调用
+ * 创建方式依次为: 标注 MapCreator 的构造方法或静态工厂方法，无参构造方法，参数最多的构造方法(全参构造)
+ * 带参数的创建方式 参数按 MapKeyMapping 注解，同名字段的映射，参数名 从map中取值，取值规则与字段相同
+ * 编译时未保留参数名时 参数类型互不相同 且与类中声明的实例字段的类型一一对应(如全参构造)时 按类型对应字段，
+ * 否则需在参数上标注 MapKeyMapping 或使用 -parameters 编译
+ * ysx
+ */
+final class Instantiator {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Class<?> type;
+    /**
+     * 创建对象的方法 签名统一为 (Object[])Object，无参时为 ()Object
+     */
+    private final MethodHandle handle;
+    private final Parameter[] parameters;
+    /**
+     * 参数在类中对应的字段名 无法对应时为 null
+     */
+    private final String[] parameterFieldNames;
+    private final CachedConverter[] converters;
+    private final Object[] defaultValues;
+    /**
+     * 无可用的创建方式时的原因
+     */
+    private final String error;
+    /**
+     * 映射计划 - 参数绑定
+     */
+    private final ConcurrentMap<MappingPlan, ParameterBinding> bindings = new ConcurrentHashMap<>(4);
+
+    private Instantiator(Class<?> type, MethodHandle handle, Parameter[] parameters, String[] parameterFieldNames, String error) {
+        this.type = type;
+        this.handle = handle;
+        this.parameters = parameters;
+        this.parameterFieldNames = parameterFieldNames;
+        this.error = error;
+        this.converters = new CachedConverter[parameters.length];
+        this.defaultValues = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            Class<?> parameterType = parameters[i].getType();
+            converters[i] = new CachedConverter(parameterType);
+            // 基本类型参数没有取到值时 使用默认值
+            defaultValues[i] = parameterType.isPrimitive() ? Array.get(Array.newInstance(parameterType, 1), 0) : null;
+        }
+    }
+
+    /**
+     * 获取类的对象创建器
+     *
+     * @param type 类
+     * @return 对象创建器
+     */
+    static Instantiator of(Class<?> type) {
+        ClassMetadata metadata = ClassMetadata.of(type);
+        Instantiator instantiator = metadata.getInstantiator();
+        if (instantiator == null) {
+            instantiator = create(type);
+            metadata.setInstantiator(instantiator);
+        }
+        return instantiator;
+    }
+
+    /**
+     * 创建对象
+     *
+     * @param sourceMap   map类型的数据源
+     * @param keyLayout   数据源的键结构
+     * @param mappingPlan 映射计划
+     * @return 创建的对象 失败时打印异常并返回 null
+     */
+    Object newInstance(Map<String, Object> sourceMap, KeyLayout keyLayout, MappingPlan mappingPlan) {
+        if (handle == null) {
+            new InstantiationException(error).printStackTrace();
+            return null;
+        }
+        try {
+            if (parameters.length == 0) {
+                return (Object) handle.invokeExact();
+            }
+            ParameterBinding binding = getBinding(mappingPlan);
+            Object[] args = new Object[parameters.length];
+            for (int i = 0; i < args.length; i++) {
+                Object value;
+                FieldMapping mapping = binding.mappings[i];
+                String key = binding.keys[i];
+                if (mapping != null) {
+                    value = ObjectMappingMapUtil.readMappingValue(sourceMap, keyLayout, mapping, keyLayout.presentKey(key), keyLayout.originalKey(mapping.getNormalizedKey()));
+                } else {
+                    value = sourceMap.get(keyLayout.presentKey(key));
+                    if (value == null) {
+                        value = sourceMap.get(keyLayout.originalKey(binding.normalizedKeys[i]));
+                    }
+                }
+                Object converted = converters[i].convert(value);
+                if (converted == null && value != null) {
+                    ConversionMetrics.recordDroppedValue();
+                }
+                args[i] = converted == null ? defaultValues[i] : converted;
+            }
+            return (Object) handle.invokeExact(args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * @return 是否为不需要参数的创建方式
+     */
+    boolean isNoArgs() {
+        return handle != null && parameters.length == 0;
+    }
+
+    /**
+     * 使用不需要参数的创建方式创建对象
+     *
+     * @return 创建的对象 失败时打印异常并返回 null
+     */
+    Object newInstance() {
+        return newInstance(null, null, null);
+    }
+
+    /**
+     * 字段映射是否已由参数绑定 已绑定的字段创建对象后不再赋值
+     *
+     * @param mappingPlan 映射计划
+     * @return 与 mappingPlan.getMappings() 对应 为 null 表示没有字段由参数绑定
+     */
+    boolean[] getBoundMappings(MappingPlan mappingPlan) {
+        return parameters.length == 0 ? null : getBinding(mappingPlan).boundMappings;
+    }
+
+    private ParameterBinding getBinding(MappingPlan mappingPlan) {
+        ParameterBinding binding = bindings.get(mappingPlan);
+        if (binding == null) {
+            binding = new ParameterBinding(mappingPlan);
+            ParameterBinding exist = bindings.putIfAbsent(mappingPlan, binding);
+            if (exist != null) {
+                binding = exist;
+            }
+        }
+        return binding;
+    }
+
+    /**
+     * 解析类的创建方式
+     */
+    private static Instantiator create(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.isPrimitive() || type.isArray()) {
+            return failure(type, type.getName() + " 不能创建对象");
+        }
+        List<Executable> creators = new ArrayList<>();
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            if (constructor.isAnnotationPresent(MapCreator.class)) {
+                creators.add(constructor);
+            }
+        }
+        for (Method method : type.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(MapCreator.class) && Modifier.isStatic(method.getModifiers()) && type.isAssignableFrom(method.getReturnType())) {
+                creators.add(method);
+            }
+        }
+        if (creators.size() > 1) {
+            return failure(type, type.getName() + " 中存在多个 MapCreator 创建方法");
+        }
+        Executable creator = creators.isEmpty() ? null : creators.get(0);
+        if (creator == null) {
+            creator = findConstructor(type);
+        }
+        if (creator == null) {
+            return failure(type, type.getName() + " 没有可用的构造方法");
+        }
+        Parameter[] parameters = creator.getParameters();
+        String[] fieldNames = resolveParameterFieldNames(type, creator);
+        for (int i = 0; i < parameters.length; i++) {
+            MapKeyMapping keyMapping = parameters[i].getAnnotation(MapKeyMapping.class);
+            if (fieldNames[i] == null && (keyMapping == null || "".equals(keyMapping.value()))) {
+                return failure(type, creator + " 的参数无法对应 map key 请使用 -parameters 编译或在参数上标注 MapKeyMapping");
+            }
+        }
+        try {
+            creator.setAccessible(true);
+            MethodHandle handle = creator instanceof Constructor
+                    ? LOOKUP.unreflectConstructor((Constructor<?>) creator)
+                    : LOOKUP.unreflect((Method) creator);
+            if (parameters.length == 0) {
+                handle = handle.asType(MethodType.methodType(Object.class));
+            } else {
+                handle = handle.asSpreader(Object[].class, parameters.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            }
+            return new Instantiator(type, handle, parameters, fieldNames, null);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return failure(type, type.getName() + " 的创建方法无法访问: " + e);
+        }
+    }
+
+    /**
+     * 无参构造方法 不存在时取参数最多的构造方法(参数个数相同的有多个时无法确定)
+     */
+    private static Constructor<?> findConstructor(Class<?> type) {
+        Constructor<?> widest = null;
+        boolean ambiguous = false;
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            if (constructor.isSynthetic()) {
+                continue;
+            }
+            if (constructor.getParameterCount() == 0) {
+                return constructor;
+            }
+            if (widest == null || constructor.getParameterCount() > widest.getParameterCount()) {
+                widest = constructor;
+                ambiguous = false;
+            } else if (constructor.getParameterCount() == widest.getParameterCount()) {
+                ambiguous = true;
+            }
+        }
+        // 非静态内部类的构造方法 第一个参数为外部类对象 无法从map中取得
+        if (widest == null || ambiguous || (type.getEnclosingClass() != null && !Modifier.isStatic(type.getModifiers()))) {
+            return null;
+        }
+        return widest;
+    }
+
+    /**
+     * 编译时未保留参数名时 参数类型互不相同 且与类中声明的实例字段的类型一一对应(如全参构造) 按类型对应字段名
+     * getDeclaredFields 不保证字段的顺序 同类型的参数无法确定对应的字段
+     */
+    private static String[] resolveParameterFieldNames(Class<?> type, Executable creator) {
+        Parameter[] parameters = creator.getParameters();
+        String[] names = new String[parameters.length];
+        Map<Class<?>, String> fieldNamesByType = new HashMap<>();
+        int fieldCount = 0;
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                fieldNamesByType.put(field.getType(), field.getName());
+                fieldCount++;
+            }
+        }
+        // 字段类型互不相同 且个数与参数相同
+        boolean byType = fieldCount == fieldNamesByType.size() && fieldCount == parameters.length;
+        Set<Class<?>> parameterTypes = new HashSet<>();
+        for (int i = 0; byType && i < parameters.length; i++) {
+            byType = parameterTypes.add(parameters[i].getType()) && fieldNamesByType.containsKey(parameters[i].getType());
+        }
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].isNamePresent()) {
+                names[i] = parameters[i].getName();
+            } else if (byType) {
+                names[i] = fieldNamesByType.get(parameters[i].getType());
+            }
+        }
+        return names;
+    }
+
+    private static Instantiator failure(Class<?> type, String error) {
+        return new Instantiator(type, null, new Parameter[0], new String[0], error);
+    }
+
+    /**
+     * 参数在某个映射计划下的绑定 - 参数对应的字段映射及 map key
+     */
+    private final class ParameterBinding {
+        private final FieldMapping[] mappings;
+        private final String[] keys;
+        private final String[] normalizedKeys;
+        private final boolean[] boundMappings;
+
+        private ParameterBinding(MappingPlan mappingPlan) {
+            mappings = new FieldMapping[parameters.length];
+            keys = new String[parameters.length];
+            normalizedKeys = new String[parameters.length];
+            FieldMapping[] planMappings = mappingPlan.getMappings();
+            boundMappings = new boolean[planMappings.length];
+            for (int i = 0; i < parameters.length; i++) {
+                MapKeyMapping keyMapping = parameters[i].getAnnotation(MapKeyMapping.class);
+                FieldMapping fieldMapping = mappingPlan.getByName(parameterFieldNames[i]);
+                String key;
+                if (keyMapping != null && !"".equals(keyMapping.value())) {
+                    key = keyMapping.value();
+                } else if (fieldMapping != null) {
+                    key = fieldMapping.getMapKey();
+                } else {
+                    key = parameterFieldNames[i];
+                }
+                // 只有字段的 map key 与参数一致时 参数才按字段的规则取值
+                for (int j = 0; j < planMappings.length; j++) {
+                    if (planMappings[j].getMapKey().equals(key)) {
+                        mappings[i] = planMappings[j];
+                        boundMappings[j] = true;
+                    }
+                }
+                keys[i] = key;
+                normalizedKeys[i] = ObjectMappingMapUtil.commonProcess(key);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Instantiator{" + type.getName() + "}";
+    }
+}
@@ -0,0 +1,298 @@
+package com.ysx.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON 输出 - 带缓冲的字符(Writer)或 UTF-8 字节(OutputStream)输出，字符串按 JSON 规则转义
+ * 字段的键 "key": 按两种输出预先编码，写出时直接复制
+ * ysx
+ */
+abstract class JsonOutput {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * 写出字段预先编码的键 包括引号和冒号
+     *
+     * @param key 预先编码的键
+     */
+    abstract void writeKey(EncodedKey key) throws IOException;
+
+    /**
+     * 写出 ASCII 字符 - 结构符号，数字，字面量
+     *
+     * @param c 字符
+     */
+    abstract void write(char c) throws IOException;
+
+    /**
+     * 写出 ASCII 字符串 - 数字，字面量
+     *
+     * @param ascii 字符串
+     */
+    abstract void writeAscii(String ascii) throws IOException;
+
+    /**
+     * 写出带引号并转义的字符串
+     *
+     * @param value 字符串
+     */
+    abstract void writeString(String value) throws IOException;
+
+    /**
+     * 写出缓冲中的内容 并刷新底层输出
+     */
+    abstract void flush() throws IOException;
+
+    static JsonOutput of(Writer writer) {
+        return new CharOutput(writer);
+    }
+
+    static JsonOutput of(OutputStream outputStream) {
+        return new Utf8Output(outputStream);
+    }
+
+    /**
+     * 字符在 JSON 字符串中是否需要转义 - 引号，反斜杠，控制字符，及 JavaScript 中的行分隔符
+     */
+    private static boolean needsEscape(char c) {
+        return c < 0x20 || c == '"' || c == '\\' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * 转义字符 写入 6 个字符以内的转义序列
+     *
+     * @return 转义序列的长度
+     */
+    private static int escape(char c, char[] target, int position) {
+        target[position] = '\\';
+        switch (c) {
+            case '"':
+            case '\\':
+                target[position + 1] = c;
+                return 2;
+            case '\n':
+                target[position + 1] = 'n';
+                return 2;
+            case '\r':
+                target[position + 1] = 'r';
+                return 2;
+            case '\t':
+                target[position + 1] = 't';
+                return 2;
+            case '\b':
+                target[position + 1] = 'b';
+                return 2;
+            case '\f':
+                target[position + 1] = 'f';
+                return 2;
+            default:
+                target[position + 1] = 'u';
+                target[position + 2] = HEX[c >> 12 & 0xF];
+                target[position + 3] = HEX[c >> 8 & 0xF];
+                target[position + 4] = HEX[c >> 4 & 0xF];
+                target[position + 5] = HEX[c & 0xF];
+                return 6;
+        }
+    }
+
+    /**
+     * @return 带引号并转义的字符串
+     */
+    static String quote(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        char[] escaped = new char[6];
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (needsEscape(c)) {
+                builder.append(escaped, 0, escape(c, escaped, 0));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /**
+     * 预先编码的键 "key":
+     */
+    static final class EncodedKey {
+        private final char[] chars;
+        private final byte[] bytes;
+
+        EncodedKey(String key) {
+            String encoded = quote(key) + ':';
+            this.chars = encoded.toCharArray();
+            this.bytes = encoded.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 输出到 Writer
+     */
+    private static final class CharOutput extends JsonOutput {
+        private final Writer writer;
+        private final char[] buffer = new char[4096];
+        private int position;
+
+        private CharOutput(Writer writer) {
+            this.writer = writer;
+        }
+
+        private void ensure(int length) throws IOException {
+            if (position + length > buffer.length) {
+                writer.write(buffer, 0, position);
+                position = 0;
+            }
+        }
+
+        @Override
+        void writeKey(EncodedKey key) throws IOException {
+            char[] chars = key.chars;
+            if (chars.length > buffer.length) {
+                ensure(buffer.length);
+                writer.write(chars);
+                return;
+            }
+            ensure(chars.length);
+            System.arraycopy(chars, 0, buffer, position, chars.length);
+            position += chars.length;
+        }
+
+        @Override
+        void write(char c) throws IOException {
+            ensure(1);
+            buffer[position++] = c;
+        }
+
+        @Override
+        void writeAscii(String ascii) throws IOException {
+            int length = ascii.length();
+            if (length > buffer.length) {
+                ensure(buffer.length);
+                writer.write(ascii);
+                return;
+            }
+            ensure(length);
+            ascii.getChars(0, length, buffer, position);
+            position += length;
+        }
+
+        @Override
+        void writeString(String value) throws IOException {
+            write('"');
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                ensure(6);
+                if (needsEscape(c)) {
+                    position += escape(c, buffer, position);
+                } else {
+                    buffer[position++] = c;
+                }
+            }
+            write('"');
+        }
+
+        @Override
+        void flush() throws IOException {
+            writer.write(buffer, 0, position);
+            position = 0;
+            writer.flush();
+        }
+    }
+
+    /**
+     * 以 UTF-8 编码输出到 OutputStream
+     */
+    private static final class Utf8Output extends JsonOutput {
+        private final OutputStream outputStream;
+        private final byte[] buffer = new byte[8192];
+        private final char[] escaped = new char[6];
+        private int position;
+
+        private Utf8Output(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        private void ensure(int length) throws IOException {
+            if (position + length > buffer.length) {
+                outputStream.write(buffer, 0, position);
+                position = 0;
+            }
+        }
+
+        @Override
+        void writeKey(EncodedKey key) throws IOException {
+            byte[] bytes = key.bytes;
+            if (bytes.length > buffer.length) {
+                ensure(buffer.length);
+                outputStream.write(bytes);
+                return;
+            }
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        @Override
+        void write(char c) throws IOException {
+            ensure(1);
+            buffer[position++] = (byte) c;
+        }
+
+        @Override
+        void writeAscii(String ascii) throws IOException {
+            int length = ascii.length();
+            for (int i = 0; i < length; i++) {
+                ensure(1);
+                buffer[position++] = (byte) ascii.charAt(i);
+            }
+        }
+
+        @Override
+        void writeString(String value) throws IOException {
+            write('"');
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                ensure(6);
+                if (needsEscape(c)) {
+                    int escapedLength = escape(c, escaped, 0);
+                    for (int j = 0; j < escapedLength; j++) {
+                        buffer[position++] = (byte) escaped[j];
+                    }
+                } else if (c < 0x80) {
+                    buffer[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[position++] = (byte) (0xC0 | c >> 6);
+                    buffer[position++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                    buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    // 不成对的代理字符 与 String.getBytes 相同替换为 ?
+                    buffer[position++] = '?';
+                } else {
+                    buffer[position++] = (byte) (0xE0 | c >> 12);
+                    buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    buffer[position++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+            write('"');
+        }
+
+        @Override
+        void flush() throws IOException {
+            outputStream.write(buffer, 0, position);
+            position = 0;
+            outputStream.flush();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.ysx.util;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * map 数据源的键结构 - 一组按迭代顺序排列的 key，及其 通用处理后key - 原始key 的索引
+ * 数据库查询结果等批量数据的每一行 key 都相同，键结构按 key 序列的哈希值缓存在固定大小的表中，
+ * 每个哈希值可落在相邻的两个槽位，槽位各自原子替换，并发时不会丢失其他槽位的键结构，
+ * 同一键结构下 每个映射计划的字段要读取的 key 也只解析一次(缓存在映射计划上)，之后的行绑定时不再做任何字符串处理
+ * 本身作为 处理后key - 原始key 的只读map 交给生成的映射器使用
+ * ysx
+ */
+final class KeyLayout extends AbstractMap<String, String> {
+
+    /**
+     * 缓存键结构的槽位个数 2 的幂
+     */
+    private static final int LAYOUT_SLOTS = 256;
+
+    /**
+     * 最近使用的键结构
+     */
+    private static final AtomicReferenceArray<KeyLayout> LAYOUTS = new AtomicReferenceArray<>(LAYOUT_SLOTS);
+    /**
+     * 最近一次使用的键结构 批量数据连续的行 key 相同时不必计算哈希值
+     */
+    private static volatile KeyLayout lastLayout;
+
+    /**
+     * key 序列的哈希值
+     */
+    private final int hash;
+
+    /**
+     * 数据源的 key 按迭代顺序
+     */
+    private final String[] keys;
+    private final Set<String> keySet;
+    /**
+     * 处理后key - 原始key 同一处理后key 对应多个原始key 时取迭代顺序靠后的
+     */
+    private final Map<String, String> normalizedKeys;
+
+    private KeyLayout(Map<String, Object> sourceMap, int hash) {
+        this.hash = hash;
+        this.keys = sourceMap.keySet().toArray(new String[0]);
+        Map<String, String> normalized = new HashMap<>(keys.length * 2);
+        for (String key : keys) {
+            normalized.put(ObjectMappingMapUtil.commonProcess(key), key);
+        }
+        this.keySet = new HashSet<>(Arrays.asList(keys));
+        this.normalizedKeys = normalized;
+    }
+
+    /**
+     * 获取数据源的键结构
+     *
+     * @param sourceMap map类型的数据源
+     * @return 键结构
+     */
+    static KeyLayout of(Map<String, Object> sourceMap) {
+        KeyLayout last = lastLayout;
+        if (last != null && last.matches(sourceMap)) {
+            return last;
+        }
+        KeyLayout layout = lookup(sourceMap);
+        lastLayout = layout;
+        return layout;
+    }
+
+    private static KeyLayout lookup(Map<String, Object> sourceMap) {
+        int hash = hash(sourceMap);
+        int slot = hash & (LAYOUT_SLOTS - 1);
+        KeyLayout first = LAYOUTS.get(slot);
+        if (first != null && first.hash == hash && first.matches(sourceMap)) {
+            return first;
+        }
+        int neighbor = slot ^ 1;
+        KeyLayout second = LAYOUTS.get(neighbor);
+        if (second != null && second.hash == hash && second.matches(sourceMap)) {
+            return second;
+        }
+        KeyLayout layout = new KeyLayout(sourceMap, hash);
+        // 空槽位优先 否则原有的移到相邻槽位 淘汰相邻槽位原有的
+        if (!LAYOUTS.compareAndSet(slot, null, layout) && !LAYOUTS.compareAndSet(neighbor, null, layout)) {
+            KeyLayout evicted = LAYOUTS.getAndSet(slot, layout);
+            if (evicted != null) {
+                LAYOUTS.set(neighbor, evicted);
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * 按迭代顺序计算 key 序列的哈希值
+     */
+    private static int hash(Map<String, Object> sourceMap) {
+        int hash = sourceMap.size();
+        for (String key : sourceMap.keySet()) {
+            hash = 31 * hash + (key == null ? 0 : key.hashCode());
+        }
+        // 高位参与槽位的选择
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * 数据源的 key 是否与本键结构一致(包括迭代顺序)
+     */
+    private boolean matches(Map<String, Object> sourceMap) {
+        if (sourceMap.size() != keys.length) {
+            return false;
+        }
+        int i = 0;
+        for (String key : sourceMap.keySet()) {
+            String expected = keys[i++];
+            if (expected != key && (expected == null || !expected.equals(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return key 序列的哈希值
+     */
+    int getHash() {
+        return hash;
+    }
+
+    /**
+     * 解析字段要读取的 key
+     * 下标 2i 为字段 map key 本身(数据源中不存在时为 null)，2i+1 为通用处理后匹配到的原始 key(不存在时为 null)
+     *
+     * @param mappings 映射计划的字段映射
+     * @return 字段要读取的 key
+     */
+    String[] resolveBindingKeys(FieldMapping[] mappings) {
+        String[] bindingKeys = new String[mappings.length * 2];
+        for (int i = 0; i < mappings.length; i++) {
+            bindingKeys[2 * i] = presentKey(mappings[i].getMapKey());
+            bindingKeys[2 * i + 1] = originalKey(mappings[i].getNormalizedKey());
+        }
+        return bindingKeys;
+    }
+
+    /**
+     * @param mapKey 字段对应的 map key
+     * @return 数据源中存在该 key 时返回该 key 否则返回 null
+     */
+    String presentKey(String mapKey) {
+        return keySet.contains(mapKey) ? mapKey : null;
+    }
+
+    /**
+     * @param normalizedKey 通用处理后的 key
+     * @return 通用处理后与之相同的原始 key 不存在返回 null
+     */
+    String originalKey(String normalizedKey) {
+        return normalizedKeys.get(normalizedKey);
+    }
+
+    @Override
+    public String get(Object normalizedKey) {
+        return normalizedKeys.get(normalizedKey);
+    }
+
+    @Override
+    public boolean containsKey(Object normalizedKey) {
+        return normalizedKeys.containsKey(normalizedKey);
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return Collections.unmodifiableMap(normalizedKeys).entrySet();
+    }
+}
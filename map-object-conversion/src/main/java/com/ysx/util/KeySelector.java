@@ -0,0 +1,106 @@
+package com.ysx.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 键投影的字段选择器 - 针对 (映射计划, 要转化的键集合) 一次性选出需要处理的字段，未选中的字段不读取也不格式化
+ * 选择器缓存在映射计划上，键集合以内容比较
+ * ysx
+ */
+final class KeySelector {
+
+    /**
+     * 每个映射计划缓存的选择器个数上限 超出后不再缓存 每次重新选择
+     */
+    static final int MAX_CACHED_SELECTORS = 64;
+
+    private final Set<String> keys;
+    /**
+     * 对象转map 时需处理的字段映射 - 键被选中的字段 及所有抓取全部属性的字段(键由运行时类型决定)
+     */
+    private final FieldMapping[] populatedMappings;
+    /**
+     * map 转对象时 与 mappingPlan.getMappings() 对应 是否需要赋值
+     */
+    private final boolean[] boundMappings;
+
+    private KeySelector(MappingPlan mappingPlan, Set<String> keys) {
+        this.keys = keys;
+        FieldMapping[] mappings = mappingPlan.getMappings();
+        List<FieldMapping> populated = new ArrayList<>();
+        this.boundMappings = new boolean[mappings.length];
+        for (int i = 0; i < mappings.length; i++) {
+            FieldMapping mapping = mappings[i];
+            if (mapping.isCatchAll() || keys.contains(mapping.getMapKey())) {
+                populated.add(mapping);
+            }
+            boundMappings[i] = selects(mapping, keys, new HashSet<Class<?>>());
+        }
+        this.populatedMappings = populated.toArray(new FieldMapping[0]);
+    }
+
+    /**
+     * 获取映射计划在键集合下的选择器
+     *
+     * @param mappingPlan 映射计划
+     * @param keys        要转化的键
+     * @return 选择器
+     */
+    static KeySelector of(MappingPlan mappingPlan, Set<String> keys) {
+        KeySelector selector = mappingPlan.getKeySelector(keys);
+        if (selector == null) {
+            // 复制键集合 调用方之后修改集合不影响缓存
+            selector = new KeySelector(mappingPlan, Collections.unmodifiableSet(new HashSet<>(keys)));
+            selector = mappingPlan.putKeySelector(selector.keys, selector);
+        }
+        return selector;
+    }
+
+    /**
+     * map 转对象时 字段是否需要赋值
+     * 普通字段及单属性推断的枚举看字段的 map key，全属性推断的枚举看枚举的任一属性，属性抓取的嵌套对象看其任一字段
+     */
+    private static boolean selects(FieldMapping mapping, Set<String> keys, Set<Class<?>> visiting) {
+        if (!mapping.isNestedTarget() || mapping.getType().isEnum() && mapping.isCatchSingle()) {
+            return keys.contains(mapping.getMapKey());
+        }
+        Class<?> type = mapping.getType();
+        if (type.isEnum()) {
+            for (Object constant : type.getEnumConstants()) {
+                for (FieldMapping enumMapping : ObjectMappingMapUtil.getMappingPlan(constant.getClass(), Enum.class).getMappings()) {
+                    if (keys.contains(enumMapping.getMapKey())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        // 属性抓取循环引用的类型 不再向下查找
+        if (!visiting.add(type)) {
+            return false;
+        }
+        for (FieldMapping nested : ObjectMappingMapUtil.getMappingPlan(type, mapping.getCatchAllStopClass()).getMappings()) {
+            if (selects(nested, keys, visiting)) {
+                return true;
+            }
+        }
+        visiting.remove(type);
+        return false;
+    }
+
+    Set<String> getKeys() {
+        return keys;
+    }
+
+    FieldMapping[] getPopulatedMappings() {
+        return populatedMappings;
+    }
+
+    boolean[] getBoundMappings() {
+        return boundMappings;
+    }
+}
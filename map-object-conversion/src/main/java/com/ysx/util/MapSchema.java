@@ -0,0 +1,83 @@
+package com.ysx.util;
+
+import java.util.Arrays;
+
+/**
+ * 紧凑map 的键结构 - 同一类型转化出的紧凑map 共享一份不可变的键顺序及 键 - 下标 查找表
+ * 查找表为开放寻址的哈希表，查找时不产生装箱对象
+ * ysx
+ */
+final class MapSchema {
+
+    /**
+     * 按填充顺序排列的键 不重复
+     */
+    private final String[] keys;
+    /**
+     * 开放寻址哈希表 存放 键下标 + 1，0 表示空位
+     */
+    private final int[] table;
+    private final int mask;
+
+    MapSchema(String[] keys) {
+        this.keys = keys;
+        int capacity = Integer.highestOneBit(Math.max(keys.length, 1) * 2 - 1) << 1;
+        this.table = new int[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < keys.length; i++) {
+            int slot = hash(keys[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+    }
+
+    /**
+     * 查找键的下标
+     *
+     * @param key 键
+     * @return 键的下标 不存在返回 -1
+     */
+    int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        int slot = hash(key) & mask;
+        int index;
+        while ((index = table[slot]) != 0) {
+            String candidate = keys[index - 1];
+            if (candidate == key || candidate.equals(key)) {
+                return index - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    String keyAt(int index) {
+        return keys[index];
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @param other 另一个键结构
+     * @return 键及顺序是否相同
+     */
+    boolean sameKeys(MapSchema other) {
+        return Arrays.equals(keys, other.keys);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(keys);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ysx.util;
+
+/**
+ * 对象转map 的输出 - 代替结果map 接收键值，基本类型字段按对应的方法写入，不装箱
+ * 由 ObjectMappingMapUtil.objectToSink 按字段顺序调用: int，long，double，boolean 字段分别按 putInt，putLong，putDouble，putBoolean 写入，
+ * 其他字段(包括 byte，short，float，char 及包装类型)按 putObject 写入，值与 objectToMap 的结果相同
+ * ysx
+ */
+public interface MapSink {
+
+    /**
+     * @param key   键
+     * @param value int 字段的值
+     */
+    void putInt(String key, int value);
+
+    /**
+     * @param key   键
+     * @param value long 字段的值
+     */
+    void putLong(String key, long value);
+
+    /**
+     * @param key   键
+     * @param value double 字段的值
+     */
+    void putDouble(String key, double value);
+
+    /**
+     * @param key   键
+     * @param value boolean 字段的值
+     */
+    void putBoolean(String key, boolean value);
+
+    /**
+     * @param key   键
+     * @param value 其他字段的值 规则同 objectToMap
+     */
+    void putObject(String key, Object value);
+}
@@ -0,0 +1,251 @@
+package com.ysx.util;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 类的映射计划 - 针对 (类型, 停止类) 一次性解析出所有字段的映射描述，创建后不可变
+ * 对象转map 和 map转对象 均只需遍历 mappings 数组即可
+ * ysx
+ */
+final class MappingPlan {
+
+    /**
+     * 缓存键结构绑定的槽位个数 2 的幂 按键结构的哈希值分槽 每个哈希值可落在相邻的两个槽位
+     */
+    private static final int LAYOUT_BINDING_SLOTS = 64;
+
+    /**
+     * 计划对应的类型
+     */
+    private final Class<?> type;
+    /**
+     * 停止解析的父类
+     */
+    private final Class<?> stopClass;
+    /**
+     * 需要参与转化的字段映射(已过滤忽略字段)，顺序同字段缓存顺序
+     */
+    private final FieldMapping[] mappings;
+    /**
+     * 字段名 到 字段映射 (包含被过滤的字段)，同名字段取子类的
+     */
+    private final Map<String, FieldMapping> byName;
+    /**
+     * 是否存在抓取全部属性的字段
+     */
+    private final boolean catchAll;
+    /**
+     * 是否存在map 转对象时需构造的嵌套对象(非枚举)
+     */
+    private final boolean nestedObject;
+    /**
+     * 是否存在相同的 map key
+     */
+    private final boolean duplicateKeys;
+    /**
+     * 对象map 视图使用的键索引 首次使用时建立
+     */
+    private volatile BeanMapView.KeyIndex keyIndex;
+    /**
+     * 直接写为 JSON 时预先编码的键 首次使用时建立
+     */
+    private volatile BeanJsonWriter.Layout jsonLayout;
+    /**
+     * 路径键转对象时的前缀树节点 首次使用时建立
+     */
+    private volatile NestedPathMapping.Node pathNode;
+    /**
+     * 最近使用的键结构 及该键结构下每个字段要读取的 key - 只引用字符串 不会延长其他类加载器的生命周期，首次 map 转对象时分配
+     */
+    private volatile AtomicReferenceArray<LayoutBinding> layoutBindings;
+    /**
+     * 要转化的键集合 - 键投影的字段选择器
+     */
+    private final ConcurrentMap<Set<String>, KeySelector> keySelectors = new ConcurrentHashMap<>(4);
+
+    private MappingPlan(Class<?> type, Class<?> stopClass, FieldMapping[] mappings, Map<String, FieldMapping> byName) {
+        this.type = type;
+        this.stopClass = stopClass;
+        this.mappings = mappings;
+        this.byName = byName;
+        boolean hasCatchAll = false;
+        boolean hasNestedObject = false;
+        boolean hasDuplicateKeys = false;
+        Set<String> keys = new HashSet<>(mappings.length * 2);
+        for (FieldMapping mapping : mappings) {
+            hasCatchAll |= mapping.isCatchAll();
+            hasNestedObject |= mapping.isNestedTarget() && !mapping.getType().isEnum();
+            hasDuplicateKeys |= !mapping.isCatchAll() && !keys.add(mapping.getMapKey());
+        }
+        this.catchAll = hasCatchAll;
+        this.nestedObject = hasNestedObject;
+        this.duplicateKeys = hasDuplicateKeys;
+    }
+
+    /**
+     * 解析类的映射计划
+     *
+     * @param type      要解析的类型
+     * @param stopClass 停止解析的父类
+     * @return 映射计划
+     */
+    static MappingPlan build(Class<?> type, Class<?> stopClass) {
+        List<Field> fields = ObjectMappingMapUtil.getAllDeclaredField(type, stopClass);
+        List<FieldMapping> mappingList = new ArrayList<>(fields.size());
+        Map<String, FieldMapping> byName = new HashMap<>(fields.size() * 2);
+        for (Field field : fields) {
+            FieldMapping mapping = new FieldMapping(field, ObjectMappingMapUtil.getMapKey(field));
+            if (!byName.containsKey(mapping.getName())) {
+                byName.put(mapping.getName(), mapping);
+            }
+            // 过滤不需要处理的属性字段
+            if (!ObjectMappingMapUtil.filterField(type, field)) {
+                mappingList.add(mapping);
+            }
+        }
+        return new MappingPlan(type, stopClass, mappingList.toArray(new FieldMapping[0]), Collections.unmodifiableMap(byName));
+    }
+
+    /**
+     * 根据字段名获取字段映射
+     *
+     * @param fieldName 字段名
+     * @return 字段映射 不存在返回 null
+     */
+    FieldMapping getByName(String fieldName) {
+        return fieldName == null ? null : byName.get(fieldName);
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    Class<?> getStopClass() {
+        return stopClass;
+    }
+
+    FieldMapping[] getMappings() {
+        return mappings;
+    }
+
+    /**
+     * @return 是否存在抓取全部属性的字段 不存在时对象转map 不需要遍历嵌套对象
+     */
+    boolean hasCatchAll() {
+        return catchAll;
+    }
+
+    /**
+     * @return 是否存在需构造的嵌套对象 不存在时map 转对象不需要嵌套对象的构造范围
+     */
+    boolean hasNestedObject() {
+        return nestedObject;
+    }
+
+    /**
+     * @return 是否存在相同的 map key 存在时同名键以后填充的为准
+     */
+    boolean hasDuplicateKeys() {
+        return duplicateKeys;
+    }
+
+    /**
+     * 获取数据源键结构下 每个字段要读取的 key 规则见 KeyLayout.resolveBindingKeys
+     *
+     * @param keyLayout 数据源的键结构
+     * @return 字段要读取的 key
+     */
+    String[] getBindingKeys(KeyLayout keyLayout) {
+        AtomicReferenceArray<LayoutBinding> bindings = layoutBindings;
+        if (bindings == null) {
+            // 只用于对象转map 的计划不分配 并发情况下重复分配只丢失缓存
+            bindings = new AtomicReferenceArray<>(LAYOUT_BINDING_SLOTS);
+            layoutBindings = bindings;
+        }
+        int slot = keyLayout.getHash() & (LAYOUT_BINDING_SLOTS - 1);
+        LayoutBinding first = bindings.get(slot);
+        if (first != null && first.keyLayout == keyLayout) {
+            return first.keys;
+        }
+        int neighbor = slot ^ 1;
+        LayoutBinding second = bindings.get(neighbor);
+        if (second != null && second.keyLayout == keyLayout) {
+            return second.keys;
+        }
+        // 绑定不可变 并发情况下重复解析无副作用 空槽位优先 否则原有的移到相邻槽位
+        LayoutBinding binding = new LayoutBinding(keyLayout, keyLayout.resolveBindingKeys(mappings));
+        if (!bindings.compareAndSet(slot, null, binding) && !bindings.compareAndSet(neighbor, null, binding)) {
+            LayoutBinding evicted = bindings.getAndSet(slot, binding);
+            if (evicted != null) {
+                bindings.set(neighbor, evicted);
+            }
+        }
+        return binding.keys;
+    }
+
+    BeanMapView.KeyIndex getKeyIndex() {
+        return keyIndex;
+    }
+
+    void setKeyIndex(BeanMapView.KeyIndex keyIndex) {
+        this.keyIndex = keyIndex;
+    }
+
+    BeanJsonWriter.Layout getJsonLayout() {
+        return jsonLayout;
+    }
+
+    void setJsonLayout(BeanJsonWriter.Layout jsonLayout) {
+        this.jsonLayout = jsonLayout;
+    }
+
+    NestedPathMapping.Node getPathNode() {
+        return pathNode;
+    }
+
+    void setPathNode(NestedPathMapping.Node pathNode) {
+        this.pathNode = pathNode;
+    }
+
+    KeySelector getKeySelector(Set<String> keys) {
+        return keySelectors.get(keys);
+    }
+
+    /**
+     * 缓存键投影的字段选择器 并发情况下以先放入的为准 缓存个数达到上限后不再缓存
+     *
+     * @param keys     要转化的键集合 不可变
+     * @param selector 字段选择器
+     * @return 缓存中的选择器
+     */
+    KeySelector putKeySelector(Set<String> keys, KeySelector selector) {
+        if (keySelectors.size() >= KeySelector.MAX_CACHED_SELECTORS) {
+            return selector;
+        }
+        KeySelector exist = keySelectors.putIfAbsent(keys, selector);
+        return exist != null ? exist : selector;
+    }
+
+    /**
+     * 键结构 - 字段要读取的 key
+     */
+    private static final class LayoutBinding {
+        private final KeyLayout keyLayout;
+        private final String[] keys;
+
+        private LayoutBinding(KeyLayout keyLayout, String[] keys) {
+            this.keyLayout = keyLayout;
+            this.keys = keys;
+        }
+    }
+}
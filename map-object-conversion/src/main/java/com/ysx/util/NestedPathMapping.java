@@ -0,0 +1,308 @@
+package com.ysx.util;
+
+import com.ysx.util.handler.MapIgnoreHandler;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 路径键模式 - 嵌套对象的属性以 "字段键.字段键" 形式的路径为键，不同层级的同名属性不会互相覆盖
+ * 对象转map: 属性抓取(CatchAllProperty)的字段，及值为对象(非基本类型，枚举，JDK 类型)的字段 以字段的键加 . 为前缀展开其属性
+ * map 转对象: 按目标类型预先建立的前缀树 一次遍历map 的键，按路径把值分发到各层对象的数据中，再逐层按 mapToObject 的规则赋值
+ * 属性抓取的字段及嵌套对象的字段 只由带该字段前缀的键构造，没有该前缀的键时不赋值(不从上一层的同名属性取值)
+ * 前缀树节点缓存在映射计划上，嵌套类型的子节点首次经过时建立
+ * ysx
+ */
+final class NestedPathMapping {
+
+    static final char SEPARATOR = '.';
+
+    private NestedPathMapping() {
+    }
+
+    /**
+     * 按路径键填充map
+     *
+     * @param resultMap        要填充的map集合
+     * @param sourceObject     map填充的"数据源" 不为 null
+     * @param stopClass        要停止在对象父类的层级
+     * @param mapIgnoreHandler 自定义属性忽略策略 按完整的路径键判断
+     */
+    static void populate(Map<String, Object> resultMap, Object sourceObject, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler) {
+        populate(resultMap, sourceObject, stopClass, "", new CycleGuard(), mapIgnoreHandler);
+    }
+
+    private static void populate(Map<String, Object> resultMap, Object sourceObject, Class<?> stopClass, String prefix, CycleGuard guard, MapIgnoreHandler mapIgnoreHandler) {
+        Class<?> sourceObjectClass = sourceObject.getClass();
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(sourceObjectClass) || Void.class == stopClass) {
+            stopClass = ObjectMappingMapUtil.getDefaultStopClass(sourceObjectClass);
+        }
+        // 循环引用或超过最大嵌套深度且策略为 STOP 时 不再展开该对象
+        if (!guard.enter(sourceObject, sourceObjectClass)) {
+            return;
+        }
+        try {
+            for (FieldMapping mapping : ObjectMappingMapUtil.getMappingPlan(sourceObjectClass, stopClass).getMappings()) {
+                String key = prefix + mapping.getMapKey();
+                if (mapping.isCatchAll()) {
+                    Object nested = mapping.get(sourceObject);
+                    if (nested != null) {
+                        populate(resultMap, nested, mapping.getCatchAllStopClass(), key + SEPARATOR, guard, mapIgnoreHandler);
+                    }
+                    continue;
+                }
+                Object value = ObjectMappingMapUtil.getMapValue(mapping, sourceObject);
+                if (value != null && isBean(value.getClass())) {
+                    populate(resultMap, value, null, key + SEPARATOR, guard, mapIgnoreHandler);
+                } else if (mapIgnoreHandler == null || !mapIgnoreHandler.ignoreHandler(key, value)) {
+                    resultMap.put(key, value);
+                }
+            }
+        } finally {
+            guard.exit(sourceObject);
+        }
+    }
+
+    /**
+     * 展开属性的对象类型
+     */
+    private static boolean isBean(Class<?> type) {
+        String name = type.getName();
+        return !ObjectMappingMapUtil.isBaseType(type) && !type.isEnum() && !name.startsWith("java.") && !name.startsWith("javax.");
+    }
+
+    /**
+     * 将路径键的map 转为对象
+     *
+     * @param sourceMap   map类型的数据源 不为 null
+     * @param targetClazz 要转化为的对象类型(非枚举)
+     * @param stopClass   停止类 已设置默认值
+     * @return 转化后的对象
+     */
+    static <T> T bind(Map<String, Object> sourceMap, Class<T> targetClazz, Class<?> stopClass) {
+        Frame root = new Frame(Node.of(ObjectMappingMapUtil.getMappingPlan(targetClazz, stopClass)));
+        for (Map.Entry<String, Object> entry : sourceMap.entrySet()) {
+            if (entry.getKey() != null) {
+                route(root, entry.getKey(), entry.getValue());
+            }
+        }
+        return targetClazz.cast(build(root));
+    }
+
+    /**
+     * 沿前缀树把值分发到所属层级 最后一段(或与某个字段的键完全相同的剩余部分)作为该层数据的键
+     * 路径中无法识别的段 该键被忽略
+     */
+    private static void route(Frame frame, String key, Object value) {
+        int start = 0;
+        int depth = 0;
+        while (true) {
+            Node node = frame.node;
+            int dot = key.indexOf(SEPARATOR, start);
+            if (node.plan == null || dot < 0) {
+                // 枚举的属性 或 最后一段
+                frame.leaves.put(start == 0 ? key : key.substring(start), value);
+                return;
+            }
+            if (node.dottedKeys) {
+                String rest = start == 0 ? key : key.substring(start);
+                if (node.byKey.containsKey(rest)) {
+                    frame.leaves.put(rest, value);
+                    return;
+                }
+            }
+            Child child = node.child(key.substring(start, dot));
+            if (child == null || !child.nestable) {
+                return;
+            }
+            if (++depth > ObjectMappingConfig.getMaxNestingDepth()) {
+                CycleGuard.stop(key + " 的嵌套深度超过 " + ObjectMappingConfig.getMaxNestingDepth());
+                return;
+            }
+            frame = frame.child(child);
+            start = dot + 1;
+        }
+    }
+
+    /**
+     * 按该层的数据创建对象 有路径数据的嵌套字段使用下一层构造的对象，没有路径数据的嵌套字段不赋值，其他字段按 mapToObject 的规则从该层数据中取值
+     *
+     * @return 构造的对象 创建失败时为 null
+     */
+    private static Object build(Frame frame) {
+        MappingPlan mappingPlan = frame.node.plan;
+        FieldMapping[] mappings = mappingPlan.getMappings();
+        Object[] nestedValues = null;
+        if (frame.children != null) {
+            nestedValues = new Object[mappings.length];
+            for (int i = 0; i < mappings.length; i++) {
+                Frame child = frame.children[i];
+                if (child != null) {
+                    // 枚举按该层的属性推断
+                    nestedValues[i] = child.node.plan == null ? ObjectMappingMapUtil.matchEnumByProperty(child.leaves, mappings[i]) : build(child);
+                }
+            }
+        }
+        Map<String, Object> leaves = frame.leaves;
+        KeyLayout keyLayout = KeyLayout.of(leaves);
+        Instantiator instantiator = Instantiator.of(mappingPlan.getType());
+        Object target = instantiator.newInstance(leaves, keyLayout, mappingPlan);
+        if (target == null) {
+            return null;
+        }
+        boolean[] boundMappings = instantiator.getBoundMappings(mappingPlan);
+        for (int i = 0; i < mappings.length; i++) {
+            if (boundMappings != null && boundMappings[i]) {
+                continue;
+            }
+            if (nestedValues != null && frame.children[i] != null) {
+                if (nestedValues[i] != null) {
+                    mappings[i].set(target, nestedValues[i]);
+                }
+            } else if (!frame.node.pathOnly[i]) {
+                ObjectMappingMapUtil.bindMapping(leaves, keyLayout, target, mappings[i]);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * 一次转化中某一层对象的数据
+     */
+    private static final class Frame {
+        private final Node node;
+        /**
+         * 该层的 键 - 值
+         */
+        private final Map<String, Object> leaves = new HashMap<>();
+        /**
+         * 与映射计划的字段对应的下一层 首次出现路径时创建
+         */
+        private Frame[] children;
+
+        private Frame(Node node) {
+            this.node = node;
+        }
+
+        private Frame child(Child child) {
+            if (children == null) {
+                children = new Frame[node.plan.getMappings().length];
+            }
+            Frame frame = children[child.index];
+            if (frame == null) {
+                frame = new Frame(child.nested());
+                children[child.index] = frame;
+            }
+            return frame;
+        }
+    }
+
+    /**
+     * 前缀树节点 - 映射计划中各字段的键(及字段名) 到 字段，通用处理(驼峰 _，大小写)后的键同样可匹配
+     */
+    static final class Node {
+        /**
+         * 枚举属性的节点为 null 其下的键均作为枚举的属性
+         */
+        private final MappingPlan plan;
+        private final Map<String, Child> byKey;
+        private final Map<String, Child> byNormalizedKey;
+        /**
+         * 是否有字段的键本身包含分隔符
+         */
+        private final boolean dottedKeys;
+        /**
+         * 只由路径数据赋值的字段 - 属性抓取的字段，及可展开的嵌套对象字段(单属性抓取的字段除外 其属性键在本层)
+         */
+        private final boolean[] pathOnly;
+
+        private static final Node ENUM_PROPERTIES = new Node(null);
+
+        private Node(MappingPlan plan) {
+            this.plan = plan;
+            FieldMapping[] mappings = plan == null ? new FieldMapping[0] : plan.getMappings();
+            this.byKey = new HashMap<>(mappings.length * 2);
+            this.byNormalizedKey = new HashMap<>(mappings.length * 2);
+            this.pathOnly = new boolean[mappings.length];
+            boolean dotted = false;
+            for (int i = 0; i < mappings.length; i++) {
+                Child child = new Child(i, mappings[i]);
+                pathOnly[i] = mappings[i].isCatchAll() || !mappings[i].isCatchSingle() && child.nestable;
+                // 同名键 与 map 相同以后面的字段为准
+                byKey.put(mappings[i].getMapKey(), child);
+                byNormalizedKey.put(mappings[i].getNormalizedKey(), child);
+                dotted |= mappings[i].getMapKey().indexOf(SEPARATOR) >= 0;
+            }
+            // 路径中的段 也可为字段名(如 CatchSingleProperty 字段的键为抓取属性的键)
+            for (Child child : new ArrayList<>(byKey.values())) {
+                String name = child.mapping.getName();
+                if (!byKey.containsKey(name)) {
+                    byKey.put(name, child);
+                    dotted |= name.indexOf(SEPARATOR) >= 0;
+                }
+                String normalizedName = ObjectMappingMapUtil.commonProcess(name);
+                if (!byNormalizedKey.containsKey(normalizedName)) {
+                    byNormalizedKey.put(normalizedName, child);
+                }
+            }
+            this.dottedKeys = dotted;
+        }
+
+        static Node of(MappingPlan mappingPlan) {
+            Node node = mappingPlan.getPathNode();
+            if (node == null) {
+                node = new Node(mappingPlan);
+                mappingPlan.setPathNode(node);
+            }
+            return node;
+        }
+
+        private Child child(String segment) {
+            Child child = byKey.get(segment);
+            return child != null ? child : byNormalizedKey.get(ObjectMappingMapUtil.commonProcess(segment));
+        }
+    }
+
+    /**
+     * 前缀树的边 - 字段及其类型的子节点
+     */
+    private static final class Child {
+        private final int index;
+        private final FieldMapping mapping;
+        /**
+         * 路径能否经过该字段 - 属性抓取的字段(可创建的类型或枚举)，及类型为可创建对象的字段
+         */
+        private final boolean nestable;
+        private volatile Node nested;
+
+        private Child(int index, FieldMapping mapping) {
+            this.index = index;
+            this.mapping = mapping;
+            Class<?> type = mapping.getType();
+            boolean creatable = !type.isInterface() && !Modifier.isAbstract(type.getModifiers());
+            this.nestable = mapping.isCatchAll() ? type.isEnum() || creatable : creatable && !type.isEnum() && isBean(type);
+        }
+
+        private Node nested() {
+            Node node = nested;
+            if (node == null) {
+                Class<?> type = mapping.getType();
+                if (type.isEnum()) {
+                    node = Node.ENUM_PROPERTIES;
+                } else {
+                    Class<?> stopClass = mapping.getCatchAllStopClass();
+                    // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+                    if (stopClass == null || !stopClass.isAssignableFrom(type) || Void.class == stopClass) {
+                        stopClass = ObjectMappingMapUtil.getDefaultStopClass(type);
+                    }
+                    node = Node.of(ObjectMappingMapUtil.getMappingPlan(type, stopClass));
+                }
+                nested = node;
+            }
+            return node;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ysx.util;
+
+import java.util.Map;
+
+/**
+ * map 转对象时属性抓取嵌套对象的构造范围 - 同一数据源的一次转化内
+ * 每个字段各自构造新的嵌套对象；类型再次出现在自身的构造路径上为循环引用，
+ * 与嵌套深度超过 ObjectMappingConfig 中的最大嵌套深度一样 按 CyclePolicy 处理(STOP 时字段为 null)
+ * 范围保存在当前线程上，由最外层的转化打开和关闭，生成的映射器中的嵌套字段同样在范围内
+ * ysx
+ */
+final class NestedTargetScope {
+
+    private static final ThreadLocal<NestedTargetScope> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Object> sourceMap;
+    /**
+     * 外层范围 关闭后恢复
+     */
+    private final NestedTargetScope outer;
+    private final CycleGuard guard = new CycleGuard();
+
+    private NestedTargetScope(Map<String, Object> sourceMap, NestedTargetScope outer) {
+        this.sourceMap = sourceMap;
+        this.outer = outer;
+    }
+
+    /**
+     * 为数据源打开构造范围 当前线程已有该数据源的范围时不做处理
+     *
+     * @param sourceMap 数据源
+     * @param ownerType 最外层对象的类型 视为已在构造路径上 可为 null
+     * @return 新打开的范围 需在 finally 中调用 close，已有范围时返回 null
+     */
+    static NestedTargetScope open(Map<String, Object> sourceMap, Class<?> ownerType) {
+        NestedTargetScope current = CURRENT.get();
+        if (current != null && current.sourceMap == sourceMap) {
+            return null;
+        }
+        NestedTargetScope scope = new NestedTargetScope(sourceMap, current);
+        if (ownerType != null) {
+            scope.guard.enter(ownerType, ownerType);
+        }
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * 关闭 open 返回的范围
+     *
+     * @param scope open 的返回值 为 null 时不做处理
+     */
+    static void close(NestedTargetScope scope) {
+        if (scope == null) {
+            return;
+        }
+        if (scope.outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(scope.outer);
+        }
+    }
+
+    /**
+     * 构造嵌套对象
+     *
+     * @param sourceMap   数据源
+     * @param mappingPlan 嵌套对象的映射计划
+     * @param factory     构造方式
+     * @return 嵌套对象 循环引用或超过最大深度且策略为 STOP 时返回 null
+     */
+    static Object nested(Map<String, Object> sourceMap, MappingPlan mappingPlan, Factory factory) {
+        NestedTargetScope opened = open(sourceMap, null);
+        try {
+            return CURRENT.get().build(mappingPlan, factory);
+        } finally {
+            close(opened);
+        }
+    }
+
+    private Object build(MappingPlan mappingPlan, Factory factory) {
+        Class<?> type = mappingPlan.getType();
+        if (!guard.enter(type, type)) {
+            return null;
+        }
+        try {
+            return factory.create();
+        } finally {
+            guard.exit(type);
+        }
+    }
+
+    /**
+     * 嵌套对象的构造方式
+     */
+    interface Factory {
+        Object create();
+    }
+}
@@ -0,0 +1,38 @@
+package com.ysx.util;
+
+import com.ysx.util.handler.MapIgnoreHandler;
+
+import java.util.Map;
+
+/**
+ * 编译期生成的对象-map 映射器
+ * 由 map-object-conversion-processor 注解处理器为标注了映射注解的类生成，类名为 原类名(内部类以_连接) + CLASS_SUFFIX
+ * ObjectMappingMapUtil 在使用默认停止类转化时 优先使用生成的映射器，不存在时使用反射方式转化
+ * ysx
+ *
+ * @param <T> 映射的对象类型
+ */
+public interface ObjectMapMapper<T> {
+
+    /**
+     * 生成的映射器类名后缀
+     */
+    String CLASS_SUFFIX = "_ObjectMapMapper";
+
+    /**
+     * 根据对象 填充 map 的键值 规则同 ObjectMappingMapUtil.objectToMap
+     *
+     * @param sourceObject     map填充的"数据源"
+     * @param resultMap        要填充的map集合
+     * @param mapIgnoreHandler 自定义属性忽略策略 可为 null
+     */
+    void populateMap(T sourceObject, Map<String, Object> resultMap, MapIgnoreHandler mapIgnoreHandler);
+
+    /**
+     * 将map 转为对象 规则同 ObjectMappingMapUtil.mapToObject
+     *
+     * @param sourceMap map类型的数据源
+     * @return 将map 转化后的对象
+     */
+    T mapToObject(Map<String, Object> sourceMap);
+}
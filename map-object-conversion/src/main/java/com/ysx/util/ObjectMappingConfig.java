@@ -0,0 +1,141 @@
+package com.ysx.util;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 对象和map集合 互转工具的全局配置
+ * 配置在运行期可随时修改 修改后对之后发起的转化生效
+ * ysx
+ */
+public final class ObjectMappingConfig {
+
+    /**
+     * 批量转化默认的并行阈值
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 2048;
+
+    /**
+     * 属性抓取默认的最大嵌套深度
+     */
+    public static final int DEFAULT_MAX_NESTING_DEPTH = 32;
+
+    /**
+     * 属性抓取遇到循环引用或超过最大嵌套深度时的处理方式
+     */
+    public enum CyclePolicy {
+        /**
+         * 不再向下抓取 对象转map 时跳过该对象，map 转对象时该字段为 null
+         */
+        STOP,
+        /**
+         * 抛出 IllegalStateException 说明循环的类型及深度
+         */
+        FAIL
+    }
+
+    /**
+     * 批量转化的并行阈值 - 元素个数达到该值时拆分到 ForkJoinPool 中并行转化 同样用于集合字段的元素转化
+     */
+    private static volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    /**
+     * 批量转化使用的线程池 为 null 时使用 ForkJoinPool.commonPool()
+     */
+    private static volatile ForkJoinPool forkJoinPool;
+    /**
+     * 属性抓取的最大嵌套深度
+     */
+    private static volatile int maxNestingDepth = DEFAULT_MAX_NESTING_DEPTH;
+    /**
+     * 循环引用或超过最大嵌套深度时的处理方式
+     */
+    private static volatile CyclePolicy cyclePolicy = CyclePolicy.STOP;
+
+    private ObjectMappingConfig() {
+    }
+
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * 设置批量转化的并行阈值
+     *
+     * @param threshold 元素个数达到该值时并行转化 Integer.MAX_VALUE 即始终串行
+     */
+    public static void setParallelThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("并行阈值必须大于 0: " + threshold);
+        }
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * @return 批量转化使用的线程池
+     */
+    public static ForkJoinPool getForkJoinPool() {
+        ForkJoinPool pool = forkJoinPool;
+        return pool == null ? ForkJoinPool.commonPool() : pool;
+    }
+
+    /**
+     * 设置批量转化使用的线程池
+     *
+     * @param pool 线程池 传 null 恢复使用 ForkJoinPool.commonPool()
+     */
+    public static void setForkJoinPool(ForkJoinPool pool) {
+        forkJoinPool = pool;
+    }
+
+    public static int getMaxNestingDepth() {
+        return maxNestingDepth;
+    }
+
+    /**
+     * 设置属性抓取(CatchAllProperty，CatchSingleProperty 构造嵌套对象)的最大嵌套深度
+     *
+     * @param depth 最大嵌套深度 超出时按 CyclePolicy 处理
+     */
+    public static void setMaxNestingDepth(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("最大嵌套深度必须大于 0: " + depth);
+        }
+        maxNestingDepth = depth;
+    }
+
+    public static CyclePolicy getCyclePolicy() {
+        return cyclePolicy;
+    }
+
+    /**
+     * 设置属性抓取遇到循环引用或超过最大嵌套深度时的处理方式 默认 STOP
+     *
+     * @param policy 处理方式
+     */
+    public static void setCyclePolicy(CyclePolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("循环引用处理方式不能为 null");
+        }
+        cyclePolicy = policy;
+    }
+
+    public static boolean isMetricsEnabled() {
+        return ConversionMetrics.isEnabled();
+    }
+
+    /**
+     * 开启或关闭监控指标 默认关闭
+     * 开启时将 ObjectMappingMetricsMXBean 注册到平台 MBeanServer(com.ysx.util:type=ObjectMappingMetrics)，关闭时注销，已收集的指标保留
+     *
+     * @param enabled 是否开启
+     */
+    public static void setMetricsEnabled(boolean enabled) {
+        ConversionMetrics.setEnabled(enabled);
+    }
+
+    /**
+     * @return 监控指标 未开启时同样可读取
+     */
+    public static ObjectMappingMetricsMXBean getMetrics() {
+        return ConversionMetrics.getInstance();
+    }
+}
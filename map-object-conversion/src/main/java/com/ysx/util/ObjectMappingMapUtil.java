@@ -0,0 +1,1500 @@
+package com.ysx.util;
+
+
+
+import com.ysx.util.annotation.IgnoreMapMapping;
+import com.ysx.util.annotation.*;
+import com.ysx.util.handler.MapIgnoreHandler;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+import java.util.stream.Stream;
+
+
+
+/**
+ * 对象和map集合 互转工具
+ * 对象转map 对象中请勿出现同名属性 因为map 键唯一 有同名属性请用 MapKeyMapping 做别名映射标记
+ * ysx
+ */
+public class ObjectMappingMapUtil {
+
+    /**
+     * 类不存在生成的映射器的标记
+     */
+    private static final Object NO_MAPPER = new Object();
+
+    private ObjectMappingMapUtil() {
+    }
+
+
+    /**
+     * 对象属性转map
+     *
+     * @param sourceObject 要转化为map的对象
+     * @return 转化后的map
+     */
+    public static Map<String, Object> objectToMap(Object sourceObject) {
+        return  objectToMap(sourceObject,Object.class);
+    }
+
+    /**
+     * 对象属性转map
+     *
+     * @param sourceObject 要转化为map的对象
+     * @param stopClass    要停止在对象父类的层级，不传或传递的非父类则默认Object 即只会转化继承结构中Object类以下的属性
+     * @return 转化后的map
+     */
+    public static Map<String, Object> objectToMap(Object sourceObject, Class<?> stopClass) {
+        HashMap<String, Object> resultMap = new HashMap<>(16);
+        //根据对象内容 填充map属性
+        populateMap(resultMap, sourceObject, stopClass,null);
+        return resultMap;
+    }
+
+
+    /**
+     * 对象属性转map
+     *
+     * @param sourceObject 要转化为map的对象
+     * @param stopClass    要停止在对象父类的层级，不传或传递的非父类则默认Object 即只会转化继承结构中Object类以下的属性
+     * @param mapIgnoreHandler 自定义属性忽略策略
+     * @return 转化后的map
+     */
+    public static Map<String, Object> objectToMap(Object sourceObject, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler) {
+        HashMap<String, Object> resultMap = new HashMap<>(16);
+        //根据对象内容 填充map属性
+        populateMap(resultMap, sourceObject, stopClass,mapIgnoreHandler);
+        return resultMap;
+    }
+
+    /**
+     * 对象属性填充到调用方提供的map 中，不创建结果map，适合复用map 的场景
+     * 已有的键会被覆盖，不会清除map 中原有的其他键，复用前请自行 clear
+     *
+     * @param sourceObject     要转化为map的对象
+     * @param targetMap        要填充的map
+     * @param stopClass        要停止在对象父类的层级，不传或传递的非父类则默认Object 即只会转化继承结构中Object类以下的属性
+     * @param mapIgnoreHandler 自定义属性忽略策略
+     * @return 填充后的 targetMap
+     */
+    public static Map<String, Object> objectToMap(Object sourceObject, Map<String, Object> targetMap, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler) {
+        if (targetMap == null) {
+            return null;
+        }
+        //根据对象内容 填充map属性
+        populateMap(targetMap, sourceObject, stopClass, mapIgnoreHandler);
+        return targetMap;
+    }
+
+    /**
+     * 对象属性写入 MapSink - 不创建结果map，int，long，double，boolean 字段直接从字段读取并按对应的方法写入，不装箱
+     * 其他字段按 putObject 写入，值与 objectToMap 的结果相同；存在抓取全部属性的字段时键由运行时类型决定，先按 objectToMap 填充后逐个按 putObject 写入
+     *
+     * @param sourceObject 要转化的对象
+     * @param sink         输出
+     */
+    public static void objectToSink(Object sourceObject, MapSink sink) {
+        objectToSink(sourceObject, Object.class, null, sink);
+    }
+
+    /**
+     * 对象属性写入 MapSink
+     *
+     * @param sourceObject     要转化的对象
+     * @param stopClass        要停止在对象父类的层级，不传或传递的非父类则默认Object 即只会转化继承结构中Object类以下的属性
+     * @param mapIgnoreHandler 自定义属性忽略策略 基本类型字段按基本类型的重载判断
+     * @param sink             输出
+     */
+    public static void objectToSink(Object sourceObject, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler, MapSink sink) {
+        if (sourceObject == null || sink == null) {
+            return;
+        }
+        Class<?> sourceObjectClass = sourceObject.getClass();
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(sourceObjectClass) || Void.class == stopClass) {
+            stopClass = getDefaultStopClass(sourceObjectClass);
+        }
+        MappingPlan mappingPlan = getMappingPlan(sourceObjectClass, stopClass);
+        long start = ConversionMetrics.startTiming();
+        populateSink(sink, sourceObject, mappingPlan, mapIgnoreHandler);
+        ConversionMetrics.recordObjectToMap(sourceObjectClass, start);
+    }
+
+    /**
+     * 按映射计划 将对象的键值写入 MapSink
+     */
+    private static void populateSink(MapSink sink, Object sourceObject, MappingPlan mappingPlan, MapIgnoreHandler mapIgnoreHandler) {
+        if (mappingPlan.hasCatchAll() || mappingPlan.hasDuplicateKeys()) {
+            // 抓取全部属性的嵌套对象 或存在同名键 同名键以后填充的为准 经map 去重后写入
+            Map<String, Object> resultMap = new HashMap<>(32);
+            populateMapDirect(resultMap, sourceObject, null, mappingPlan, mapIgnoreHandler);
+            for (Map.Entry<String, Object> entry : resultMap.entrySet()) {
+                sink.putObject(entry.getKey(), entry.getValue());
+            }
+            return;
+        }
+        for (FieldMapping mapping : mappingPlan.getMappings()) {
+            if (mapping.hasPrimitiveReader()) {
+                mapping.putPrimitive(sourceObject, sink, mapIgnoreHandler);
+                continue;
+            }
+            String standardKey = mapping.getMapKey();
+            Object standardValue = getMapValue(mapping, sourceObject);
+            // 对用户自定义的忽略策略做处理
+            if (mapIgnoreHandler == null || !mapIgnoreHandler.ignoreHandler(standardKey, standardValue)) {
+                sink.putObject(standardKey, standardValue);
+            }
+        }
+    }
+
+    /**
+     * 对象的部分属性转map - 只转化指定的键，未指定的字段不读取也不做属性抓取，日期格式化
+     * 键集合按内容缓存对应的字段选择器，反复使用同一组键时只在首次选择字段
+     *
+     * @param sourceObject 要转化为map的对象
+     * @param keys         要转化的 map key 为 null 时转化全部
+     * @return 转化后的map 只包含对象中存在的键
+     */
+    public static Map<String, Object> projectToMap(Object sourceObject, Set<String> keys) {
+        return projectToMap(sourceObject, Object.class, keys);
+    }
+
+    /**
+     * 对象的部分属性转map
+     *
+     * @param sourceObject 要转化为map的对象
+     * @param stopClass    要停止在对象父类的层级，不传或传递的非父类则默认Object 即只会转化继承结构中Object类以下的属性
+     * @param keys         要转化的 map key 为 null 时转化全部
+     * @return 转化后的map 只包含对象中存在的键
+     */
+    public static Map<String, Object> projectToMap(Object sourceObject, Class<?> stopClass, Set<String> keys) {
+        if (keys == null) {
+            return objectToMap(sourceObject, stopClass);
+        }
+        HashMap<String, Object> resultMap = new HashMap<>(Math.max(16, (int) (keys.size() / 0.75f) + 1));
+        if (sourceObject == null) {
+            return resultMap;
+        }
+        long start = ConversionMetrics.startTiming();
+        populateProjectedMap(resultMap, sourceObject, stopClass, keys);
+        ConversionMetrics.recordObjectToMap(sourceObject.getClass(), start);
+        return resultMap;
+    }
+
+    /**
+     * 根据对象 只填充指定键的值
+     *
+     * @param resultMap    要填充的map集合
+     * @param sourceObject map填充的"数据源"
+     * @param stopClass    限定 sourceObject 取的继承的属性层级
+     * @param keys         要填充的键
+     */
+    private static void populateProjectedMap(Map<String, Object> resultMap, Object sourceObject, Class<?> stopClass, Set<String> keys) {
+        if (sourceObject == null) {
+            return;
+        }
+        Class<?> sourceObjectClass = sourceObject.getClass();
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(sourceObjectClass) || Void.class == stopClass) {
+            stopClass = getDefaultStopClass(sourceObjectClass);
+        }
+        MappingPlan mappingPlan = getMappingPlan(sourceObjectClass, stopClass);
+        if (mappingPlan.hasCatchAll()) {
+            // 抓取全部属性的字段 其键由运行时类型决定 嵌套对象按同一组键选择
+            CatchAllTraversal.populateProjected(resultMap, sourceObject, mappingPlan, keys);
+            return;
+        }
+        for (FieldMapping mapping : KeySelector.of(mappingPlan, keys).getPopulatedMappings()) {
+            resultMap.put(mapping.getMapKey(), getMapValue(mapping, sourceObject));
+        }
+    }
+
+    /**
+     * 比较两个对象 只返回映射值发生变化的键，值为变化后的映射值
+     * 键，忽略，属性抓取，日期格式化规则与 objectToMap 相同，同类型的对象逐字段比较一次，不生成两份完整的map
+     *
+     * @param before 变化前的对象
+     * @param after  变化后的对象 为 null 时 变化前的所有键值为 null
+     * @return 发生变化的键值
+     */
+    public static Map<String, Object> diffToMap(Object before, Object after) {
+        return diffToMap(before, after, Object.class, null);
+    }
+
+    /**
+     * 比较两个对象 只返回映射值发生变化的键
+     *
+     * @param before           变化前的对象
+     * @param after            变化后的对象
+     * @param stopClass        要停止在对象父类的层级，不传或传递的非父类则默认Object 即只会转化继承结构中Object类以下的属性
+     * @param mapIgnoreHandler 自定义属性忽略策略 按变化后的键值判断
+     * @return 发生变化的键值
+     */
+    public static Map<String, Object> diffToMap(Object before, Object after, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler) {
+        HashMap<String, Object> diffMap = new HashMap<>(16);
+        BeanDiff.diff(diffMap, before, after, stopClass, mapIgnoreHandler);
+        return diffMap;
+    }
+
+    /**
+     * 对象属性转路径键的map - 嵌套对象的属性以 "字段键.字段键" 为键，如 school.address.xian，不同层级的同名属性不会互相覆盖
+     * 属性抓取(CatchAllProperty)的字段 及值为对象(非基本类型，枚举，JDK 类型)的字段按路径展开，其他规则与 objectToMap 相同
+     *
+     * @param sourceObject 要转化为map的对象
+     * @return 路径键的map
+     */
+    public static Map<String, Object> objectToPathMap(Object sourceObject) {
+        return objectToPathMap(sourceObject, Object.class, null);
+    }
+
+    /**
+     * 对象属性转路径键的map
+     *
+     * @param sourceObject     要转化为map的对象
+     * @param stopClass        要停止在最外层对象父类的层级，不传或传递的非父类则默认Object
+     * @param mapIgnoreHandler 自定义属性忽略策略 按完整的路径键判断
+     * @return 路径键的map
+     */
+    public static Map<String, Object> objectToPathMap(Object sourceObject, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler) {
+        HashMap<String, Object> resultMap = new HashMap<>(32);
+        if (sourceObject == null) {
+            return resultMap;
+        }
+        long start = ConversionMetrics.startTiming();
+        NestedPathMapping.populate(resultMap, sourceObject, stopClass, mapIgnoreHandler);
+        ConversionMetrics.recordObjectToMap(sourceObject.getClass(), start);
+        return resultMap;
+    }
+
+    /**
+     * 将对象直接转为 JSON 字符串 键值与 objectToMap 的结果相同，不生成中间map
+     *
+     * @param sourceObject 要转化的对象
+     * @return JSON 字符串
+     */
+    public static String toJson(Object sourceObject) {
+        StringWriter writer = new StringWriter(256);
+        try {
+            writeJson(sourceObject, Object.class, null, writer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * 将对象直接写为 JSON 键值与 objectToMap 的结果相同，不生成中间map
+     *
+     * @param sourceObject 要写出的对象
+     * @param writer       输出 写完后刷新，不关闭
+     * @throws IOException 写出失败
+     */
+    public static void writeJson(Object sourceObject, Writer writer) throws IOException {
+        writeJson(sourceObject, Object.class, null, writer);
+    }
+
+    /**
+     * 将对象以 UTF-8 编码直接写为 JSON 键值与 objectToMap 的结果相同，不生成中间map
+     *
+     * @param sourceObject 要写出的对象
+     * @param outputStream 输出 写完后刷新，不关闭
+     * @throws IOException 写出失败
+     */
+    public static void writeJson(Object sourceObject, OutputStream outputStream) throws IOException {
+        writeJson(sourceObject, Object.class, null, outputStream);
+    }
+
+    /**
+     * 将对象直接写为 JSON
+     * 按映射计划逐字段写出，字段的键预先编码，规则(键，忽略，属性抓取，日期格式化，自定义忽略策略)与 objectToMap 相同
+     * 对象为 map，集合，数组时写为 JSON 对象或数组，其中的对象同样按 objectToMap 的规则写出
+     *
+     * @param sourceObject     要写出的对象
+     * @param stopClass        要停止在对象父类的层级，不传或传递的非父类则默认Object 即只会转化继承结构中Object类以下的属性
+     * @param mapIgnoreHandler 自定义属性忽略策略 作用于最外层对象(含属性抓取的字段)
+     * @param writer           输出 写完后刷新，不关闭
+     * @throws IOException 写出失败
+     */
+    public static void writeJson(Object sourceObject, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler, Writer writer) throws IOException {
+        BeanJsonWriter.write(sourceObject, stopClass, mapIgnoreHandler, JsonOutput.of(writer));
+    }
+
+    /**
+     * 将对象以 UTF-8 编码直接写为 JSON 规则同 writeJson(Object, Class, MapIgnoreHandler, Writer)
+     *
+     * @param sourceObject     要写出的对象
+     * @param stopClass        要停止在对象父类的层级
+     * @param mapIgnoreHandler 自定义属性忽略策略 作用于最外层对象(含属性抓取的字段)
+     * @param outputStream     输出 写完后刷新，不关闭
+     * @throws IOException 写出失败
+     */
+    public static void writeJson(Object sourceObject, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler, OutputStream outputStream) throws IOException {
+        BeanJsonWriter.write(sourceObject, stopClass, mapIgnoreHandler, JsonOutput.of(outputStream));
+    }
+
+    /**
+     * 获取对象的只读map 视图
+     * 视图不复制字段值，按键读取时才按映射规则(属性抓取，日期格式化)计算对应的值，适合只读取少量键的场景
+     * 遍历视图时按 objectToMap 的规则临时生成全部内容，对象字段的修改会反映到视图中
+     *
+     * @param sourceObject 视图对应的对象
+     * @return 对象的map 视图
+     */
+    public static Map<String, Object> asMap(Object sourceObject) {
+        return asMap(sourceObject, Object.class, false);
+    }
+
+    /**
+     * 获取对象的map 视图
+     *
+     * @param sourceObject 视图对应的对象
+     * @param stopClass    要停止在对象父类的层级，不传或传递的非父类则默认Object 即只会转化继承结构中Object类以下的属性
+     * @param writable     是否可写 可写时 put 已有的键会写回对象字段(日期字符串按 DateMapping 解析)，不支持抓取单个属性的键，不支持新增或删除键
+     * @return 对象的map 视图
+     */
+    public static Map<String, Object> asMap(Object sourceObject, Class<?> stopClass, boolean writable) {
+        if (sourceObject == null) {
+            return Collections.emptyMap();
+        }
+        Class<?> sourceObjectClass = sourceObject.getClass();
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(sourceObjectClass) || Void.class == stopClass) {
+            stopClass = getDefaultStopClass(sourceObjectClass);
+        }
+        return new BeanMapView(sourceObject, getMappingPlan(sourceObjectClass, stopClass), writable);
+    }
+
+    /**
+     * 对象属性转紧凑map
+     * 同一类型转化出的紧凑map 共享一份键结构，每个map 只保存值数组，适合大量同类型结果常驻内存的场景
+     * 转化结果与 objectToMap 相同，迭代顺序为字段顺序，可修改已有键的值，不支持新增或删除键
+     *
+     * @param sourceObject 要转化为map的对象
+     * @return 转化后的紧凑map
+     */
+    public static Map<String, Object> objectToCompactMap(Object sourceObject) {
+        return objectToCompactMap(sourceObject, Object.class, null);
+    }
+
+    /**
+     * 对象属性转紧凑map
+     *
+     * @param sourceObject     要转化为map的对象
+     * @param stopClass        要停止在对象父类的层级，不传或传递的非父类则默认Object 即只会转化继承结构中Object类以下的属性
+     * @param mapIgnoreHandler 自定义属性忽略策略
+     * @return 转化后的紧凑map
+     */
+    public static Map<String, Object> objectToCompactMap(Object sourceObject, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler) {
+        if (sourceObject == null) {
+            return new CompactMapBuilder(null).build();
+        }
+        Class<?> sourceObjectClass = sourceObject.getClass();
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(sourceObjectClass) || Void.class == stopClass) {
+            stopClass = getDefaultStopClass(sourceObjectClass);
+        }
+        ClassMetadata metadata = ClassMetadata.of(sourceObjectClass);
+        CompactMapBuilder builder = new CompactMapBuilder(metadata.getCompactSchemas(stopClass));
+        ObjectMapMapper<Object> mapper = getGeneratedMapper(sourceObjectClass, stopClass);
+        populateMap(builder, sourceObject, mapper, mapper == null ? getMappingPlan(sourceObjectClass, stopClass) : null, mapIgnoreHandler);
+        CompactMap compactMap = builder.build();
+        if (!builder.matchesExpected()) {
+            // 新的键结构(首次转化 或 忽略策略，属性抓取的运行时类型不同) 与已有的几种一起作为之后转化的候选
+            metadata.addCompactSchema(stopClass, compactMap.getSchema());
+        }
+        return compactMap;
+    }
+
+    /**
+     * 批量将对象属性转map
+     * 映射器与映射计划在批次内只解析一次，元素个数达到 ObjectMappingConfig 中的并行阈值时拆分到 ForkJoinPool 并行转化
+     *
+     * @param sourceObjects    要转化为map的对象集合 元素为 null 时对应空map
+     * @param stopClass        要停止在对象父类的层级，不传或传递的非父类则默认Object 即只会转化继承结构中Object类以下的属性
+     * @param mapIgnoreHandler 自定义属性忽略策略 并行转化时会被多线程同时调用 需线程安全
+     * @return 转化后的map集合 顺序与输入一致
+     */
+    public static List<Map<String, Object>> objectsToMaps(Collection<?> sourceObjects, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler) {
+        if (sourceObjects == null) {
+            return null;
+        }
+        return BatchConversion.objectsToMaps(sourceObjects.toArray(), stopClass, mapIgnoreHandler);
+    }
+
+    /**
+     * 批量将对象属性转map
+     *
+     * @param sourceObjects 要转化为map的对象集合
+     * @return 转化后的map集合 顺序与输入一致
+     */
+    public static List<Map<String, Object>> objectsToMaps(Collection<?> sourceObjects) {
+        return objectsToMaps(sourceObjects, Object.class, null);
+    }
+
+    /**
+     * 惰性将对象属性转map 取出元素时才转化，不保存已转化的结果，映射信息在元素间复用
+     *
+     * @param sourceObjects    要转化为map的对象迭代器 元素为 null 时对应空map
+     * @param stopClass        要停止在对象父类的层级，不传或传递的非父类则默认Object 即只会转化继承结构中Object类以下的属性
+     * @param mapIgnoreHandler 自定义属性忽略策略
+     * @return 转化后的map迭代器
+     */
+    public static Iterator<Map<String, Object>> objectsToMaps(Iterator<?> sourceObjects, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler) {
+        if (sourceObjects == null) {
+            return null;
+        }
+        return StreamingConversion.iterator(sourceObjects, StreamingConversion.objectToMapFunction(stopClass, mapIgnoreHandler));
+    }
+
+    /**
+     * 惰性将对象属性转map 转化在流的终止操作中逐个进行，并行流按数据源的拆分方式并行转化
+     *
+     * @param sourceObjects    要转化为map的对象流 元素为 null 时对应空map
+     * @param stopClass        要停止在对象父类的层级，不传或传递的非父类则默认Object 即只会转化继承结构中Object类以下的属性
+     * @param mapIgnoreHandler 自定义属性忽略策略 并行流中需线程安全
+     * @return 转化后的map流
+     */
+    public static Stream<Map<String, Object>> objectsToMaps(Stream<?> sourceObjects, Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler) {
+        if (sourceObjects == null) {
+            return null;
+        }
+        return sourceObjects.map(StreamingConversion.objectToMapFunction(stopClass, mapIgnoreHandler));
+    }
+
+    /**
+     * 根据对象 填充 map 的键值
+     *
+     * @param resultMap    要填充的map集合
+     * @param sourceObject map填充的"数据源"
+     * @param stopClass    限定 sourceObject 取的继承的属性层级
+     */
+    private static void populateMap(Map<String, Object> resultMap, Object sourceObject, Class<?> stopClass,MapIgnoreHandler mapIgnoreHandler) {
+        if (sourceObject == null) {
+            return;
+        }
+        Class<?> sourceObjectClass = sourceObject.getClass();
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(sourceObjectClass) || Void.class == stopClass) {
+            stopClass = getDefaultStopClass(sourceObjectClass);
+        }
+        // 默认停止类时 优先使用编译期生成的映射器
+        ObjectMapMapper<Object> mapper = getGeneratedMapper(sourceObjectClass, stopClass);
+        populateMap(resultMap, sourceObject, mapper, mapper == null ? getMappingPlan(sourceObjectClass, stopClass) : null, mapIgnoreHandler);
+    }
+
+    /**
+     * 根据对象 使用已解析好的映射器或映射计划 填充 map 的键值
+     *
+     * @param resultMap        要填充的map集合
+     * @param sourceObject     map填充的"数据源" 不为 null
+     * @param mapper           生成的映射器 存在时优先使用
+     * @param mappingPlan      映射计划 映射器不存在时使用
+     * @param mapIgnoreHandler 自定义属性忽略策略
+     */
+    static void populateMap(Map<String, Object> resultMap, Object sourceObject, ObjectMapMapper<Object> mapper, MappingPlan mappingPlan, MapIgnoreHandler mapIgnoreHandler) {
+        long start = ConversionMetrics.startTiming();
+        populateMapDirect(resultMap, sourceObject, mapper, mappingPlan, mapIgnoreHandler);
+        ConversionMetrics.recordObjectToMap(sourceObject.getClass(), start);
+    }
+
+    /**
+     * 填充 map 的键值 不记录监控指标
+     */
+    static void populateMapDirect(Map<String, Object> resultMap, Object sourceObject, ObjectMapMapper<Object> mapper, MappingPlan mappingPlan, MapIgnoreHandler mapIgnoreHandler) {
+        if (mapper != null) {
+            mapper.populateMap(sourceObject, resultMap, mapIgnoreHandler);
+            return;
+        }
+        if (mappingPlan.hasCatchAll()) {
+            // 抓取全部属性的嵌套对象 使用工作栈遍历 防止循环引用
+            CatchAllTraversal.populate(resultMap, sourceObject, mappingPlan, mapIgnoreHandler);
+            return;
+        }
+        for (FieldMapping mapping : mappingPlan.getMappings()) {
+            populateMapping(resultMap, sourceObject, mapping, mapIgnoreHandler);
+        }
+    }
+
+    /**
+     * 根据对象的单个字段 填充 map 的键值
+     *
+     * @param resultMap        要填充的map集合
+     * @param sourceObject     map填充的"数据源"
+     * @param mapping          字段映射
+     * @param mapIgnoreHandler 自定义属性忽略策略
+     */
+    static void populateMapping(Map<String, Object> resultMap, Object sourceObject, FieldMapping mapping, MapIgnoreHandler mapIgnoreHandler) {
+        //是否需要捕捉对象全部属性填充到map中
+        if (mapping.isCatchAll()) {
+            // 将字段对应的对象值填充到map集合中 嵌套对象使用工作栈遍历
+            CatchAllTraversal.populateCatchAll(resultMap, sourceObject, mapping, mapIgnoreHandler);
+        } else {
+            String standardKey = mapping.getMapKey();
+            Object standardValue =  getMapValue(mapping, sourceObject);
+            // 对用户自定义的忽略策略做处理
+            if(mapIgnoreHandler==null||!mapIgnoreHandler.ignoreHandler(standardKey,standardValue)){
+                resultMap.put(standardKey,standardValue);
+            }
+        }
+    }
+
+    /**
+     * 获取默认的属性停止解析类
+     *
+     * @param sourceObjectClass 数据源类型
+     * @return 传入类型默认的属性停止解析类
+     */
+    static Class getDefaultStopClass(Class<?> sourceObjectClass) {
+        if (sourceObjectClass.isEnum()) {
+            return Enum.class;
+        }
+        return Object.class;
+    }
+
+    /**
+     * 根据一些规则过滤不需加入到map中的字段
+     *
+     * @param sourceObjectClass 字段来源类
+     * @param field             是否需要过滤的字段
+     * @return true 表示需要过滤该字段
+     */
+    static boolean filterField(Class<?> sourceObjectClass, Field field) {
+        //添加了忽略注解，属性忽略转为map
+        IgnoreMapMapping ignoreAnnotation = field.getAnnotation(IgnoreMapMapping.class);
+        if (ignoreAnnotation != null && ignoreAnnotation.value()) {
+            return true;
+        }
+        //如果字段来源于枚举类，字段本身对应类型也是枚举或者字段名包含$VALUES(该字段是编辑器编译枚举类自动生成) 过滤掉
+        return sourceObjectClass.isEnum() && (field.getType().isEnum() || field.getName().contains("$VALUES"));
+    }
+
+    /**
+     * 获取map映射的属性对应的值
+     *
+     * @param mapping      字段映射
+     * @param sourceObject 保存值的对象
+     * @return 获取map映射的属性对应的值
+     */
+    static Object getMapValue(FieldMapping mapping, Object sourceObject) {
+        Object mapValue = mapping.get(sourceObject);
+        // 检查 该字段映射的值 是否是字段本身对应的值
+        if (mapValue != null && mapping.getSingleProperty() != null && !isBaseType(mapValue.getClass())) {
+            // 根据字段名称获取，和所属类的类型获取 字段映射
+            FieldMapping valueMapping = mapping.getSingleTarget(mapValue.getClass());
+            // 递归调用 - 该字段可能仍然不是希望获取的值(该字段可能仍然标记有 CatchProperty注解)
+            if (valueMapping != null) {
+                mapValue = getMapValue(valueMapping, mapValue);
+            }
+        }
+        // 元素为对象的集合，数组，map 元素转为map
+        if (mapping.getContainerCodec() != null && mapValue != null) {
+            return mapping.getContainerCodec().toMapValue(mapValue, sourceObject);
+        }
+        // 检查属性是否是日期类型,是否需要做日期格式化
+        if(mapping.getDateCodec()!=null&&mapValue!=null&&DateCodec.isSupportedType(mapValue.getClass())){
+            mapValue = mapping.getDateCodec().format(mapValue);
+        }
+        return mapValue;
+    }
+
+    /**
+     * 判断类型是否是不可拆分的几种常见基本类型(不常见的未包含其中)
+     * 包含: 基本类型，基本类型包装类型,容器类型(集合，数组)，String,Date类型，java.time 日期时间类型
+     * 容器类型本身不拆分 元素为对象时由 ContainerCodec 逐个转化
+     *
+     * @param clazz 要判断的类型
+     * @return 不是以上几种基本类型
+     */
+    static boolean isBaseType(Class<?> clazz) {
+        return clazz.isPrimitive() || isBaseReferenceType(clazz) || isContainerType(clazz) || String.class.isAssignableFrom(clazz) || Date.class.isAssignableFrom(clazz) || TemporalAccessor.class.isAssignableFrom(clazz);
+    }
+
+
+    /**
+     * 判断class是否基本引用类型
+     *
+     * @param clazz 要判断的class对象
+     * @return 是否基本引用类型
+     */
+    private static boolean isBaseReferenceType(Class clazz) {
+        return Number.class.isAssignableFrom(clazz) || Boolean.class.isAssignableFrom(clazz) || Character.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * 判断class是否容器类型 集合 数组
+     *
+     * @param clazz 要判断的class对象
+     * @return 判断class是否容器类型
+     */
+    private static boolean isContainerType(Class clazz) {
+        return Map.class.isAssignableFrom(clazz) || Collection.class.isAssignableFrom(clazz) || clazz.isArray();
+    }
+
+
+    /**
+     * 根据字段名到指定类中获取Field 字段对象
+     *
+     * @param aClass    指定类
+     * @param fieldName 类中的字段名
+     * @param stopClass 规定类层级查找上限
+     * @return 指定类中指定字段的Field对象
+     */
+    private static Field getClassFieldByName(Class<?> aClass, String fieldName, Class<?> stopClass) {
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(aClass) || Void.class == stopClass) {
+            stopClass = getDefaultStopClass(aClass);
+        }
+        List<Field> fields = getAllDeclaredField(aClass, stopClass);
+        for (Field field : fields) {
+            if (Objects.equals(fieldName, field.getName())) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * 根据属性字段 获取map中的key
+     *
+     * @param field 转化为map的字段
+     * @return 该属性要转化为map的key值
+     */
+    static String getMapKey(Field field) {
+        // 查看 该字段是否映射到其他字段
+        Field mapKeyMappingField = getMapKeyMappingField(field);
+
+        // 检查 是否设置了别名
+        MapKeyMapping annotation = mapKeyMappingField.getAnnotation(MapKeyMapping.class);
+        //获取map key 默认为属性名
+        String key = mapKeyMappingField.getName();
+        if (annotation != null && !"".equals(annotation.value())) {
+            key = annotation.value();
+        }
+        return key;
+    }
+
+    /**
+     * 检查给定字段是否映射到其他字段 -- 即字段上 CatchSingleProperty 注解 映射的其他字段
+     *
+     * @param field 给定的字段
+     * @return 给定字段映射到的其他字段 不存在 返回原始字段
+     */
+    private static Field getMapKeyMappingField(Field field) {
+        // 检查 该字段映射的值 是否是字段本身对应的值
+        CatchSingleProperty annotation = field.getAnnotation(CatchSingleProperty.class);
+        if (annotation != null && !"".equals(annotation.value()) && !isBaseType(field.getType())) {
+            // 根据字段名称获取，和所属类的类型获取 Field 对象
+            Field valueField = getClassFieldByName(field.getType(), annotation.value(), null);
+            // 递归调用 - 该字段可能仍然不是希望获取的值(该字段可能仍然标记有 CatchProperty注解)
+            if (valueField != null) {
+                valueField.setAccessible(true);
+                return getMapKeyMappingField(valueField);
+            }
+        }
+        return field;
+    }
+
+    /**
+     * 递归获取指定类的所有成员变量，允许设置停止递归的父类
+     *
+     * @param clazz          要获取所有字段的类
+     * @param stopSuperClass 类的停止父类，即获取到该父类后，不在向上获取,默认Object
+     * @return 指定类的所有成员变量
+     */
+    static List<Field> getAllDeclaredField(Class clazz, Class stopSuperClass) {
+        Class tmpClazz;
+        if (clazz != null) {
+            tmpClazz = clazz;
+        } else {
+            return new ArrayList<>();
+        }
+        //到类的元数据缓存中查找对应的字段信息 无锁读取
+        ClassMetadata metadata = ClassMetadata.of(clazz);
+        List<Field> fieldList = metadata.getFields(stopSuperClass);
+        if (fieldList != null) {
+            ConversionMetrics.recordFieldCacheHit();
+            return fieldList;
+        }
+        // 字段列表只读 并发情况下重复获取无副作用 以先放入缓存的为准
+        fieldList = new ArrayList<>();
+        while (tmpClazz != null && tmpClazz != stopSuperClass) {
+            fieldList.addAll(Arrays.asList(tmpClazz.getDeclaredFields()));
+            //得到父类,然后赋给自己
+            tmpClazz = tmpClazz.getSuperclass();
+        }
+        fieldList = Collections.unmodifiableList(fieldList);
+        List<Field> cached = metadata.putFields(stopSuperClass, fieldList);
+        ConversionMetrics.recordFieldCacheMiss(cached == fieldList);
+        return cached;
+    }
+
+    /**
+     * 获取类的映射计划，不存在则解析并缓存
+     *
+     * @param clazz     要获取映射计划的类
+     * @param stopClass 类的停止父类，传 null 或非父类时使用默认停止类
+     * @return 类的映射计划
+     */
+    static MappingPlan getMappingPlan(Class<?> clazz, Class<?> stopClass) {
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(clazz) || Void.class == stopClass) {
+            stopClass = getDefaultStopClass(clazz);
+        }
+        ClassMetadata metadata = ClassMetadata.of(clazz);
+        MappingPlan mappingPlan = metadata.getPlan(stopClass);
+        if (mappingPlan != null) {
+            ConversionMetrics.recordPlanCacheHit();
+            return mappingPlan;
+        }
+        // 映射计划不可变 并发情况下重复解析无副作用
+        mappingPlan = MappingPlan.build(clazz, stopClass);
+        MappingPlan cached = metadata.putPlan(stopClass, mappingPlan);
+        ConversionMetrics.recordPlanCacheMiss(cached == mappingPlan);
+        return cached;
+    }
+
+    /**
+     * 获取类对应的编译期生成的映射器 生成的映射器只对应默认停止类的转化
+     *
+     * @param clazz     要获取映射器的类
+     * @param stopClass 类的停止父类(已处理默认值)
+     * @return 生成的映射器 不存在或非默认停止类返回 null
+     */
+    static ObjectMapMapper<Object> getGeneratedMapper(Class<?> clazz, Class<?> stopClass) {
+        if (stopClass != getDefaultStopClass(clazz)) {
+            return null;
+        }
+        ClassMetadata metadata = ClassMetadata.of(clazz);
+        Object mapper = metadata.getGeneratedMapper();
+        if (mapper == null) {
+            mapper = loadGeneratedMapper(clazz);
+            metadata.setGeneratedMapper(mapper);
+        }
+        return mapper == NO_MAPPER ? null : castMapper(mapper);
+    }
+
+    /**
+     * 生成的映射器只对应其映射的类 调用方只传入该类的对象
+     */
+    @SuppressWarnings("unchecked")
+    private static ObjectMapMapper<Object> castMapper(Object mapper) {
+        return (ObjectMapMapper<Object>) mapper;
+    }
+
+    /**
+     * 按命名规则加载类对应的生成映射器
+     *
+     * @param clazz 要获取映射器的类
+     * @return 生成的映射器 不存在返回 NO_MAPPER
+     */
+    private static Object loadGeneratedMapper(Class<?> clazz) {
+        if (clazz.isEnum() || clazz.isAnonymousClass() || clazz.isLocalClass() || clazz.isArray() || clazz.isPrimitive()) {
+            return NO_MAPPER;
+        }
+        String className = clazz.getName();
+        int packageEnd = className.lastIndexOf('.');
+        String mapperName = className.substring(0, packageEnd + 1) + className.substring(packageEnd + 1).replace('$', '_') + ObjectMapMapper.CLASS_SUFFIX;
+        try {
+            Class<?> mapperClass = Class.forName(mapperName, true, clazz.getClassLoader());
+            if (ObjectMapMapper.class.isAssignableFrom(mapperClass)) {
+                return mapperClass.getDeclaredConstructor().newInstance();
+            }
+        } catch (ClassNotFoundException e) {
+            // 没有生成映射器 使用反射方式转化
+        } catch (ReflectiveOperationException | LinkageError e) {
+            e.printStackTrace();
+        }
+        return NO_MAPPER;
+    }
+
+    //-----------------------------------------------反向解析-----------------------------------
+
+    /**
+     * 将map 转为对象
+     * --对于map转为枚举对象 自动推断转化
+     *
+     * @param sourceMap   map类型的数据源
+     * @param targetClazz 要转化为的对象类型
+     * @param <T>         要转化为的对象泛型
+     * @return 将map 转化后的对象
+     */
+    public static <T> T mapToObject(Map<String, Object> sourceMap, Class<T> targetClazz, Class<?> stopClass) {
+        if (targetClazz == null || sourceMap == null) {
+            return null;
+        }
+        // 枚举类型特殊处理
+        if (Enum.class.isAssignableFrom(targetClazz)) {
+            return mapToEnum(sourceMap, targetClazz);
+        }
+
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(targetClazz) || Void.class == stopClass) {
+            stopClass = getDefaultStopClass(targetClazz);
+        }
+
+        // 默认停止类时 优先使用编译期生成的映射器
+        ObjectMapMapper<Object> mapper = getGeneratedMapper(targetClazz, stopClass);
+        return mapToObject(sourceMap, targetClazz, mapper, mapper == null ? getMappingPlan(targetClazz, stopClass) : null);
+    }
+
+    /**
+     * 将map 中指定的键转为对象 - 未指定键的字段不赋值(保持创建后的值)，通过构造参数创建时参数仍按全部键取值
+     * 属性抓取的嵌套对象 只在其任一字段的键被指定时创建
+     *
+     * @param sourceMap   map类型的数据源
+     * @param targetClazz 要转化为的对象类型
+     * @param keys        要转化的 map key 为 null 时转化全部
+     * @param <T>         要转化为的对象泛型
+     * @return 将map 转化后的对象
+     */
+    public static <T> T projectToObject(Map<String, Object> sourceMap, Class<T> targetClazz, Set<String> keys) {
+        return projectToObject(sourceMap, targetClazz, null, keys);
+    }
+
+    /**
+     * 将map 中指定的键转为对象
+     *
+     * @param sourceMap   map类型的数据源
+     * @param targetClazz 要转化为的对象类型
+     * @param stopClass   要停止在对象父类的层级
+     * @param keys        要转化的 map key 为 null 时转化全部
+     * @param <T>         要转化为的对象泛型
+     * @return 将map 转化后的对象
+     */
+    public static <T> T projectToObject(Map<String, Object> sourceMap, Class<T> targetClazz, Class<?> stopClass, Set<String> keys) {
+        if (keys == null || targetClazz == null || sourceMap == null || Enum.class.isAssignableFrom(targetClazz)) {
+            return mapToObject(sourceMap, targetClazz, stopClass);
+        }
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(targetClazz) || Void.class == stopClass) {
+            stopClass = getDefaultStopClass(targetClazz);
+        }
+        MappingPlan mappingPlan = getMappingPlan(targetClazz, stopClass);
+        long start = ConversionMetrics.startTiming();
+        T t = projectToObject(sourceMap, KeyLayout.of(sourceMap), targetClazz, mappingPlan, keys, null);
+        ConversionMetrics.recordMapToObject(targetClazz, start);
+        return t;
+    }
+
+    /**
+     * 将路径键的map 转为对象 - objectToPathMap 的逆过程，也可用于扁平的配置 map
+     * 按目标类型预先建立的前缀树 一次遍历map 的键，把值分发到各层嵌套对象，无法识别的路径被忽略；
+     * 每层对象的字段按 mapToObject 的规则取值(驼峰 _，大小写兼容，日期，类型转换，枚举推断)
+     *
+     * @param sourceMap   路径键的map
+     * @param targetClazz 要转化为的对象类型
+     * @param <T>         要转化为的对象泛型
+     * @return 将map 转化后的对象
+     */
+    public static <T> T pathMapToObject(Map<String, Object> sourceMap, Class<T> targetClazz) {
+        return pathMapToObject(sourceMap, targetClazz, null);
+    }
+
+    /**
+     * 将路径键的map 转为对象
+     *
+     * @param sourceMap   路径键的map
+     * @param targetClazz 要转化为的对象类型
+     * @param stopClass   要停止在最外层对象父类的层级
+     * @param <T>         要转化为的对象泛型
+     * @return 将map 转化后的对象
+     */
+    public static <T> T pathMapToObject(Map<String, Object> sourceMap, Class<T> targetClazz, Class<?> stopClass) {
+        if (targetClazz == null || sourceMap == null || Enum.class.isAssignableFrom(targetClazz)) {
+            return mapToObject(sourceMap, targetClazz, stopClass);
+        }
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(targetClazz) || Void.class == stopClass) {
+            stopClass = getDefaultStopClass(targetClazz);
+        }
+        long start = ConversionMetrics.startTiming();
+        T t = NestedPathMapping.bind(sourceMap, targetClazz, stopClass);
+        ConversionMetrics.recordMapToObject(targetClazz, start);
+        return t;
+    }
+
+    /**
+     * 按数据源的键结构 只绑定选中的字段将map 转为对象(非枚举)
+     *
+     * @param sourceMap   map类型的数据源
+     * @param keyLayout   数据源的键结构
+     * @param targetClazz 要转化为的对象类型
+     * @param mappingPlan 映射计划
+     * @param keys        要转化的键
+     * @param guard       嵌套对象的构造路径(按类型) 首次构造嵌套对象时创建
+     * @param <T>         要转化为的对象泛型
+     * @return 将map 转化后的对象
+     */
+    private static <T> T projectToObject(Map<String, Object> sourceMap, KeyLayout keyLayout, Class<T> targetClazz, MappingPlan mappingPlan, Set<String> keys, CycleGuard guard) {
+        String[] bindingKeys = mappingPlan.getBindingKeys(keyLayout);
+        FieldMapping[] mappings = mappingPlan.getMappings();
+        boolean[] selectedMappings = KeySelector.of(mappingPlan, keys).getBoundMappings();
+
+        Instantiator instantiator = Instantiator.of(targetClazz);
+        T t = targetClazz.cast(instantiator.newInstance(sourceMap, keyLayout, mappingPlan));
+        if (t == null) {
+            return null;
+        }
+        boolean[] boundMappings = instantiator.getBoundMappings(mappingPlan);
+        for (int i = 0; i < mappings.length; i++) {
+            FieldMapping mapping = mappings[i];
+            if (!selectedMappings[i] || boundMappings != null && boundMappings[i]) {
+                continue;
+            }
+            if (mapping.isNestedTarget() && !mapping.getType().isEnum()) {
+                // 嵌套对象同样只绑定选中的字段 类型循环引用或超过最大嵌套深度时按 CyclePolicy 处理
+                if (guard == null) {
+                    guard = new CycleGuard();
+                    guard.enter(targetClazz, targetClazz);
+                }
+                Class<?> fieldType = mapping.getType();
+                Object nested = null;
+                if (guard.enter(fieldType, fieldType)) {
+                    nested = projectToObject(sourceMap, keyLayout, fieldType, getMappingPlan(fieldType, mapping.getCatchAllStopClass()), keys, guard);
+                    guard.exit(fieldType);
+                }
+                mapping.set(t, nested);
+            } else {
+                bindMapping(sourceMap, keyLayout, t, mapping, bindingKeys[2 * i], bindingKeys[2 * i + 1]);
+            }
+        }
+        return t;
+    }
+
+    /**
+     * 将map 的值更新到已有对象上 只处理map 中存在的键，不存在的键对应的字段保持原值
+     *
+     * @param sourceMap      map类型的数据源
+     * @param existingObject 要更新的对象
+     * @param <T>            对象泛型
+     * @return 更新后的 existingObject
+     */
+    public static <T> T mapIntoObject(Map<String, Object> sourceMap, T existingObject) {
+        return mapIntoObject(sourceMap, existingObject, null);
+    }
+
+    /**
+     * 将map 的值更新到已有对象上 只处理map 中存在的键，不存在的键对应的字段保持原值
+     * 键存在但值为 null 或无法转换为字段类型时 字段同样保持原值
+     * 属性抓取的嵌套对象已存在时在其上更新，为 null 时只在map 中存在其任一键时才创建
+     * 枚举对象不可修改 原样返回
+     *
+     * @param sourceMap      map类型的数据源
+     * @param existingObject 要更新的对象
+     * @param stopClass      要停止在对象父类的层级
+     * @param <T>            对象泛型
+     * @return 更新后的 existingObject
+     */
+    public static <T> T mapIntoObject(Map<String, Object> sourceMap, T existingObject, Class<?> stopClass) {
+        if (sourceMap == null || existingObject == null || existingObject instanceof Enum) {
+            return existingObject;
+        }
+        Class<?> targetClazz = existingObject.getClass();
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(targetClazz) || Void.class == stopClass) {
+            stopClass = getDefaultStopClass(targetClazz);
+        }
+        // 生成的映射器只能创建新对象 原地更新统一使用映射计划
+        MappingPlan mappingPlan = getMappingPlan(targetClazz, stopClass);
+        long start = ConversionMetrics.startTiming();
+        mapIntoObject(sourceMap, KeyLayout.of(sourceMap), existingObject, mappingPlan, new CycleGuard());
+        ConversionMetrics.recordMapToObject(targetClazz, start);
+        return existingObject;
+    }
+
+    /**
+     * 按数据源的键结构 将map 中存在的键更新到已有对象上
+     *
+     * @param sourceMap   map类型的数据源
+     * @param keyLayout   数据源的键结构
+     * @param target      要更新的对象
+     * @param mappingPlan 对象的映射计划
+     * @param guard       更新路径上的对象 循环引用或超过最大嵌套深度时按 CyclePolicy 处理
+     */
+    private static void mapIntoObject(Map<String, Object> sourceMap, KeyLayout keyLayout, Object target, MappingPlan mappingPlan, CycleGuard guard) {
+        if (!guard.enter(target, target.getClass())) {
+            return;
+        }
+        String[] bindingKeys = mappingPlan.getBindingKeys(keyLayout);
+        FieldMapping[] mappings = mappingPlan.getMappings();
+        for (int i = 0; i < mappings.length; i++) {
+            FieldMapping mapping = mappings[i];
+            if (!mapping.isNestedTarget()) {
+                // 键不存在的字段不做处理
+                if (bindingKeys[2 * i] != null || bindingKeys[2 * i + 1] != null) {
+                    bindMapping(sourceMap, keyLayout, target, mapping, bindingKeys[2 * i], bindingKeys[2 * i + 1]);
+                }
+                continue;
+            }
+            Object nested = mapping.get(target);
+            Class<?> fieldType = mapping.getType();
+            if (nested != null && !fieldType.isEnum()) {
+                // 嵌套对象已存在 在其上更新
+                Class<?> nestedClass = nested.getClass();
+                Class<?> stopClass = mapping.getCatchAllStopClass();
+                if (stopClass == null || !stopClass.isAssignableFrom(nestedClass) || Void.class == stopClass) {
+                    stopClass = getDefaultStopClass(nestedClass);
+                }
+                mapIntoObject(sourceMap, keyLayout, nested, getMappingPlan(nestedClass, stopClass), guard);
+            } else if (fieldType.isEnum() || hasPresentKey(keyLayout, fieldType, mapping.getCatchAllStopClass(), new HashSet<Class<?>>())) {
+                // 推断不出枚举 或 无法创建嵌套对象时 保持原值
+                Object value = readMappingValue(sourceMap, keyLayout, mapping, null, null);
+                if (value != null) {
+                    mapping.set(target, value);
+                }
+            }
+        }
+        guard.exit(target);
+    }
+
+    /**
+     * 数据源中是否存在类型任一字段(包括属性抓取的嵌套字段)对应的键
+     *
+     * @param keyLayout   数据源的键结构
+     * @param targetClazz 类型
+     * @param stopClass   要停止在对象父类的层级
+     * @param visiting    查找路径上的类型 属性抓取循环引用的类型不再向下查找
+     * @return 存在任一键返回 true
+     */
+    private static boolean hasPresentKey(KeyLayout keyLayout, Class<?> targetClazz, Class<?> stopClass, Set<Class<?>> visiting) {
+        if (!visiting.add(targetClazz)) {
+            return false;
+        }
+        if (stopClass == null || !stopClass.isAssignableFrom(targetClazz) || Void.class == stopClass) {
+            stopClass = getDefaultStopClass(targetClazz);
+        }
+        MappingPlan mappingPlan = getMappingPlan(targetClazz, stopClass);
+        String[] bindingKeys = mappingPlan.getBindingKeys(keyLayout);
+        FieldMapping[] mappings = mappingPlan.getMappings();
+        for (int i = 0; i < mappings.length; i++) {
+            if (mappings[i].isNestedTarget()) {
+                if (!mappings[i].getType().isEnum() && hasPresentKey(keyLayout, mappings[i].getType(), mappings[i].getCatchAllStopClass(), visiting)) {
+                    return true;
+                }
+            } else if (bindingKeys[2 * i] != null || bindingKeys[2 * i + 1] != null) {
+                return true;
+            }
+        }
+        visiting.remove(targetClazz);
+        return false;
+    }
+
+    /**
+     * 对象直接复制为另一类型的对象 结果与 mapToObject(objectToMap(源对象), 目标类型) 相同，但不创建中间map
+     * 字段绑定按 源类型 - 目标类型 只解析一次，见 BeanCopier
+     *
+     * @param sourceObject 源对象
+     * @param targetClazz  目标类型
+     * @param <T>          目标类型泛型
+     * @return 复制后的对象
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T objectToObject(Object sourceObject, Class<T> targetClazz) {
+        if (sourceObject == null || targetClazz == null) {
+            return null;
+        }
+        return BeanCopier.of((Class<Object>) sourceObject.getClass(), targetClazz).copy(sourceObject);
+    }
+
+    /**
+     * 对象直接复制到已有对象上 结果与 mapIntoObject(objectToMap(源对象), 已有对象) 相同，但不创建中间map
+     *
+     * @param sourceObject   源对象
+     * @param existingObject 要更新的对象
+     * @param <T>            对象泛型
+     * @return 更新后的 existingObject
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T objectIntoObject(Object sourceObject, T existingObject) {
+        if (sourceObject == null || existingObject == null) {
+            return existingObject;
+        }
+        return BeanCopier.of((Class<Object>) sourceObject.getClass(), (Class<T>) existingObject.getClass()).copyInto(sourceObject, existingObject);
+    }
+
+    /**
+     * 批量将map 转为对象
+     * 映射器与映射计划在批次内只解析一次，元素个数达到 ObjectMappingConfig 中的并行阈值时拆分到 ForkJoinPool 并行转化
+     *
+     * @param sourceMaps  map类型的数据源集合 元素为 null 时对应 null
+     * @param targetClazz 要转化为的对象类型
+     * @param stopClass   要停止在对象父类的层级
+     * @param <T>         要转化为的对象泛型
+     * @return 转化后的对象集合 顺序与输入一致
+     */
+    public static <T> List<T> mapsToObjects(List<? extends Map<String, Object>> sourceMaps, Class<T> targetClazz, Class<?> stopClass) {
+        if (targetClazz == null || sourceMaps == null) {
+            return null;
+        }
+        return BatchConversion.mapsToObjects(sourceMaps.toArray(), targetClazz, stopClass);
+    }
+
+    /**
+     * 批量将map 转为对象
+     *
+     * @param sourceMaps  map类型的数据源集合
+     * @param targetClazz 要转化为的对象类型
+     * @param <T>         要转化为的对象泛型
+     * @return 转化后的对象集合 顺序与输入一致
+     */
+    public static <T> List<T> mapsToObjects(List<? extends Map<String, Object>> sourceMaps, Class<T> targetClazz) {
+        return mapsToObjects(sourceMaps, targetClazz, null);
+    }
+
+    /**
+     * 惰性将map 转为对象 取出元素时才转化，不保存已转化的结果，映射信息只解析一次
+     *
+     * @param sourceMaps  map类型的数据源迭代器 元素为 null 时对应 null
+     * @param targetClazz 要转化为的对象类型
+     * @param stopClass   要停止在对象父类的层级
+     * @param <T>         要转化为的对象泛型
+     * @return 转化后的对象迭代器
+     */
+    public static <T> Iterator<T> mapsToObjects(Iterator<? extends Map<String, Object>> sourceMaps, Class<T> targetClazz, Class<?> stopClass) {
+        if (targetClazz == null || sourceMaps == null) {
+            return null;
+        }
+        return StreamingConversion.iterator(sourceMaps, StreamingConversion.mapToObjectFunction(targetClazz, stopClass));
+    }
+
+    /**
+     * 惰性将map 转为对象
+     *
+     * @param sourceMaps  map类型的数据源迭代器
+     * @param targetClazz 要转化为的对象类型
+     * @param <T>         要转化为的对象泛型
+     * @return 转化后的对象迭代器
+     */
+    public static <T> Iterator<T> mapsToObjects(Iterator<? extends Map<String, Object>> sourceMaps, Class<T> targetClazz) {
+        return mapsToObjects(sourceMaps, targetClazz, null);
+    }
+
+    /**
+     * 惰性将map 转为对象 转化在流的终止操作中逐个进行，并行流按数据源的拆分方式并行转化
+     *
+     * @param sourceMaps  map类型的数据源流 元素为 null 时对应 null
+     * @param targetClazz 要转化为的对象类型
+     * @param stopClass   要停止在对象父类的层级
+     * @param <T>         要转化为的对象泛型
+     * @return 转化后的对象流
+     */
+    public static <T> Stream<T> mapsToObjects(Stream<? extends Map<String, Object>> sourceMaps, Class<T> targetClazz, Class<?> stopClass) {
+        if (targetClazz == null || sourceMaps == null) {
+            return null;
+        }
+        return sourceMaps.map(StreamingConversion.mapToObjectFunction(targetClazz, stopClass));
+    }
+
+    /**
+     * 使用已解析好的映射器或映射计划 将map 转为对象(非枚举)
+     *
+     * @param sourceMap   map类型的数据源 不为 null
+     * @param targetClazz 要转化为的对象类型
+     * @param mapper      生成的映射器 存在时优先使用
+     * @param mappingPlan 映射计划 映射器不存在时使用
+     * @param <T>         要转化为的对象泛型
+     * @return 将map 转化后的对象
+     */
+    static <T> T mapToObject(Map<String, Object> sourceMap, Class<T> targetClazz, ObjectMapMapper<Object> mapper, MappingPlan mappingPlan) {
+        long start = ConversionMetrics.startTiming();
+        T t = mapToObjectDirect(sourceMap, targetClazz, mapper, mappingPlan);
+        ConversionMetrics.recordMapToObject(targetClazz, start);
+        return t;
+    }
+
+    /**
+     * 将map 转为对象 不记录监控指标
+     */
+    private static <T> T mapToObjectDirect(Map<String, Object> sourceMap, Class<T> targetClazz, ObjectMapMapper<Object> mapper, MappingPlan mappingPlan) {
+        if (mapper != null) {
+            return targetClazz.cast(mapper.mapToObject(sourceMap));
+        }
+
+        // 对 map key 做 驼峰 _,大小写，等通用比较处理 相同key 集合的数据源共享处理结果
+        if (!mappingPlan.hasNestedObject()) {
+            return mapToObject(sourceMap, KeyLayout.of(sourceMap), targetClazz, mappingPlan);
+        }
+        // 嵌套对象在同一构造范围内 防止循环引用
+        NestedTargetScope scope = NestedTargetScope.open(sourceMap, targetClazz);
+        try {
+            return mapToObject(sourceMap, KeyLayout.of(sourceMap), targetClazz, mappingPlan);
+        } finally {
+            NestedTargetScope.close(scope);
+        }
+    }
+
+    /**
+     * 按数据源的键结构 使用映射计划将map 转为对象(非枚举)
+     *
+     * @param sourceMap   map类型的数据源 不为 null
+     * @param keyLayout   数据源的键结构
+     * @param targetClazz 要转化为的对象类型
+     * @param mappingPlan 映射计划
+     * @param <T>         要转化为的对象泛型
+     * @return 将map 转化后的对象
+     */
+    private static <T> T mapToObject(Map<String, Object> sourceMap, KeyLayout keyLayout, Class<T> targetClazz, MappingPlan mappingPlan) {
+        // 每个字段要读取的 key 在该键结构下只解析一次
+        String[] bindingKeys = mappingPlan.getBindingKeys(keyLayout);
+        FieldMapping[] mappings = mappingPlan.getMappings();
+
+        // 使用缓存的创建器创建对象 带参数的创建方式已绑定的字段不再赋值
+        Instantiator instantiator = Instantiator.of(targetClazz);
+        T t = targetClazz.cast(instantiator.newInstance(sourceMap, keyLayout, mappingPlan));
+        if (t == null) {
+            return null;
+        }
+        boolean[] boundMappings = instantiator.getBoundMappings(mappingPlan);
+        for (int i = 0; i < mappings.length; i++) {
+            if (boundMappings == null || !boundMappings[i]) {
+                bindMapping(sourceMap, keyLayout, t, mappings[i], bindingKeys[2 * i], bindingKeys[2 * i + 1]);
+            }
+        }
+        return t;
+    }
+
+    /**
+     * 将map中的值 按字段映射设置到对象上
+     *
+     * @param sourceMap map类型的数据源
+     * @param keyLayout 数据源的键结构
+     * @param target    要赋值的对象
+     * @param mapping   字段映射
+     */
+    static void bindMapping(Map<String, Object> sourceMap, KeyLayout keyLayout, Object target, FieldMapping mapping) {
+        bindMapping(sourceMap, keyLayout, target, mapping, keyLayout.presentKey(mapping.getMapKey()), keyLayout.originalKey(mapping.getNormalizedKey()));
+    }
+
+    /**
+     * 将map中的值 按字段映射设置到对象上
+     *
+     * @param sourceMap   map类型的数据源
+     * @param keyLayout   数据源的键结构
+     * @param target      要赋值的对象
+     * @param mapping     字段映射
+     * @param presentKey  数据源中存在的字段 map key 不存在为 null
+     * @param originalKey 通用处理后与字段 map key 相同的原始 key 不存在为 null
+     */
+    private static void bindMapping(Map<String, Object> sourceMap, KeyLayout keyLayout, Object target, FieldMapping mapping, String presentKey, String originalKey) {
+        Object mapValue = readMappingValue(sourceMap, keyLayout, mapping, presentKey, originalKey);
+        // 属性抓取的字段 按推断或构造的结果赋值，普通字段 没有取到值或无法转换的不赋值
+        if (mapValue != null || mapping.isNestedTarget()) {
+            mapping.set(target, mapValue);
+        }
+    }
+
+    /**
+     * 按字段映射 从map中取得可设置到字段上的值
+     *
+     * @param sourceMap   map类型的数据源
+     * @param keyLayout   数据源的键结构
+     * @param mapping     字段映射
+     * @param presentKey  数据源中存在的字段 map key 不存在为 null
+     * @param originalKey 通用处理后与字段 map key 相同的原始 key 不存在为 null
+     * @return 字段的值 没有取到值或无法转换时为 null
+     */
+    static Object readMappingValue(Map<String, Object> sourceMap, KeyLayout keyLayout, FieldMapping mapping, String presentKey, String originalKey) {
+        //加了 属性抓取注解的 需构造新的对象
+        if (mapping.isNestedTarget()) {
+            Class<?> fieldType = mapping.getType();
+            if (fieldType.isEnum()) {
+                return matchEnumByProperty(sourceMap, mapping);
+            }
+            return mapToNestedObject(sourceMap, keyLayout, fieldType, mapping.getCatchAllStopClass());
+        }
+        // 普通属性字段 直接从map中取值 赋值
+        Object mapValue = presentKey == null ? null : sourceMap.get(presentKey);
+        // 如果没有取到值 默认兼容 驼峰，_,,大小写取值
+        if(mapValue == null && originalKey != null){
+            mapValue = sourceMap.get(originalKey);
+        }
+        // 转换获取到的 value 值类型 (可能会转换)
+        mapValue = valueTypeChange(mapping,mapValue);
+        // 类型不一致时 按注册的类型转换器转换 无法转换的值计入监控指标
+        Object fieldValue = mapping.convert(mapValue);
+        if (fieldValue == null && mapValue != null) {
+            ConversionMetrics.recordDroppedValue();
+        }
+        return fieldValue;
+    }
+
+    /**
+     * 抓取全部属性的字段 使用同一数据源 构造字段对应的对象(非枚举)
+     *
+     * @param sourceMap   map类型的数据源
+     * @param keyLayout   数据源的键结构
+     * @param targetClazz 字段类型
+     * @param stopClass   要停止在对象父类的层级
+     * @return 构造的对象
+     */
+    private static Object mapToNestedObject(final Map<String, Object> sourceMap, final KeyLayout keyLayout, final Class<?> targetClazz, Class<?> stopClass) {
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(targetClazz) || Void.class == stopClass) {
+            stopClass = getDefaultStopClass(targetClazz);
+        }
+        final ObjectMapMapper<Object> mapper = getGeneratedMapper(targetClazz, stopClass);
+        final MappingPlan mappingPlan = getMappingPlan(targetClazz, stopClass);
+        // 同一数据源内 循环引用或超过最大嵌套深度时按 CyclePolicy 处理
+        return NestedTargetScope.nested(sourceMap, mappingPlan, new NestedTargetScope.Factory() {
+            @Override
+            public Object create() {
+                if (mapper != null) {
+                    return mapper.mapToObject(sourceMap);
+                }
+                return mapToObject(sourceMap, keyLayout, targetClazz, mappingPlan);
+            }
+        });
+    }
+
+    /**
+     *  去除字符串的 _,全部转为小写
+     * @param str 要去除 _ 的字符串
+     * @return 处理后的字符串
+     */
+    static String commonProcess(String str){
+        if (str == null) {
+            return null;
+        }
+        // 逐字符去除下划线 避免正则替换的开销
+        int index = str.indexOf('_');
+        if (index >= 0) {
+            StringBuilder builder = new StringBuilder(str.length());
+            int start = 0;
+            while (index >= 0) {
+                builder.append(str, start, index);
+                start = index + 1;
+                index = str.indexOf('_', start);
+            }
+            str = builder.append(str, start, str.length()).toString();
+        }
+        return str.toLowerCase();
+    }
+
+
+
+
+    /**
+     *  日期相关的类型转换 -- 字符串和日期(Date，LocalDate，LocalDateTime，Instant)转化 其他类型由 TypeConverters 转换
+     * @param mapping 字段映射
+     * @param mapValue 从map中获取的值
+     * @return 需要类型转化后的值，否则原值返回
+     */
+    static Object valueTypeChange(FieldMapping mapping, Object mapValue) {
+        if(mapValue == null){
+            return null;
+        }
+        // mapValue 是 Date的子类，转为 Date
+        if(Date.class.isAssignableFrom(mapValue.getClass())&&mapValue.getClass()!=Date.class){
+            Date date = (Date)mapValue;
+            return new Date(date.getTime());
+        }
+        //当前只有日期-字符串类型存在转化，其他类型暂时不需转化 未标注 DateMapping 的字段无法解析 原值返回
+        if(String.class.isAssignableFrom(mapValue.getClass())&& mapping.getDateCodec()!=null && DateCodec.isSupportedType(mapping.getType())){
+            return  mapping.getDateCodec().parse(String.valueOf(mapValue),mapping.getType());
+        }
+        // 元素为对象的集合，数组，map 元素由map 转为对象
+        if (mapping.getContainerCodec() != null) {
+            return mapping.getContainerCodec().fromMapValue(mapValue);
+        }
+        return mapValue;
+    }
+
+
+    /**
+     * map 直接转枚举类型 - 属性全部匹配才可转
+     *
+     * @param sourceMap 数据源map
+     * @param enumClass 枚举类型
+     * @param <T>       泛型
+     * @return map转化后的类型
+     */
+    private static <T> T mapToEnum(Map<String, Object> sourceMap, Class<T> enumClass) {
+        // 推断应该返回哪个枚举对象 - 枚举除一般属性外所有额外属性均要匹配map 即CatchAllProperty注解模式
+        Object matched = getAllPropertiesIndex(enumClass).match(sourceMap);
+        if (matched == null) {
+            ConversionMetrics.recordEnumInferenceMiss();
+        }
+        return (T) matched;
+    }
+
+
+    /**
+     * 根据属性值 推断映射的是哪一个枚举对象 - 枚举字段必定包含CatchSingleProperty注解或者CatchAllProperty注解
+     *
+     * @param matchMap  可能保存有枚举内部值的 map
+     * @param enumMapping 要转换的对象的枚举成员变量字段映射
+     * @return 推断到的枚举类型
+     */
+    static Enum<?> matchEnumByProperty(Map<String, Object> matchMap, FieldMapping enumMapping) {
+        if (matchMap == null || matchMap.isEmpty() || enumMapping == null) {
+            return null;
+        }
+        Class<?> enumClass = enumMapping.getType();
+        if (!Enum.class.isAssignableFrom(enumClass)) {
+            return null;
+        }
+        boolean catchSingle = enumMapping.isCatchSingle();
+        //枚举字段必定包含CatchSingleProperty注解或者CatchAllProperty注解
+        if (!catchSingle && enumMapping.getCatchAllStopClass() == null) {
+            return null;
+        }
+        // 推断应该返回哪个枚举对象 - 两种类型 一种枚举除一般属性外所有额外属性均要匹配map 即CatchAllProperty注解模式
+        Object matched;
+        if (!catchSingle) {
+            matched = getAllPropertiesIndex(enumClass).match(matchMap);
+        } else {
+            //  另一种单个属性匹配即可 即CatchSingleProperty注解模式
+            EnumIndex singlePropertyIndex = getSinglePropertyIndex(enumClass, enumMapping.getSingleProperty());
+            matched = singlePropertyIndex == null ? null : singlePropertyIndex.match(matchMap);
+        }
+        if (matched == null) {
+            ConversionMetrics.recordEnumInferenceMiss();
+        }
+        return (Enum<?>) matched;
+    }
+
+    /**
+     * 获取枚举类全属性匹配模式的反向查找索引
+     *
+     * @param enumClass 枚举类
+     * @return 反向查找索引
+     */
+    private static EnumIndex getAllPropertiesIndex(Class<?> enumClass) {
+        ClassMetadata metadata = ClassMetadata.of(enumClass);
+        EnumIndex enumIndex = metadata.getAllPropertiesIndex();
+        if (enumIndex == null) {
+            enumIndex = EnumIndex.forAllProperties(enumClass);
+            metadata.setAllPropertiesIndex(enumIndex);
+        }
+        return enumIndex;
+    }
+
+    /**
+     * 获取枚举类单属性匹配模式的反向查找索引
+     *
+     * @param enumClass    枚举类
+     * @param propertyName 要匹配的属性名
+     * @return 反向查找索引 枚举类中不存在该属性时返回 null
+     */
+    private static EnumIndex getSinglePropertyIndex(Class<?> enumClass, String propertyName) {
+        FieldMapping singleMapping = getMappingPlan(enumClass, null).getByName(propertyName);
+        if (singleMapping == null) {
+            return null;
+        }
+        ClassMetadata metadata = ClassMetadata.of(enumClass);
+        EnumIndex enumIndex = metadata.getSinglePropertyIndex(propertyName);
+        if (enumIndex == null) {
+            enumIndex = metadata.putSinglePropertyIndex(propertyName, EnumIndex.forSingleProperty(enumClass, singleMapping));
+        }
+        return enumIndex;
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.ysx.util;
+
+import java.util.Map;
+
+/**
+ * 对象和map集合 互转工具的监控指标 - 通过 ObjectMappingConfig.setMetricsEnabled 开启后注册到平台 MBeanServer
+ * ObjectName 为 com.ysx.util:type=ObjectMappingMetrics
+ * ysx
+ */
+public interface ObjectMappingMetricsMXBean {
+
+    /**
+     * @return 类名 - 该类的转化次数及耗时分布
+     */
+    Map<String, ClassConversionStats> getClassStats();
+
+    /**
+     * @return 耗时分布各区间的上限(纳秒 不含) 最后一个区间无上限为 Long.MAX_VALUE
+     */
+    long[] getLatencyBucketUpperBoundsNanos();
+
+    long getPlanCacheHits();
+
+    long getPlanCacheMisses();
+
+    /**
+     * @return 开启指标期间新缓存的映射计划个数
+     */
+    long getPlanCacheSize();
+
+    long getFieldCacheHits();
+
+    long getFieldCacheMisses();
+
+    /**
+     * @return 开启指标期间新缓存的字段列表个数
+     */
+    long getFieldCacheSize();
+
+    /**
+     * @return 推断不出枚举对象的次数
+     */
+    long getEnumInferenceMisses();
+
+    /**
+     * @return map 转对象时 值类型与字段类型不一致且无法转换而未赋值的次数
+     */
+    long getDroppedValues();
+
+    /**
+     * 清零所有计数(缓存个数除外)
+     */
+    void reset();
+}
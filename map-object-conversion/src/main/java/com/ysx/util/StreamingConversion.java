@@ -0,0 +1,139 @@
+package com.ysx.util;
+
+import com.ysx.util.handler.MapIgnoreHandler;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 流式转化 - 逐个元素惰性转化，不缓存已转化的结果，映射器与映射计划在元素间复用
+ * ysx
+ */
+final class StreamingConversion {
+
+    private StreamingConversion() {
+    }
+
+    /**
+     * 对象转map 的转化函数 元素为 null 时对应空map
+     *
+     * @param stopClass        要停止在对象父类的层级
+     * @param mapIgnoreHandler 自定义属性忽略策略
+     * @return 转化函数 可被多线程共享
+     */
+    static Function<Object, Map<String, Object>> objectToMapFunction(Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler) {
+        return new ObjectToMapFunction(stopClass, mapIgnoreHandler);
+    }
+
+    /**
+     * map 转对象 的转化函数 元素为 null 时对应 null
+     *
+     * @param targetClazz 要转化为的对象类型
+     * @param stopClass   要停止在对象父类的层级
+     * @param <T>         要转化为的对象泛型
+     * @return 转化函数 可被多线程共享
+     */
+    static <T> Function<Map<String, Object>, T> mapToObjectFunction(final Class<T> targetClazz, Class<?> stopClass) {
+        if (Enum.class.isAssignableFrom(targetClazz)) {
+            final Class<?> enumStopClass = stopClass;
+            return sourceMap -> ObjectMappingMapUtil.mapToObject(sourceMap, targetClazz, enumStopClass);
+        }
+        // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+        if (stopClass == null || !stopClass.isAssignableFrom(targetClazz) || Void.class == stopClass) {
+            stopClass = ObjectMappingMapUtil.getDefaultStopClass(targetClazz);
+        }
+        final ObjectMapMapper<Object> mapper = ObjectMappingMapUtil.getGeneratedMapper(targetClazz, stopClass);
+        final MappingPlan mappingPlan = mapper == null ? ObjectMappingMapUtil.getMappingPlan(targetClazz, stopClass) : null;
+        return sourceMap -> sourceMap == null ? null : ObjectMappingMapUtil.mapToObject(sourceMap, targetClazz, mapper, mappingPlan);
+    }
+
+    /**
+     * 包装迭代器 取出元素时才转化
+     *
+     * @param source   数据源迭代器
+     * @param function 转化函数
+     * @return 转化后的迭代器
+     */
+    static <S, R> Iterator<R> iterator(Iterator<? extends S> source, Function<? super S, ? extends R> function) {
+        return new ConvertingIterator<>(source, function);
+    }
+
+    /**
+     * 对象转map 的转化函数 批量数据通常为同一类型 记录上一个元素的类型及其解析结果
+     */
+    private static final class ObjectToMapFunction implements Function<Object, Map<String, Object>> {
+        private final Class<?> stopClass;
+        private final MapIgnoreHandler mapIgnoreHandler;
+        /**
+         * 上一个元素类型的解析结果 不可变对象 多线程下最多重复解析
+         */
+        private volatile Resolved last;
+
+        private ObjectToMapFunction(Class<?> stopClass, MapIgnoreHandler mapIgnoreHandler) {
+            this.stopClass = stopClass;
+            this.mapIgnoreHandler = mapIgnoreHandler;
+        }
+
+        @Override
+        public Map<String, Object> apply(Object source) {
+            Map<String, Object> resultMap = new HashMap<>(16);
+            if (source == null) {
+                return resultMap;
+            }
+            Class<?> sourceClass = source.getClass();
+            Resolved resolved = last;
+            if (resolved == null || resolved.sourceClass != sourceClass) {
+                resolved = new Resolved(sourceClass, stopClass);
+                last = resolved;
+            }
+            ObjectMappingMapUtil.populateMap(resultMap, source, resolved.mapper, resolved.mappingPlan, mapIgnoreHandler);
+            return resultMap;
+        }
+    }
+
+    /**
+     * 类型对应的映射器或映射计划
+     */
+    private static final class Resolved {
+        private final Class<?> sourceClass;
+        private final ObjectMapMapper<Object> mapper;
+        private final MappingPlan mappingPlan;
+
+        private Resolved(Class<?> sourceClass, Class<?> stopClass) {
+            // 结束类不是null 或者 结束类不是数据源类型的父类 或者结束类型是Void类型 设置默认结束类
+            if (stopClass == null || !stopClass.isAssignableFrom(sourceClass) || Void.class == stopClass) {
+                stopClass = ObjectMappingMapUtil.getDefaultStopClass(sourceClass);
+            }
+            this.sourceClass = sourceClass;
+            this.mapper = ObjectMappingMapUtil.getGeneratedMapper(sourceClass, stopClass);
+            this.mappingPlan = mapper == null ? ObjectMappingMapUtil.getMappingPlan(sourceClass, stopClass) : null;
+        }
+    }
+
+    private static final class ConvertingIterator<S, R> implements Iterator<R> {
+        private final Iterator<? extends S> source;
+        private final Function<? super S, ? extends R> function;
+
+        private ConvertingIterator(Iterator<? extends S> source, Function<? super S, ? extends R> function) {
+            this.source = source;
+            this.function = function;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return source.hasNext();
+        }
+
+        @Override
+        public R next() {
+            return function.apply(source.next());
+        }
+
+        @Override
+        public void remove() {
+            source.remove();
+        }
+    }
+}
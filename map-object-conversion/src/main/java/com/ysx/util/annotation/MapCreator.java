@@ -0,0 +1,17 @@
+package com.ysx.util.annotation;
+
+
+
+import java.lang.annotation.*;
+
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.CONSTRUCTOR, ElementType.METHOD})
+/**
+ *  构造方法或静态工厂方法注解，map 转对象时使用该方法创建对象 用于没有无参构造方法的类及不可变对象
+ *   参数按 参数上的 MapKeyMapping 注解，同名字段对应的 map key，参数名(需 -parameters 编译) 的顺序从map中取值
+ *   参数未绑定的其他字段 创建对象后仍按字段规则赋值
+ */
+public @interface MapCreator {
+
+}
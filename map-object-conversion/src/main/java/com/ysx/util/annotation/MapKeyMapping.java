@@ -6,9 +6,10 @@ import java.lang.annotation.*;
 
 @Documented  
 @Retention(RetentionPolicy.RUNTIME)  
-@Target(ElementType.FIELD)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
 /**
  *  bean字段注解，对应map key
+ *  标注在 MapCreator 方法的参数上时 为参数对应的 map key
  */
 public @interface MapKeyMapping {
     /**
@@ -0,0 +1,152 @@
+package com.ysx.util.converter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * 内置转换器 - 数值类型之间，字符串与数值，布尔，字符，枚举之间的转换
+ * 数值转整数类型时 有小数部分或超出目标类型范围的值无法转换(返回 null 不赋值)，转浮点类型按 Number 的 xxxValue 方法转换，
+ * 字符串解析前去除首尾空白，空白字符串转为 null(不赋值)
+ * ysx
+ */
+final class BuiltinConverters {
+
+    private BuiltinConverters() {
+    }
+
+    static void registerAll() {
+        // 数值之间
+        TypeConverters.register(Number.class, Byte.class, source -> {
+            Long value = toLong(source);
+            return value == null || value < Byte.MIN_VALUE || value > Byte.MAX_VALUE ? null : (byte) (long) value;
+        });
+        TypeConverters.register(Number.class, Short.class, source -> {
+            Long value = toLong(source);
+            return value == null || value < Short.MIN_VALUE || value > Short.MAX_VALUE ? null : (short) (long) value;
+        });
+        TypeConverters.register(Number.class, Integer.class, source -> {
+            Long value = toLong(source);
+            return value == null || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? null : (int) (long) value;
+        });
+        TypeConverters.register(Number.class, Long.class, BuiltinConverters::toLong);
+        TypeConverters.register(Number.class, Float.class, Number::floatValue);
+        TypeConverters.register(Number.class, Double.class, Number::doubleValue);
+        TypeConverters.register(Number.class, BigDecimal.class, BuiltinConverters::toBigDecimal);
+        TypeConverters.register(Number.class, BigInteger.class, BuiltinConverters::toBigInteger);
+        TypeConverters.register(Number.class, Boolean.class, source -> source.doubleValue() != 0);
+
+        // 字符串 转 数值，布尔，字符
+        TypeConverters.register(String.class, Byte.class, source -> isBlank(source) ? null : Byte.valueOf(source.trim()));
+        TypeConverters.register(String.class, Short.class, source -> isBlank(source) ? null : Short.valueOf(source.trim()));
+        TypeConverters.register(String.class, Integer.class, source -> isBlank(source) ? null : Integer.valueOf(source.trim()));
+        TypeConverters.register(String.class, Long.class, source -> isBlank(source) ? null : Long.valueOf(source.trim()));
+        TypeConverters.register(String.class, Float.class, source -> isBlank(source) ? null : Float.valueOf(source.trim()));
+        TypeConverters.register(String.class, Double.class, source -> isBlank(source) ? null : Double.valueOf(source.trim()));
+        TypeConverters.register(String.class, BigDecimal.class, source -> isBlank(source) ? null : new BigDecimal(source.trim()));
+        TypeConverters.register(String.class, BigInteger.class, source -> isBlank(source) ? null : new BigInteger(source.trim()));
+        TypeConverters.register(String.class, Boolean.class, BuiltinConverters::toBoolean);
+        TypeConverters.register(String.class, Character.class, source -> source.length() == 1 ? source.charAt(0) : null);
+
+        // 布尔，字符 转 数值
+        TypeConverters.register(Boolean.class, Integer.class, source -> source ? 1 : 0);
+        TypeConverters.register(Boolean.class, Long.class, source -> source ? 1L : 0L);
+        TypeConverters.register(Character.class, Integer.class, source -> (int) source);
+
+        // 转 字符串
+        TypeConverters.register(Number.class, String.class, BuiltinConverters::numberToString);
+        TypeConverters.register(Boolean.class, String.class, String::valueOf);
+        TypeConverters.register(Character.class, String.class, String::valueOf);
+        TypeConverters.register(CharSequence.class, String.class, CharSequence::toString);
+        TypeConverters.register(Enum.class, String.class, source -> source.name());
+    }
+
+    /**
+     * 字符串 转 枚举 按枚举名称匹配 名称不存在返回 null
+     *
+     * @param enumType 枚举类型
+     * @return 转换器
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static TypeConverter<Object, Object> enumConverter(final Class<?> enumType) {
+        return source -> {
+            String name = source.toString().trim();
+            for (Object constant : enumType.getEnumConstants()) {
+                if (((Enum) constant).name().equals(name)) {
+                    return constant;
+                }
+            }
+            return null;
+        };
+    }
+
+    private static BigDecimal toBigDecimal(Number source) {
+        if (source instanceof BigDecimal) {
+            return (BigDecimal) source;
+        }
+        if (source instanceof BigInteger) {
+            return new BigDecimal((BigInteger) source);
+        }
+        if (source instanceof Double || source instanceof Float) {
+            return BigDecimal.valueOf(source.doubleValue());
+        }
+        return new BigDecimal(source.toString());
+    }
+
+    /**
+     * 数值 转 long 有小数部分或超出 long 范围时返回 null
+     */
+    private static Long toLong(Number source) {
+        if (source instanceof Long || source instanceof Integer || source instanceof Short || source instanceof Byte) {
+            return source.longValue();
+        }
+        if (source instanceof Double || source instanceof Float) {
+            double value = source.doubleValue();
+            // NaN，无穷 同样不相等或超出范围
+            return value == Math.rint(value) && value >= -0x1p63 && value < 0x1p63 ? Long.valueOf((long) value) : null;
+        }
+        try {
+            return toBigDecimal(source).longValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 数值 转 BigInteger 有小数部分时返回 null
+     */
+    private static BigInteger toBigInteger(Number source) {
+        if (source instanceof BigInteger) {
+            return (BigInteger) source;
+        }
+        if (source instanceof Double || source instanceof Float) {
+            double value = source.doubleValue();
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                return null;
+            }
+        }
+        try {
+            return toBigDecimal(source).toBigIntegerExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String numberToString(Number source) {
+        return source instanceof BigDecimal ? ((BigDecimal) source).toPlainString() : source.toString();
+    }
+
+    private static Boolean toBoolean(String source) {
+        String text = source.trim();
+        if ("true".equalsIgnoreCase(text) || "1".equals(text) || "y".equalsIgnoreCase(text) || "yes".equalsIgnoreCase(text)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(text) || "0".equals(text) || "n".equalsIgnoreCase(text) || "no".equalsIgnoreCase(text)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String source) {
+        return source.trim().isEmpty();
+    }
+}
@@ -0,0 +1,63 @@
+package com.ysx.util.converter;
+
+/**
+ * 单个字段的转换器缓存 - 记录上一次遇到的值类型及对应的转换器，
+ * 同一字段的值类型通常固定，之后只需比较值类型即可，不必再查找注册表
+ * 值已是字段类型(或其子类)时原值返回，转换失败时返回 null(不赋值)，由调用方计入监控指标的丢弃值
+ * ysx
+ */
+public final class CachedConverter {
+
+    /**
+     * 字段类型 基本类型已转为包装类型
+     */
+    private final Class<?> targetType;
+    /**
+     * 上一次的查找结果 不可变对象
+     */
+    private volatile Cached cached;
+
+    public CachedConverter(Class<?> targetType) {
+        this.targetType = TypeConverters.wrap(targetType);
+    }
+
+    /**
+     * 将值转换为字段类型
+     *
+     * @param value 要转换的值
+     * @return 转换后的值 值为 null 或无法转换时返回 null
+     */
+    public Object convert(Object value) {
+        if (value == null || targetType.isInstance(value)) {
+            return value;
+        }
+        Class<?> sourceType = value.getClass();
+        Cached current = cached;
+        if (current == null || current.sourceType != sourceType || current.version != TypeConverters.getVersion()) {
+            current = new Cached(sourceType, TypeConverters.getVersion(), TypeConverters.find(sourceType, targetType));
+            cached = current;
+        }
+        if (current.converter == null) {
+            return null;
+        }
+        try {
+            Object converted = current.converter.convert(value);
+            return targetType.isInstance(converted) ? converted : null;
+        } catch (RuntimeException e) {
+            // 无法解析的字符串等 与没有转换器相同 不逐行打印异常
+            return null;
+        }
+    }
+
+    private static final class Cached {
+        private final Class<?> sourceType;
+        private final int version;
+        private final TypeConverter<Object, Object> converter;
+
+        private Cached(Class<?> sourceType, int version, TypeConverter<Object, Object> converter) {
+            this.sourceType = sourceType;
+            this.version = version;
+            this.converter = converter;
+        }
+    }
+}
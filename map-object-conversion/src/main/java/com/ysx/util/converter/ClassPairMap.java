@@ -0,0 +1,70 @@
+package com.ysx.util.converter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 以 (源类型, 目标类型) 为key 的表 - 条目挂在类加载器可见另一个类型的那个类型上(ClassValue)，以另一个类型为key，
+ * 不会延长另一个类型的类加载器的生命周期，类卸载后条目随类一起回收
+ * 两个类型的类加载器没有父子关系时 条目挂在目标类型上
+ * ysx
+ */
+final class ClassPairMap<V> {
+
+    /**
+     * 源类型上的表 目标类型 - 值
+     */
+    private final ClassValue<ConcurrentMap<Class<?>, V>> bySource = new ClassValue<ConcurrentMap<Class<?>, V>>() {
+        @Override
+        protected ConcurrentMap<Class<?>, V> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>(4);
+        }
+    };
+    /**
+     * 目标类型上的表 源类型 - 值
+     */
+    private final ClassValue<ConcurrentMap<Class<?>, V>> byTarget = new ClassValue<ConcurrentMap<Class<?>, V>>() {
+        @Override
+        protected ConcurrentMap<Class<?>, V> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>(4);
+        }
+    };
+
+    V get(Class<?> sourceType, Class<?> targetType) {
+        return isVisible(targetType, sourceType) ? bySource.get(sourceType).get(targetType) : byTarget.get(targetType).get(sourceType);
+    }
+
+    void put(Class<?> sourceType, Class<?> targetType, V value) {
+        if (isVisible(targetType, sourceType)) {
+            bySource.get(sourceType).put(targetType, value);
+        } else {
+            byTarget.get(targetType).put(sourceType, value);
+        }
+    }
+
+    /**
+     * 两个类型的类加载器是否有父子关系 没有时条目会延长源类型的类加载器的生命周期
+     */
+    static boolean isRelated(Class<?> sourceType, Class<?> targetType) {
+        return isVisible(targetType, sourceType) || isVisible(sourceType, targetType);
+    }
+
+    /**
+     * 类的类加载器 是否为另一个类的类加载器或其父加载器
+     *
+     * @param type  作为key 的类
+     * @param owner 条目所在的类
+     */
+    private static boolean isVisible(Class<?> type, Class<?> owner) {
+        ClassLoader loader = type.getClassLoader();
+        if (loader == null) {
+            return true;
+        }
+        for (ClassLoader current = owner.getClassLoader(); current != null; current = current.getParent()) {
+            if (current == loader) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
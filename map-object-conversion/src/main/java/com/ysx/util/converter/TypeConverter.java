@@ -0,0 +1,16 @@
+package com.ysx.util.converter;
+
+/**
+ *  用户 自定义类型转换的扩展接口 - map 转对象时 map中的值与字段类型不一致时使用
+ *  通过 TypeConverters.register 注册
+ * @param <S> 源类型
+ * @param <T> 目标类型
+ */
+public interface TypeConverter<S, T> {
+    /**
+     *  将值转换为目标类型
+     * @param source 要转换的值 不为 null
+     * @return 转换后的值 返回 null 表示不赋值
+     */
+    T convert(S source);
+}
@@ -0,0 +1,155 @@
+package com.ysx.util.converter;
+
+import java.lang.invoke.MethodType;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 类型转换器注册表 - 以 (源类型, 目标类型) 为key，内置数值，布尔，字符，字符串，枚举之间的转换，可注册自定义转换器
+ * 查找时先找精确注册的源类型，再依次查找源类型的父类和接口，查找结果按 (源类型, 目标类型) 缓存
+ * 注册表和查找结果均挂在类型自身上(见 ClassPairMap)，不会使类加载器无法卸载
+ * 基本类型的目标类型按其包装类型处理
+ * ysx
+ */
+public final class TypeConverters {
+
+    /**
+     * 注册的转换器
+     */
+    private static final ClassPairMap<TypeConverter<?, ?>> REGISTERED = new ClassPairMap<>();
+    /**
+     * 查找结果缓存 版本与注册表版本不同时失效
+     */
+    private static final ClassPairMap<Resolved> RESOLVED = new ClassPairMap<>();
+    /**
+     * 注册表版本 每次注册后递增 缓存的查找结果及字段上缓存的转换器据此失效
+     */
+    private static volatile int version;
+
+    static {
+        BuiltinConverters.registerAll();
+    }
+
+    private TypeConverters() {
+    }
+
+    /**
+     * 注册转换器 同一 (源类型, 目标类型) 后注册的覆盖先注册的
+     *
+     * @param sourceType 源类型 其子类也使用该转换器(未单独注册时)
+     * @param targetType 目标类型 基本类型与其包装类型等同
+     * @param converter  转换器
+     * @param <S>        源类型
+     * @param <T>        目标类型
+     */
+    public static synchronized <S, T> void register(Class<S> sourceType, Class<T> targetType, TypeConverter<? super S, ? extends T> converter) {
+        if (sourceType == null || targetType == null || converter == null) {
+            throw new IllegalArgumentException("源类型，目标类型，转换器均不能为 null");
+        }
+        REGISTERED.put(sourceType, wrap(targetType), converter);
+        version++;
+    }
+
+    /**
+     * 查找转换器
+     *
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @return 转换器 不存在返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public static TypeConverter<Object, Object> find(Class<?> sourceType, Class<?> targetType) {
+        Class<?> wrapped = wrap(targetType);
+        int currentVersion = version;
+        Resolved resolved = RESOLVED.get(sourceType, wrapped);
+        if (resolved == null || resolved.version != currentVersion) {
+            // 先读取版本再解析 解析期间有新的注册时 缓存的结果版本已过期 下次查找重新解析
+            resolved = new Resolved(currentVersion, resolve(sourceType, wrapped));
+            // 类加载器没有父子关系的类型对 不缓存
+            if (ClassPairMap.isRelated(sourceType, wrapped)) {
+                RESOLVED.put(sourceType, wrapped, resolved);
+            }
+        }
+        return (TypeConverter<Object, Object>) resolved.converter;
+    }
+
+    /**
+     * 将值转换为目标类型 值已是目标类型时原值返回
+     *
+     * @param value      要转换的值
+     * @param targetType 目标类型
+     * @param <T>        目标类型
+     * @return 转换后的值 无法转换返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T convert(Object value, Class<T> targetType) {
+        if (value == null) {
+            return null;
+        }
+        Class<T> wrapped = (Class<T>) wrap(targetType);
+        if (wrapped.isInstance(value)) {
+            return (T) value;
+        }
+        TypeConverter<Object, Object> converter = find(value.getClass(), wrapped);
+        return converter == null ? null : (T) converter.convert(value);
+    }
+
+    static int getVersion() {
+        return version;
+    }
+
+    /**
+     * 基本类型转为包装类型 其他类型原样返回
+     */
+    static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    /**
+     * 按源类型，父类，接口的顺序查找注册的转换器
+     */
+    private static TypeConverter<?, ?> resolve(Class<?> sourceType, Class<?> targetType) {
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        queue.add(sourceType);
+        while (!queue.isEmpty()) {
+            Class<?> type = queue.poll();
+            if (!visited.add(type)) {
+                continue;
+            }
+            TypeConverter<?, ?> converter = REGISTERED.get(type, targetType);
+            if (converter != null) {
+                return converter;
+            }
+            if (type.getSuperclass() != null) {
+                queue.add(type.getSuperclass());
+            }
+            for (Class<?> anInterface : type.getInterfaces()) {
+                queue.add(anInterface);
+            }
+        }
+        // 字符串 转 未注册的枚举类型 按枚举名称转换
+        if (targetType.isEnum() && CharSequence.class.isAssignableFrom(sourceType)) {
+            return BuiltinConverters.enumConverter(targetType);
+        }
+        return null;
+    }
+
+    /**
+     * 查找结果 及解析时的注册表版本
+     */
+    private static final class Resolved {
+        private final int version;
+        /**
+         * 不存在转换器时为 null
+         */
+        private final TypeConverter<?, ?> converter;
+
+        private Resolved(int version, TypeConverter<?, ?> converter) {
+            this.version = version;
+            this.converter = converter;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.ysx.util.handler;
+
+/**
+ *  用户 自定义忽略属性的扩展接口
+ *  基本类型的重载由 objectToSink 对基本类型字段调用，默认装箱后按 ignoreHandler(String, Object) 判断，实现类可重写以避免装箱
+ */
+public interface MapIgnoreHandler {
+    /**
+     *  是否忽略本次 key-value 添加到map中
+     * @param key 本次添加的key
+     * @param value 本次添加的value
+     * @return  true 表示忽略添加到map
+     */
+    boolean ignoreHandler(String key, Object value);
+
+    /**
+     *  是否忽略本次 int 类型的 key-value
+     * @param key 本次添加的key
+     * @param value 本次添加的value
+     * @return  true 表示忽略添加
+     */
+    default boolean ignoreHandler(String key, int value) {
+        return ignoreHandler(key, (Object) value);
+    }
+
+    /**
+     *  是否忽略本次 long 类型的 key-value
+     * @param key 本次添加的key
+     * @param value 本次添加的value
+     * @return  true 表示忽略添加
+     */
+    default boolean ignoreHandler(String key, long value) {
+        return ignoreHandler(key, (Object) value);
+    }
+
+    /**
+     *  是否忽略本次 double 类型的 key-value
+     * @param key 本次添加的key
+     * @param value 本次添加的value
+     * @return  true 表示忽略添加
+     */
+    default boolean ignoreHandler(String key, double value) {
+        return ignoreHandler(key, (Object) value);
+    }
+
+    /**
+     *  是否忽略本次 boolean 类型的 key-value
+     * @param key 本次添加的key
+     * @param value 本次添加的value
+     * @return  true 表示忽略添加
+     */
+    default boolean ignoreHandler(String key, boolean value) {
+        return ignoreHandler(key, (Object) value);
+    }
+}
@@ -18,6 +18,29 @@ public class ValueEmptyHandler implements MapIgnoreHandler {
         return isValueEmpty(value);
     }
 
+    /**
+     * 基本类型的值不为空 不装箱 - 子类重写了 ignoreHandler(String, Object) 时按其判断
+     */
+    @Override
+    public boolean ignoreHandler(String key, int value) {
+        return getClass() != ValueEmptyHandler.class && ignoreHandler(key, (Object) value);
+    }
+
+    @Override
+    public boolean ignoreHandler(String key, long value) {
+        return getClass() != ValueEmptyHandler.class && ignoreHandler(key, (Object) value);
+    }
+
+    @Override
+    public boolean ignoreHandler(String key, double value) {
+        return getClass() != ValueEmptyHandler.class && ignoreHandler(key, (Object) value);
+    }
+
+    @Override
+    public boolean ignoreHandler(String key, boolean value) {
+        return getClass() != ValueEmptyHandler.class && ignoreHandler(key, (Object) value);
+    }
+
 
     /**
      * 判断对象是否为 null 对于字符串 null " " 等也视为空
@@ -0,0 +1,79 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.CatchAllProperty;
+import com.ysx.util.handler.impl.ValueEmptyHandler;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class BatchConversionTest {
+
+    public static class Address {
+        private String city;
+    }
+
+    public static class Person {
+        private String name;
+        private int age;
+        @CatchAllProperty
+        private Address address;
+    }
+
+    private static List<Person> newPeople(int count) {
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Person person = new Person();
+            person.name = i % 3 == 0 ? null : "p" + i;
+            person.age = i;
+            if (i % 2 == 0) {
+                person.address = new Address();
+                person.address.city = "c" + i;
+            }
+            people.add(person);
+        }
+        people.add(null);
+        return people;
+    }
+
+    private static void assertBatches(List<Person> people) {
+        List<Map<String, Object>> maps = ObjectMappingMapUtil.objectsToMaps(people, Object.class, new ValueEmptyHandler());
+        assertEquals(people.size(), maps.size());
+        for (int i = 0; i < people.size(); i++) {
+            Map<String, Object> expected = people.get(i) == null ? new HashMap<String, Object>()
+                    : ObjectMappingMapUtil.objectToMap(people.get(i), Object.class, new ValueEmptyHandler());
+            assertEquals(expected, maps.get(i));
+        }
+
+        List<Map<String, Object>> sourceMaps = new ArrayList<>(ObjectMappingMapUtil.objectsToMaps(people));
+        sourceMaps.set(sourceMaps.size() - 1, null);
+        List<Person> objects = ObjectMappingMapUtil.mapsToObjects(sourceMaps, Person.class);
+        assertEquals(people.size(), objects.size());
+        for (int i = 0; i < people.size() - 1; i++) {
+            Person expected = ObjectMappingMapUtil.mapToObject(sourceMaps.get(i), Person.class, null);
+            assertEquals(ObjectMappingMapUtil.objectToMap(expected), ObjectMappingMapUtil.objectToMap(objects.get(i)));
+        }
+        assertNull(objects.get(people.size() - 1));
+    }
+
+    @Test
+    public void batchMatchesSingleConversion() {
+        assertBatches(newPeople(20));
+    }
+
+    @Test
+    public void parallelBatchKeepsOrder() {
+        int threshold = ObjectMappingConfig.getParallelThreshold();
+        ObjectMappingConfig.setParallelThreshold(8);
+        try {
+            assertBatches(newPeople(5000));
+        } finally {
+            ObjectMappingConfig.setParallelThreshold(threshold);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.CatchAllProperty;
+import com.ysx.util.annotation.CatchSingleProperty;
+import com.ysx.util.annotation.DateMapping;
+import com.ysx.util.annotation.IgnoreMapMapping;
+import com.ysx.util.annotation.MapKeyMapping;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+public class BeanCopierTest {
+
+    public enum Level {
+        LOW, HIGH
+    }
+
+    public static class Address {
+        private String city;
+        private String street;
+    }
+
+    public static class School {
+        private String name;
+    }
+
+    public static class Source {
+        private long id;
+        private int age;
+        @MapKeyMapping("full_name")
+        private String name;
+        @DateMapping("yyyy-MM-dd")
+        private Date birthday;
+        private String score;
+        private Level level;
+        @IgnoreMapMapping
+        private String secret;
+        @CatchAllProperty
+        private Address address;
+        @CatchSingleProperty("name")
+        private School school;
+    }
+
+    public static class Target {
+        private long id;
+        private Integer age;
+        @MapKeyMapping("full_name")
+        private String name;
+        private String birthday;
+        private Double score;
+        private Level level;
+        private String secret;
+        private String city;
+        @MapKeyMapping("name")
+        private String schoolName;
+        @CatchAllProperty
+        private Address address;
+    }
+
+    /**
+     * 只能通过构造参数创建 复制退回到经过map 的转化
+     */
+    public static class Immutable {
+        private final long id;
+        private final String city;
+
+        public Immutable(long id, String city) {
+            this.id = id;
+            this.city = city;
+        }
+    }
+
+    private static Source newSource() {
+        Source source = new Source();
+        source.id = 7;
+        source.age = 36;
+        source.name = "Ada";
+        source.birthday = new Date(1700000000000L);
+        source.score = "9.5";
+        source.level = Level.HIGH;
+        source.secret = "s";
+        source.address = new Address();
+        source.address.city = "London";
+        source.address.street = "st";
+        source.school = new School();
+        source.school.name = "school";
+        return source;
+    }
+
+    @Test
+    public void copyMatchesMapToObject() {
+        Source source = newSource();
+        Target copied = BeanCopier.of(Source.class, Target.class).copy(source);
+        Target converted = ObjectMappingMapUtil.mapToObject(ObjectMappingMapUtil.objectToMap(source), Target.class, null);
+        assertEquals(ObjectMappingMapUtil.objectToMap(converted), ObjectMappingMapUtil.objectToMap(copied));
+        assertEquals(Double.valueOf(9.5), copied.score);
+        assertEquals("London", copied.city);
+        assertEquals("school", copied.schoolName);
+        assertNotNull(copied.address);
+
+        source.address = null;
+        source.school = null;
+        copied = BeanCopier.of(Source.class, Target.class).copy(source);
+        converted = ObjectMappingMapUtil.mapToObject(ObjectMappingMapUtil.objectToMap(source), Target.class, null);
+        assertEquals(ObjectMappingMapUtil.objectToMap(converted), ObjectMappingMapUtil.objectToMap(copied));
+    }
+
+    @Test
+    public void copyIntoMatchesMapIntoObject() {
+        Source source = newSource();
+        source.name = null;
+        Target copied = new Target();
+        copied.name = "kept";
+        copied.secret = "kept";
+        Target converted = new Target();
+        converted.name = "kept";
+        converted.secret = "kept";
+        assertSame(copied, BeanCopier.of(Source.class, Target.class).copyInto(source, copied));
+        ObjectMappingMapUtil.mapIntoObject(ObjectMappingMapUtil.objectToMap(source), converted);
+        assertEquals(ObjectMappingMapUtil.objectToMap(converted), ObjectMappingMapUtil.objectToMap(copied));
+        assertEquals("kept", copied.name);
+    }
+
+    @Test
+    public void constructorOnlyTargetFallsBackToMap() {
+        Source source = newSource();
+        Immutable copied = BeanCopier.of(Source.class, Immutable.class).copy(source);
+        Immutable converted = ObjectMappingMapUtil.mapToObject(ObjectMappingMapUtil.objectToMap(source), Immutable.class, null);
+        assertEquals(ObjectMappingMapUtil.objectToMap(converted), ObjectMappingMapUtil.objectToMap(copied));
+        assertSame(BeanCopier.of(Source.class, Immutable.class), BeanCopier.of(Source.class, Immutable.class));
+    }
+}
@@ -0,0 +1,98 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.CatchAllProperty;
+import com.ysx.util.annotation.DateMapping;
+import com.ysx.util.annotation.MapKeyMapping;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BeanDiffTest {
+
+    public static class Address {
+        private String city;
+        private String street;
+    }
+
+    public static class Person {
+        @MapKeyMapping("full_name")
+        private String name;
+        private int age;
+        private double score;
+        @DateMapping("yyyy-MM-dd")
+        private Date birthday;
+        private int[] codes;
+        @CatchAllProperty
+        private Address address;
+    }
+
+    private static Person newPerson() {
+        Person person = new Person();
+        person.name = "Ada";
+        person.age = 36;
+        person.score = 1.5;
+        person.birthday = new Date(1700000000000L);
+        person.codes = new int[]{1, 2};
+        person.address = new Address();
+        person.address.city = "London";
+        person.address.street = "st";
+        return person;
+    }
+
+    /**
+     * 按两份完整的 objectToMap 结果计算的差异
+     */
+    private static Map<String, Object> expectedDiff(Object before, Object after) {
+        Map<String, Object> beforeMap = ObjectMappingMapUtil.objectToMap(before);
+        Map<String, Object> afterMap = ObjectMappingMapUtil.objectToMap(after);
+        Set<String> keys = new HashSet<>(beforeMap.keySet());
+        keys.addAll(afterMap.keySet());
+        Map<String, Object> diff = new HashMap<>();
+        for (String key : keys) {
+            if (!Objects.deepEquals(beforeMap.get(key), afterMap.get(key))) {
+                diff.put(key, afterMap.get(key));
+            }
+        }
+        return diff;
+    }
+
+    @Test
+    public void sameObjectsHaveNoDiff() {
+        assertTrue(ObjectMappingMapUtil.diffToMap(newPerson(), newPerson()).isEmpty());
+    }
+
+    @Test
+    public void diffMatchesFullMaps() {
+        Person before = newPerson();
+        Person after = newPerson();
+        after.age = 37;
+        after.score = Double.NaN;
+        // 同一天的不同时间 格式化后相同
+        after.birthday = new Date(before.birthday.getTime() + 1000);
+        after.codes = new int[]{1, 3};
+        after.address.city = "Paris";
+        Map<String, Object> diff = ObjectMappingMapUtil.diffToMap(before, after);
+        assertEquals(expectedDiff(before, after), diff);
+        assertEquals(new HashSet<>(Arrays.asList("age", "score", "codes", "city")), diff.keySet());
+
+        after.address = null;
+        assertEquals(expectedDiff(before, after), ObjectMappingMapUtil.diffToMap(before, after));
+        assertEquals(expectedDiff(after, before), ObjectMappingMapUtil.diffToMap(after, before));
+    }
+
+    @Test
+    public void missingSideDiffsAllKeys() {
+        Person person = newPerson();
+        assertEquals(expectedDiff(person, null), ObjectMappingMapUtil.diffToMap(person, null));
+        assertEquals(ObjectMappingMapUtil.objectToMap(person), ObjectMappingMapUtil.diffToMap(null, person));
+    }
+}
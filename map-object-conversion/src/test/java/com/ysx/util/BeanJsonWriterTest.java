@@ -0,0 +1,224 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.CatchAllProperty;
+import com.ysx.util.annotation.DateMapping;
+import com.ysx.util.annotation.IgnoreMapMapping;
+import com.ysx.util.annotation.MapKeyMapping;
+import com.ysx.util.handler.impl.ValueEmptyHandler;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class BeanJsonWriterTest {
+
+    public enum Level {
+        LOW, HIGH
+    }
+
+    public static class Address {
+        private String city;
+        private String name;
+    }
+
+    public static class Person {
+        @MapKeyMapping("full_name")
+        private String name;
+        private int age;
+        private double score;
+        private Boolean active;
+        private String note;
+        private Level level;
+        private Date created;
+        @DateMapping("yyyy-MM-dd")
+        private Date birthday;
+        @IgnoreMapMapping
+        private String secret;
+        private List<String> tags;
+        private List<Address> addresses;
+        private Map<String, Address> addressByType;
+        @CatchAllProperty
+        private Address home;
+    }
+
+    private static Person newPerson() {
+        Person person = new Person();
+        person.name = "Ada \"A\"\n";
+        person.age = 36;
+        person.score = 1.5;
+        person.active = true;
+        person.level = Level.HIGH;
+        person.created = new Date(1700000000000L);
+        person.birthday = new Date(1700000000000L);
+        person.secret = "s";
+        person.tags = Arrays.asList("x", "y");
+        Address work = new Address();
+        work.city = "w";
+        person.addresses = Arrays.asList(work, null);
+        person.addressByType = new LinkedHashMap<>();
+        person.addressByType.put("work", work);
+        person.home = new Address();
+        person.home.city = "h";
+        person.home.name = "home";
+        return person;
+    }
+
+    @Test
+    public void jsonMatchesObjectToMap() throws Exception {
+        Person person = newPerson();
+        assertEquals(normalize(ObjectMappingMapUtil.objectToMap(person)), new JsonParser(ObjectMappingMapUtil.toJson(person)).parse());
+
+        StringWriter writer = new StringWriter();
+        ObjectMappingMapUtil.writeJson(person, Object.class, new ValueEmptyHandler(), writer);
+        assertEquals(normalize(ObjectMappingMapUtil.objectToMap(person, Object.class, new ValueEmptyHandler())), new JsonParser(writer.toString()).parse());
+    }
+
+    @Test
+    public void catchAllKeysFollowRuntimeValue() {
+        Person person = newPerson();
+        person.home = null;
+        assertEquals(normalize(ObjectMappingMapUtil.objectToMap(person)), new JsonParser(ObjectMappingMapUtil.toJson(person)).parse());
+    }
+
+    /**
+     * 将 objectToMap 的值转为 JSON 解析后的形式: 数字为 BigDecimal，Date 为毫秒数，枚举为名称
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> map = new HashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(String.valueOf(entry.getKey()), normalize(entry.getValue()));
+            }
+            return map;
+        }
+        if (value instanceof List) {
+            List<Object> list = new ArrayList<>();
+            for (Object element : (List<?>) value) {
+                list.add(normalize(element));
+            }
+            return list;
+        }
+        if (value instanceof Number) {
+            return new BigDecimal(value.toString()).stripTrailingZeros();
+        }
+        if (value instanceof Date) {
+            return new BigDecimal(((Date) value).getTime()).stripTrailingZeros();
+        }
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        return value;
+    }
+
+    /**
+     * 测试用的 JSON 解析 对象为 HashMap，数组为 ArrayList，数字为 BigDecimal
+     */
+    private static final class JsonParser {
+        private final String json;
+        private int position;
+
+        private JsonParser(String json) {
+            this.json = json;
+        }
+
+        private Object parse() {
+            Object value = value();
+            assertEquals(json.length(), position);
+            return value;
+        }
+
+        private Object value() {
+            char c = json.charAt(position);
+            if (c == '{') {
+                Map<String, Object> map = new HashMap<>();
+                position++;
+                while (json.charAt(position) != '}') {
+                    String key = string();
+                    expect(':');
+                    map.put(key, value());
+                    if (json.charAt(position) == ',') {
+                        position++;
+                    }
+                }
+                position++;
+                return map;
+            }
+            if (c == '[') {
+                List<Object> list = new ArrayList<>();
+                position++;
+                while (json.charAt(position) != ']') {
+                    list.add(value());
+                    if (json.charAt(position) == ',') {
+                        position++;
+                    }
+                }
+                position++;
+                return list;
+            }
+            if (c == '"') {
+                return string();
+            }
+            for (String literal : new String[]{"null", "true", "false"}) {
+                if (json.startsWith(literal, position)) {
+                    position += literal.length();
+                    return "null".equals(literal) ? null : Boolean.valueOf(literal);
+                }
+            }
+            int start = position;
+            while (position < json.length() && "-+.eE0123456789".indexOf(json.charAt(position)) >= 0) {
+                position++;
+            }
+            return new BigDecimal(json.substring(start, position)).stripTrailingZeros();
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder builder = new StringBuilder();
+            char c;
+            while ((c = json.charAt(position++)) != '"') {
+                if (c != '\\') {
+                    builder.append(c);
+                    continue;
+                }
+                c = json.charAt(position++);
+                switch (c) {
+                    case 'n':
+                        builder.append('\n');
+                        break;
+                    case 't':
+                        builder.append('\t');
+                        break;
+                    case 'r':
+                        builder.append('\r');
+                        break;
+                    case 'b':
+                        builder.append('\b');
+                        break;
+                    case 'f':
+                        builder.append('\f');
+                        break;
+                    case 'u':
+                        builder.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                        position += 4;
+                        break;
+                    default:
+                        builder.append(c);
+                }
+            }
+            return builder.toString();
+        }
+
+        private void expect(char c) {
+            assertEquals(c, json.charAt(position++));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.CatchAllProperty;
+import com.ysx.util.annotation.MapKeyMapping;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BeanMapViewTest {
+
+    public static class Plain {
+        private String name = "p";
+        private Integer count;
+        @MapKeyMapping("name")
+        private String alias = "a";
+    }
+
+    public static class Inner {
+        private String city = "c";
+        private String name = "inner";
+    }
+
+    public static class Outer {
+        private String name = "outer";
+        @CatchAllProperty
+        private Inner inner = new Inner();
+    }
+
+    public static class Empty {
+    }
+
+    @Test
+    public void sizeMatchesObjectToMapWithoutCatchAll() {
+        Plain plain = new Plain();
+        Map<String, Object> view = ObjectMappingMapUtil.asMap(plain);
+        Map<String, Object> map = ObjectMappingMapUtil.objectToMap(plain);
+        assertEquals(map.size(), view.size());
+        assertEquals(map, view);
+        assertTrue(view.containsKey("count"));
+        assertEquals("a", view.get("name"));
+        assertTrue(ObjectMappingMapUtil.asMap(new Empty()).isEmpty());
+    }
+
+    @Test
+    public void sizeFollowsRuntimeCatchAllValue() {
+        Outer outer = new Outer();
+        Map<String, Object> view = ObjectMappingMapUtil.asMap(outer);
+        assertEquals(ObjectMappingMapUtil.objectToMap(outer).size(), view.size());
+        assertEquals("inner", view.get("name"));
+
+        outer.inner = null;
+        assertEquals(ObjectMappingMapUtil.objectToMap(outer).size(), view.size());
+        assertFalse(view.isEmpty());
+        assertEquals("outer", view.get("name"));
+    }
+}
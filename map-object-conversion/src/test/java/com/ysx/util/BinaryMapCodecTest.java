@@ -0,0 +1,177 @@
+package com.ysx.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BinaryMapCodecTest {
+
+    public enum Level {
+        LOW, HIGH
+    }
+
+    public static class Money implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final long cents;
+
+        public Money(long cents) {
+            this.cents = cents;
+        }
+    }
+
+    public static class Opaque implements Serializable {
+        private static final long serialVersionUID = 1L;
+    }
+
+    public static class Item {
+        private String name;
+        private int count;
+        private BigDecimal price;
+        private Level level;
+        private LocalDate day;
+        private ZoneOffset offset;
+        private String[] tags;
+        private int[] scores;
+        private List<String> notes;
+        private Money money;
+        private byte[] payload;
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Item newItem(int count) {
+        Item item = new Item();
+        item.name = "item" + count;
+        item.count = count;
+        item.price = new BigDecimal("12.50");
+        item.level = Level.HIGH;
+        item.day = LocalDate.of(2024, 2, 29);
+        item.offset = ZoneOffset.ofHours(8);
+        item.tags = new String[]{"x", "y"};
+        item.scores = new int[]{1, 2, 3};
+        item.notes = new ArrayList<>(Arrays.asList("a", "b"));
+        item.money = new Money(995);
+        return item;
+    }
+
+    private static void assertItem(Item expected, Item actual) {
+        assertEquals(expected.name, actual.name);
+        assertEquals(expected.count, actual.count);
+        assertEquals(expected.price, actual.price);
+        assertEquals(expected.level, actual.level);
+        assertEquals(expected.day, actual.day);
+        assertEquals(expected.offset, actual.offset);
+        assertArrayEquals(expected.tags, actual.tags);
+        assertArrayEquals(expected.scores, actual.scores);
+        assertEquals(expected.notes, actual.notes);
+        assertEquals(expected.money.cents, actual.money.cents);
+        assertArrayEquals(expected.payload, actual.payload);
+    }
+
+    @Test
+    public void byteBufferRoundTripMatchesMapToObject() {
+        BinaryMapCodec<Item> codec = BinaryMapCodec.of(Item.class);
+        Item first = newItem(1);
+        Item second = newItem(2);
+        second.payload = new byte[]{7, 8};
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(4096), ByteBuffer.allocateDirect(4096)}) {
+            codec.writeHeader(buffer);
+            codec.write(ObjectMappingMapUtil.objectToMap(first), buffer);
+            codec.write(ObjectMappingMapUtil.objectToMap(second), buffer);
+            buffer.flip();
+
+            BinaryMapCodec<Item> reader = codec.readHeader(buffer);
+            assertItem(ObjectMappingMapUtil.mapToObject(ObjectMappingMapUtil.objectToMap(first), Item.class, null), reader.readObject(buffer));
+            assertItem(second, reader.readObject(buffer));
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void arraysKeepTheirComponentType() {
+        BinaryMapCodec<Item> codec = BinaryMapCodec.of(Item.class);
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        Map<String, Object> map = new HashMap<>();
+        map.put("tags", new String[]{"x", "y"});
+        map.put("extra", new Level[]{Level.LOW});
+        codec.write(map, buffer);
+        buffer.flip();
+
+        Map<String, Object> read = codec.readMap(buffer);
+        assertArrayEquals(new String[]{"x", "y"}, (String[]) read.get("tags"));
+        assertArrayEquals(new Level[]{Level.LOW}, (Level[]) read.get("extra"));
+    }
+
+    @Test
+    public void unlistedSerializableTypesAreRejected() {
+        BinaryMapCodec<Item> codec = BinaryMapCodec.of(Item.class);
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        try {
+            codec.write(Collections.<String, Object>singletonMap("name", new Opaque()), buffer);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, buffer.position());
+        }
+        try {
+            codec.write(Collections.<String, Object>singletonMap("name", Collections.singletonList(new Opaque())), buffer);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, buffer.position());
+        }
+
+        // 写入时允许的类 读取时不在允许范围内则不反序列化
+        BinaryValues.write(buffer, new Opaque(), Collections.<Class<?>>singleton(Opaque.class));
+        buffer.flip();
+        assertNull(BinaryValues.read(buffer, Item.class.getClassLoader(), Collections.<Class<?>>emptySet()));
+    }
+
+    @Test
+    public void spillAcrossRegions() throws Exception {
+        BinaryMapCodec<Item> codec = BinaryMapCodec.of(Item.class);
+        List<Item> items = new ArrayList<>();
+        // 前三条填满第一个 64M 区域后换区域，最后一条超过区域大小
+        for (int i = 0; i < 3; i++) {
+            Item item = newItem(i);
+            item.payload = new byte[30 * 1024 * 1024];
+            item.payload[i] = (byte) (i + 1);
+            items.add(item);
+        }
+        Item large = newItem(3);
+        large.payload = new byte[70 * 1024 * 1024];
+        large.payload[large.payload.length - 1] = 9;
+        items.add(large);
+        items.add(newItem(4));
+
+        Path file = folder.newFile().toPath();
+        assertEquals(items.size(), codec.spillObjects(file, items.iterator()));
+        try (BinaryMapCodec.Reader<Item> reader = codec.open(file)) {
+            assertEquals(codec.getKeys(), reader.getKeys());
+            for (Item item : items) {
+                assertTrue(reader.hasNext());
+                assertItem(item, reader.next());
+            }
+            assertFalse(reader.hasNext());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.CatchAllProperty;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class CatchAllTraversalTest {
+
+    public static class Shared {
+        private String code;
+    }
+
+    public static class Other {
+        private String code;
+    }
+
+    public static class Holder {
+        @CatchAllProperty
+        private Shared first;
+        @CatchAllProperty
+        private Other middle;
+        @CatchAllProperty
+        private Shared last;
+    }
+
+    public static class Node {
+        private String name;
+        @CatchAllProperty
+        private Node next;
+    }
+
+    @Test
+    public void sharedObjectIsPopulatedOnEveryPath() {
+        Shared shared = new Shared();
+        shared.code = "shared";
+        Other other = new Other();
+        other.code = "other";
+        Holder holder = new Holder();
+        holder.first = shared;
+        holder.middle = other;
+        holder.last = shared;
+        Map<String, Object> map = ObjectMappingMapUtil.objectToMap(holder);
+        // 与递归相同 后面的字段覆盖前面的键
+        assertEquals("shared", map.get("code"));
+    }
+
+    @Test
+    public void selfReferenceStopsAtCycle() {
+        Node node = new Node();
+        node.name = "n";
+        node.next = node;
+        Map<String, Object> map = ObjectMappingMapUtil.objectToMap(node);
+        assertEquals("n", map.get("name"));
+        assertEquals(1, map.size());
+    }
+}
@@ -0,0 +1,101 @@
+package com.ysx.util;
+
+import com.ysx.util.converter.TypeConverters;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ClassUnloadingTest {
+
+    public enum Level {
+        LOW, HIGH
+    }
+
+    public static class Payload {
+        private String name = "p";
+        private Integer count = 1;
+        private Level level = Level.HIGH;
+    }
+
+    public static class Target {
+        private String name;
+        private Integer count;
+    }
+
+    /**
+     * 自行定义指定的类 其他类委托给父加载器
+     */
+    private static final class IsolatingLoader extends ClassLoader {
+        private IsolatingLoader() {
+            super(ClassUnloadingTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(Payload.class.getName()) && !name.equals(Level.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+                try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[4096];
+                    for (int read; (read = in.read(buffer)) > 0; ) {
+                        out.write(buffer, 0, read);
+                    }
+                    byte[] bytes = out.toByteArray();
+                    return defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void cachesDoNotPinChildClassLoader() throws Exception {
+        WeakReference<ClassLoader> loader = convertInChildLoader();
+        for (int i = 0; i < 50 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(loader.get());
+    }
+
+    private static WeakReference<ClassLoader> convertInChildLoader() throws Exception {
+        IsolatingLoader loader = new IsolatingLoader();
+        Class<?> payloadClass = loader.loadClass(Payload.class.getName());
+        Class<?> levelClass = loader.loadClass(Level.class.getName());
+        ObjectMappingConfig.setMetricsEnabled(true);
+        try {
+            Object payload = payloadClass.getDeclaredConstructor().newInstance();
+            Map<String, Object> map = ObjectMappingMapUtil.objectToMap(payload);
+            Map<String, Object> row = new HashMap<>(map);
+            row.put("level", "LOW");
+            for (int i = 0; i < 3; i++) {
+                ObjectMappingMapUtil.mapToObject(row, payloadClass, null);
+            }
+            @SuppressWarnings("unchecked")
+            BeanCopier<Object, Target> toTarget = (BeanCopier<Object, Target>) BeanCopier.of(payloadClass, Target.class);
+            assertEquals("p", toTarget.copy(payload).name);
+            @SuppressWarnings("unchecked")
+            BeanCopier<Target, Object> fromTarget = (BeanCopier<Target, Object>) BeanCopier.of(Target.class, payloadClass);
+            fromTarget.copy(new Target());
+            assertEquals("LOW", String.valueOf(TypeConverters.convert("LOW", levelClass)));
+        } finally {
+            ObjectMappingConfig.setMetricsEnabled(false);
+        }
+        return new WeakReference<ClassLoader>(loader);
+    }
+}
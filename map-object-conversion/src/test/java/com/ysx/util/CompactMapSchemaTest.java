@@ -0,0 +1,77 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.CatchAllProperty;
+import com.ysx.util.handler.impl.ValueEmptyHandler;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class CompactMapSchemaTest {
+
+    public static class Row {
+        private String a;
+        private String b;
+        private String c;
+
+        Row(String a, String b, String c) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+        }
+    }
+
+    public static class Inner {
+        private String name;
+        private String city;
+    }
+
+    public static class Outer {
+        private String name;
+        @CatchAllProperty
+        private Inner inner;
+    }
+
+    private static CompactMap convert(Row row) {
+        return (CompactMap) ObjectMappingMapUtil.objectToCompactMap(row, Object.class, new ValueEmptyHandler());
+    }
+
+    @Test
+    public void alternatingKeySetsReuseTheirSchemas() {
+        CompactMap full = convert(new Row("1", "2", "3"));
+        CompactMap withoutB = convert(new Row("1", null, "3"));
+        CompactMap withoutC = convert(new Row("1", "2", null));
+        for (int i = 0; i < 3; i++) {
+            assertSame(full.getSchema(), convert(new Row("x", "y", "z")).getSchema());
+            assertSame(withoutB.getSchema(), convert(new Row("x", null, "z")).getSchema());
+            assertSame(withoutC.getSchema(), convert(new Row("x", "y", null)).getSchema());
+        }
+    }
+
+    @Test
+    public void valuesMatchObjectToMap() {
+        convert(new Row("1", "2", "3"));
+        Row row = new Row("x", "y", null);
+        Map<String, Object> compact = convert(row);
+        assertEquals(ObjectMappingMapUtil.objectToMap(row, Object.class, new ValueEmptyHandler()), compact);
+        assertEquals(2, compact.size());
+    }
+
+    @Test
+    public void repeatedKeysShareOneSchema() {
+        Outer outer = new Outer();
+        outer.name = "outer";
+        outer.inner = new Inner();
+        outer.inner.name = "inner";
+        outer.inner.city = "c";
+        CompactMap first = (CompactMap) ObjectMappingMapUtil.objectToCompactMap(outer, Object.class, null);
+        assertEquals(ObjectMappingMapUtil.objectToMap(outer), first);
+        for (int i = 0; i < 3; i++) {
+            CompactMap next = (CompactMap) ObjectMappingMapUtil.objectToCompactMap(outer, Object.class, null);
+            assertSame(first.getSchema(), next.getSchema());
+            assertEquals(first, next);
+        }
+    }
+}
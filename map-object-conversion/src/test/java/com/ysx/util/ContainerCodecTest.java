@@ -0,0 +1,109 @@
+package com.ysx.util;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ContainerCodecTest {
+
+    public static class Line {
+        private String sku;
+        private int quantity;
+
+        public Line() {
+        }
+
+        Line(String sku, int quantity) {
+            this.sku = sku;
+            this.quantity = quantity;
+        }
+    }
+
+    public static class Order {
+        private List<Line> lines;
+        private Line[] gifts;
+        private Map<String, Line> bySku;
+        private TreeMap<String, Line> sorted;
+        private Deque<Line> pending;
+        private List<String> notes;
+    }
+
+    private static void assertLine(Line expected, Line actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.sku, actual.sku);
+        assertEquals(expected.quantity, actual.quantity);
+    }
+
+    @Test
+    public void containersRoundTrip() {
+        Order order = new Order();
+        Line a = new Line("a", 1);
+        Line b = new Line("b", 2);
+        order.lines = Arrays.asList(a, null, b);
+        order.gifts = new Line[]{b};
+        order.bySku = new LinkedHashMap<>();
+        order.bySku.put("a", a);
+        order.sorted = new TreeMap<>();
+        order.sorted.put("b", b);
+        order.pending = new ArrayDeque<>(Arrays.asList(a, b));
+        order.notes = Arrays.asList("x", "y");
+
+        Map<String, Object> map = ObjectMappingMapUtil.objectToMap(order);
+        List<?> lines = (List<?>) map.get("lines");
+        assertEquals(3, lines.size());
+        assertEquals(ObjectMappingMapUtil.objectToMap(a), lines.get(0));
+        assertNull(lines.get(1));
+        assertEquals(Arrays.asList(ObjectMappingMapUtil.objectToMap(b)), map.get("gifts"));
+        assertEquals(ObjectMappingMapUtil.objectToMap(a), ((Map<?, ?>) map.get("bySku")).get("a"));
+        assertEquals(order.notes, map.get("notes"));
+
+        Order copy = ObjectMappingMapUtil.mapToObject(map, Order.class, null);
+        assertEquals(3, copy.lines.size());
+        for (int i = 0; i < order.lines.size(); i++) {
+            assertLine(order.lines.get(i), copy.lines.get(i));
+        }
+        assertEquals(1, copy.gifts.length);
+        assertLine(b, copy.gifts[0]);
+        assertLine(a, copy.bySku.get("a"));
+        assertTrue(copy.sorted instanceof TreeMap);
+        assertLine(b, copy.sorted.get("b"));
+        assertEquals(2, copy.pending.size());
+        assertLine(a, copy.pending.peekFirst());
+        assertLine(b, copy.pending.peekLast());
+        assertEquals(order.notes, copy.notes);
+    }
+
+    @Test
+    public void parallelConversionKeepsOrder() {
+        int threshold = ObjectMappingConfig.getParallelThreshold();
+        ObjectMappingConfig.setParallelThreshold(16);
+        try {
+            Order order = new Order();
+            order.lines = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                order.lines.add(new Line("sku" + i, i));
+            }
+            Order copy = ObjectMappingMapUtil.mapToObject(ObjectMappingMapUtil.objectToMap(order), Order.class, null);
+            assertEquals(order.lines.size(), copy.lines.size());
+            for (int i = 0; i < order.lines.size(); i++) {
+                assertLine(order.lines.get(i), copy.lines.get(i));
+            }
+        } finally {
+            ObjectMappingConfig.setParallelThreshold(threshold);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ysx.util;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConversionMetricsTest {
+
+    public static class Disabled {
+        private String name = "d";
+    }
+
+    public static class Enabled {
+        private String name = "e";
+    }
+
+    public static class Timed {
+        private String name = "t";
+    }
+
+    @Test
+    public void countersOnlyRecordWhileEnabled() {
+        ObjectMappingMetricsMXBean metrics = ObjectMappingConfig.getMetrics();
+        ObjectMappingConfig.setMetricsEnabled(false);
+        long planMisses = metrics.getPlanCacheMisses();
+        long fieldMisses = metrics.getFieldCacheMisses();
+        ObjectMappingMapUtil.objectToMap(new Disabled());
+        assertEquals(planMisses, metrics.getPlanCacheMisses());
+        assertEquals(fieldMisses, metrics.getFieldCacheMisses());
+
+        ObjectMappingConfig.setMetricsEnabled(true);
+        try {
+            Map<String, Object> map = new HashMap<>();
+            map.put("name", "x");
+            ObjectMappingMapUtil.mapToObject(map, Enabled.class, null);
+            assertTrue(metrics.getPlanCacheMisses() > planMisses);
+            Map<String, ClassConversionStats> stats = metrics.getClassStats();
+            assertTrue(stats.containsKey(Enabled.class.getName()));
+            assertFalse(stats.containsKey(Disabled.class.getName()));
+            metrics.reset();
+            assertFalse(metrics.getClassStats().containsKey(Enabled.class.getName()));
+        } finally {
+            ObjectMappingConfig.setMetricsEnabled(false);
+        }
+    }
+
+    @Test
+    public void everyEntryPointRecordsOnce() {
+        ObjectMappingMetricsMXBean metrics = ObjectMappingConfig.getMetrics();
+        ObjectMappingConfig.setMetricsEnabled(true);
+        try {
+            metrics.reset();
+            Timed timed = new Timed();
+            Set<String> keys = Collections.singleton("name");
+            Map<String, Object> map = ObjectMappingMapUtil.objectToMap(timed);
+            ObjectMappingMapUtil.projectToMap(timed, keys);
+            ObjectMappingMapUtil.objectToPathMap(timed);
+            ObjectMappingMapUtil.objectToSink(timed, new MapSink() {
+                @Override
+                public void putInt(String key, int value) {
+                }
+
+                @Override
+                public void putLong(String key, long value) {
+                }
+
+                @Override
+                public void putDouble(String key, double value) {
+                }
+
+                @Override
+                public void putBoolean(String key, boolean value) {
+                }
+
+                @Override
+                public void putObject(String key, Object value) {
+                }
+            });
+            assertEquals(4, metrics.getClassStats().get(Timed.class.getName()).getObjectToMapCount());
+
+            ObjectMappingMapUtil.mapToObject(map, Timed.class, null);
+            ObjectMappingMapUtil.projectToObject(map, Timed.class, keys);
+            ObjectMappingMapUtil.pathMapToObject(map, Timed.class);
+            ObjectMappingMapUtil.mapIntoObject(map, timed);
+            assertEquals(4, metrics.getClassStats().get(Timed.class.getName()).getMapToObjectCount());
+        } finally {
+            ObjectMappingConfig.setMetricsEnabled(false);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.DateMapping;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class DateCodecTest {
+
+    public static class Event {
+        @DateMapping
+        private Date created;
+        @DateMapping("yyyy/MM/dd")
+        private LocalDate day;
+        @DateMapping("yyyy-MM-dd HH:mm:ss")
+        private LocalDateTime at;
+        @DateMapping("yyyy-MM-dd HH:mm:ss")
+        private Instant instant;
+    }
+
+    @Test
+    public void javaTimeRoundTrip() {
+        Event event = new Event();
+        event.created = new Date(1700000000000L);
+        event.day = LocalDate.of(2024, 2, 29);
+        event.at = LocalDateTime.of(2024, 2, 29, 13, 5, 9);
+        event.instant = Instant.ofEpochSecond(1700000000L);
+
+        Map<String, Object> map = ObjectMappingMapUtil.objectToMap(event);
+        assertEquals(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(event.created), map.get("created"));
+        assertEquals("2024/02/29", map.get("day"));
+        assertEquals("2024-02-29 13:05:09", map.get("at"));
+
+        Event copy = ObjectMappingMapUtil.mapToObject(map, Event.class, null);
+        assertEquals(event.created, copy.created);
+        assertEquals(event.day, copy.day);
+        assertEquals(event.at, copy.at);
+        assertEquals(event.instant, copy.instant);
+    }
+
+    @Test
+    public void codecIsSharedAcrossThreads() throws Exception {
+        assertSame(DateCodec.of("yyyy-MM-dd HH:mm:ss"), DateCodec.of("yyyy-MM-dd HH:mm:ss"));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final long offset = t * 86400000L;
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        Event event = new Event();
+                        for (int i = 0; i < 500; i++) {
+                            event.created = new Date(1700000000000L + offset + i * 1000L);
+                            Event copy = ObjectMappingMapUtil.mapToObject(ObjectMappingMapUtil.objectToMap(event), Event.class, null);
+                            if (!event.created.equals(copy.created)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertEquals(Boolean.TRUE, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
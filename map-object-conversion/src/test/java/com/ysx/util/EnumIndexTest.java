@@ -0,0 +1,69 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.CatchAllProperty;
+import com.ysx.util.annotation.CatchSingleProperty;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class EnumIndexTest {
+
+    public enum Status {
+        ACTIVE(1, "a"), INACTIVE(2, "i"), UNKNOWN(3, null);
+
+        private final int code;
+        private final String label;
+
+        Status(int code, String label) {
+            this.code = code;
+            this.label = label;
+        }
+    }
+
+    public static class SingleHolder {
+        @CatchSingleProperty("code")
+        private Status status;
+    }
+
+    public static class AllHolder {
+        private String name;
+        @CatchAllProperty
+        private Status status;
+    }
+
+    @Test
+    public void singlePropertyRoundTrip() {
+        for (Status status : Status.values()) {
+            SingleHolder holder = new SingleHolder();
+            holder.status = status;
+            Map<String, Object> map = ObjectMappingMapUtil.objectToMap(holder);
+            assertEquals(status.code, map.get("code"));
+            assertSame(status, ObjectMappingMapUtil.mapToObject(map, SingleHolder.class, null).status);
+        }
+        Map<String, Object> map = new HashMap<>();
+        map.put("code", 9);
+        assertNull(ObjectMappingMapUtil.mapToObject(map, SingleHolder.class, null).status);
+    }
+
+    @Test
+    public void allPropertiesRoundTrip() {
+        for (Status status : Status.values()) {
+            AllHolder holder = new AllHolder();
+            holder.name = "n";
+            holder.status = status;
+            Map<String, Object> map = ObjectMappingMapUtil.objectToMap(holder);
+            assertSame(status, ObjectMappingMapUtil.mapToObject(map, AllHolder.class, null).status);
+            assertSame(status, ObjectMappingMapUtil.mapToObject(ObjectMappingMapUtil.objectToMap(status, Enum.class), Status.class, null));
+        }
+        // 全部属性都要匹配
+        Map<String, Object> map = new HashMap<>();
+        map.put("code", 1);
+        map.put("label", "i");
+        assertNull(ObjectMappingMapUtil.mapToObject(map, Status.class, null));
+    }
+}
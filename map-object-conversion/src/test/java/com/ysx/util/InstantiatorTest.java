@@ -0,0 +1,89 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.MapCreator;
+import com.ysx.util.annotation.MapKeyMapping;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 测试类编译时未使用 -parameters 参数名不可用
+ */
+public class InstantiatorTest {
+
+    /**
+     * 参数类型互不相同 顺序与字段不同
+     */
+    public static class Point {
+        private final int x;
+        private final String label;
+
+        public Point(String label, int x) {
+            this.label = label;
+            this.x = x;
+        }
+    }
+
+    /**
+     * 两个同类型参数 无法确定对应的字段
+     */
+    public static class FullName {
+        private final String first;
+        private final String last;
+
+        public FullName(String first, String last) {
+            this.first = first;
+            this.last = last;
+        }
+    }
+
+    public static class Named {
+        private final String first;
+        private final String last;
+        private int age;
+
+        private Named(String first, String last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        @MapCreator
+        static Named of(@MapKeyMapping("last") String last, @MapKeyMapping("first_name") String first) {
+            return new Named(first, last);
+        }
+    }
+
+    @Test
+    public void distinctParameterTypesBindByType() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("x", "7");
+        map.put("label", "p");
+        Point point = ObjectMappingMapUtil.mapToObject(map, Point.class, null);
+        assertEquals(7, point.x);
+        assertEquals("p", point.label);
+    }
+
+    @Test
+    public void sameTypedParametersWithoutNamesAreNotGuessed() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("first", "Ada");
+        map.put("last", "Lovelace");
+        assertNull(ObjectMappingMapUtil.mapToObject(map, FullName.class, null));
+    }
+
+    @Test
+    public void mapCreatorBindsAnnotatedParametersAndFillsOtherFields() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("firstName", "Ada");
+        map.put("last", "Lovelace");
+        map.put("age", 36);
+        Named named = ObjectMappingMapUtil.mapToObject(map, Named.class, null);
+        assertEquals("Ada", named.first);
+        assertEquals("Lovelace", named.last);
+        assertEquals(36, named.age);
+    }
+}
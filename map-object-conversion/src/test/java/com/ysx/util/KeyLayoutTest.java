@@ -0,0 +1,41 @@
+package com.ysx.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class KeyLayoutTest {
+
+    private static Map<String, Object> shape(int i) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("user_name", "n");
+        map.put("extra" + i, i);
+        return map;
+    }
+
+    @Test
+    public void sameKeysShareLayout() {
+        Map<String, Object> first = shape(1);
+        Map<String, Object> second = new HashMap<>(first);
+        assertSame(KeyLayout.of(first), KeyLayout.of(first));
+        assertEquals(KeyLayout.of(first).presentKey("extra1"), KeyLayout.of(second).presentKey("extra1"));
+    }
+
+    @Test
+    public void manyShapesResolveTheirOwnKeys() {
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 1000; i++) {
+                KeyLayout layout = KeyLayout.of(shape(i));
+                assertEquals("extra" + i, layout.presentKey("extra" + i));
+                assertNull(layout.presentKey("extra" + (i + 1)));
+                assertEquals("user_name", layout.originalKey(ObjectMappingMapUtil.commonProcess("userName")));
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.CatchAllProperty;
+import com.ysx.util.annotation.MapKeyMapping;
+import com.ysx.util.handler.impl.ValueEmptyHandler;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class MapIntoObjectTest {
+
+    public enum Level {
+        LOW, HIGH
+    }
+
+    public static class Address {
+        private String city;
+        private String street;
+    }
+
+    public static class Person {
+        @MapKeyMapping("full_name")
+        private String name;
+        private int age;
+        private Integer score;
+        @CatchAllProperty
+        private Address address;
+    }
+
+    @Test
+    public void objectToMapFillsCallerMap() {
+        Person person = new Person();
+        person.name = "Ada";
+        person.age = 36;
+        Map<String, Object> target = new HashMap<>();
+        target.put("other", "kept");
+        target.put("age", 1);
+        assertSame(target, ObjectMappingMapUtil.objectToMap(person, target, null, new ValueEmptyHandler()));
+
+        Map<String, Object> expected = new HashMap<>(ObjectMappingMapUtil.objectToMap(person, null, new ValueEmptyHandler()));
+        expected.put("other", "kept");
+        assertEquals(expected, target);
+        assertNull(ObjectMappingMapUtil.objectToMap(person, null, null, null));
+    }
+
+    @Test
+    public void onlyPresentKeysAreUpdated() {
+        Person person = new Person();
+        person.name = "Ada";
+        person.age = 36;
+        person.score = 5;
+        Address address = new Address();
+        address.street = "st";
+        person.address = address;
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("age", "37");
+        map.put("score", null);
+        map.put("full_name", new Object());
+        map.put("city", "London");
+        assertSame(person, ObjectMappingMapUtil.mapIntoObject(map, person));
+        assertEquals(37, person.age);
+        // 值为 null 或无法转换的键 字段保持原值
+        assertEquals(Integer.valueOf(5), person.score);
+        assertEquals("Ada", person.name);
+        // 已存在的嵌套对象在其上更新
+        assertSame(address, person.address);
+        assertEquals("London", address.city);
+        assertEquals("st", address.street);
+    }
+
+    @Test
+    public void nestedObjectIsCreatedOnlyForItsKeys() {
+        Person person = new Person();
+        Map<String, Object> map = new HashMap<>();
+        map.put("age", 1);
+        ObjectMappingMapUtil.mapIntoObject(map, person);
+        assertNull(person.address);
+
+        map.put("street", "st");
+        ObjectMappingMapUtil.mapIntoObject(map, person);
+        assertNotNull(person.address);
+        assertEquals("st", person.address.street);
+        assertSame(Level.HIGH, ObjectMappingMapUtil.mapIntoObject(map, Level.HIGH));
+    }
+}
@@ -0,0 +1,69 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.CatchAllProperty;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class NestedPathMappingTest {
+
+    public static class Inner {
+        private String name;
+        private Integer level;
+    }
+
+    public static class Outer {
+        private String name;
+        private Integer level;
+        @CatchAllProperty
+        private Inner a;
+        @CatchAllProperty
+        private Inner b;
+        private Inner c;
+    }
+
+    @Test
+    public void overlappingNamesRoundTrip() {
+        Outer outer = new Outer();
+        outer.name = "outer";
+        outer.level = 1;
+        outer.a = new Inner();
+        outer.a.name = "a";
+        outer.a.level = 2;
+        outer.c = new Inner();
+        outer.c.name = "c";
+
+        Map<String, Object> map = ObjectMappingMapUtil.objectToPathMap(outer);
+        assertEquals("outer", map.get("name"));
+        assertEquals("a", map.get("a.name"));
+        assertEquals("c", map.get("c.name"));
+
+        Outer copy = ObjectMappingMapUtil.pathMapToObject(map, Outer.class);
+        assertEquals("outer", copy.name);
+        assertEquals(Integer.valueOf(1), copy.level);
+        assertNotNull(copy.a);
+        assertEquals("a", copy.a.name);
+        assertEquals(Integer.valueOf(2), copy.a.level);
+        assertNotNull(copy.c);
+        assertEquals("c", copy.c.name);
+        assertNull(copy.c.level);
+    }
+
+    @Test
+    public void nestedFieldsWithoutPrefixedKeysStayNull() {
+        Outer outer = new Outer();
+        outer.name = "outer";
+        outer.level = 1;
+
+        Outer copy = ObjectMappingMapUtil.pathMapToObject(ObjectMappingMapUtil.objectToPathMap(outer), Outer.class);
+        assertEquals("outer", copy.name);
+        // 上一层的同名属性不会填充到嵌套对象
+        assertNull(copy.a);
+        assertNull(copy.b);
+        assertNull(copy.c);
+    }
+}
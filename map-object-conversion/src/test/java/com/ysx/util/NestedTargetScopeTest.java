@@ -0,0 +1,55 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.CatchAllProperty;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+public class NestedTargetScopeTest {
+
+    public static class Inner {
+        private String name;
+    }
+
+    public static class Outer {
+        @CatchAllProperty
+        private Inner a;
+        @CatchAllProperty
+        private Inner b;
+    }
+
+    public static class Node {
+        private String name;
+        @CatchAllProperty
+        private Node next;
+    }
+
+    @Test
+    public void siblingCatchAllFieldsGetDistinctInstances() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", "x");
+        Outer outer = ObjectMappingMapUtil.mapToObject(map, Outer.class, null);
+        assertNotNull(outer.a);
+        assertNotNull(outer.b);
+        assertNotSame(outer.a, outer.b);
+        assertEquals("x", outer.a.name);
+        assertEquals("x", outer.b.name);
+        outer.a.name = "changed";
+        assertEquals("x", outer.b.name);
+    }
+
+    @Test
+    public void selfReferencingTypeStopsAtCycle() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", "n");
+        Node node = ObjectMappingMapUtil.mapToObject(map, Node.class, null);
+        assertEquals("n", node.name);
+        assertNull(node.next);
+    }
+}
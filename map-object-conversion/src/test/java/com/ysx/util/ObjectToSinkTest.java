@@ -0,0 +1,102 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.MapKeyMapping;
+import com.ysx.util.handler.impl.ValueEmptyHandler;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ObjectToSinkTest {
+
+    public static class Plain {
+        private int count;
+        private long total;
+        private String name;
+    }
+
+    public static class Duplicated {
+        private int count;
+        @MapKeyMapping("count")
+        private String label;
+    }
+
+    /**
+     * 记录写入的键 值统一装箱
+     */
+    private static class RecordingSink implements MapSink {
+        private final List<String> keys = new ArrayList<>();
+        private final Map<String, Object> values = new HashMap<>();
+
+        @Override
+        public void putInt(String key, int value) {
+            putObject(key, value);
+        }
+
+        @Override
+        public void putLong(String key, long value) {
+            putObject(key, value);
+        }
+
+        @Override
+        public void putDouble(String key, double value) {
+            putObject(key, value);
+        }
+
+        @Override
+        public void putBoolean(String key, boolean value) {
+            putObject(key, value);
+        }
+
+        @Override
+        public void putObject(String key, Object value) {
+            keys.add(key);
+            values.put(key, value);
+        }
+    }
+
+    @Test
+    public void duplicateKeysAreWrittenOnce() {
+        Duplicated duplicated = new Duplicated();
+        duplicated.count = 3;
+        duplicated.label = "three";
+        RecordingSink sink = new RecordingSink();
+        ObjectMappingMapUtil.objectToSink(duplicated, sink);
+        assertEquals(1, sink.keys.size());
+        assertEquals(ObjectMappingMapUtil.objectToMap(duplicated), sink.values);
+    }
+
+    @Test
+    public void valueEmptyHandlerSubclassSeesPrimitiveValues() {
+        Plain plain = new Plain();
+        plain.count = 0;
+        plain.total = 5L;
+        plain.name = "n";
+        RecordingSink sink = new RecordingSink();
+        ObjectMappingMapUtil.objectToSink(plain, Object.class, new ValueEmptyHandler() {
+            @Override
+            public boolean ignoreHandler(String key, Object value) {
+                return super.ignoreHandler(key, value) || Integer.valueOf(0).equals(value);
+            }
+        }, sink);
+        assertFalse(sink.values.containsKey("count"));
+        assertEquals(5L, sink.values.get("total"));
+        assertEquals("n", sink.values.get("name"));
+    }
+
+    @Test
+    public void valueEmptyHandlerKeepsPrimitiveValues() {
+        Plain plain = new Plain();
+        RecordingSink sink = new RecordingSink();
+        ObjectMappingMapUtil.objectToSink(plain, Object.class, new ValueEmptyHandler(), sink);
+        assertTrue(sink.values.containsKey("count"));
+        assertTrue(sink.values.containsKey("total"));
+        assertFalse(sink.values.containsKey("name"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.ysx.util;
+
+import com.ysx.util.annotation.CatchAllProperty;
+import com.ysx.util.annotation.DateMapping;
+import com.ysx.util.annotation.MapKeyMapping;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ProjectionTest {
+
+    public static class Address {
+        private String city;
+        private String street = "default";
+    }
+
+    public static class Person {
+        @MapKeyMapping("full_name")
+        private String name;
+        private int age = -1;
+        @DateMapping("yyyy-MM-dd")
+        private Date birthday;
+        @CatchAllProperty
+        private Address address;
+    }
+
+    private static Person newPerson() {
+        Person person = new Person();
+        person.name = "Ada";
+        person.age = 36;
+        person.birthday = new Date(1700000000000L);
+        person.address = new Address();
+        person.address.city = "London";
+        person.address.street = "st";
+        return person;
+    }
+
+    private static Set<String> keys(String... keys) {
+        return new HashSet<>(Arrays.asList(keys));
+    }
+
+    @Test
+    public void projectToMapKeepsOnlySelectedKeys() {
+        Person person = newPerson();
+        Map<String, Object> full = ObjectMappingMapUtil.objectToMap(person);
+        Set<String> keys = keys("full_name", "birthday", "city", "missing");
+        Map<String, Object> expected = new HashMap<>(full);
+        expected.keySet().retainAll(keys);
+        for (int i = 0; i < 2; i++) {
+            assertEquals(expected, ObjectMappingMapUtil.projectToMap(person, keys));
+        }
+        assertEquals(full, ObjectMappingMapUtil.projectToMap(person, null));
+
+        person.address = null;
+        expected.remove("city");
+        assertEquals(expected, ObjectMappingMapUtil.projectToMap(person, keys));
+    }
+
+    @Test
+    public void projectToObjectSetsOnlySelectedFields() {
+        Map<String, Object> map = ObjectMappingMapUtil.objectToMap(newPerson());
+        Person person = ObjectMappingMapUtil.projectToObject(map, Person.class, keys("full_name", "birthday"));
+        assertEquals("Ada", person.name);
+        assertEquals(-1, person.age);
+        assertEquals(map.get("birthday"), ObjectMappingMapUtil.objectToMap(person).get("birthday"));
+        // 未指定嵌套对象的键 不创建嵌套对象
+        assertNull(person.address);
+
+        person = ObjectMappingMapUtil.projectToObject(map, Person.class, keys("city"));
+        assertNull(person.name);
+        assertNotNull(person.address);
+        assertEquals("London", person.address.city);
+        assertEquals("default", person.address.street);
+    }
+}
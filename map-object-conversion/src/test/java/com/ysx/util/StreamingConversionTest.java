@@ -0,0 +1,94 @@
+package com.ysx.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingConversionTest {
+
+    public static class Item {
+        private String name;
+        private int count;
+
+        public Item() {
+        }
+
+        Item(String name, int count) {
+            this.name = name;
+            this.count = count;
+        }
+    }
+
+    /**
+     * 记录已取出元素个数的迭代器
+     */
+    private static final class CountingIterator<E> implements Iterator<E> {
+        private final Iterator<E> delegate;
+        private int taken;
+
+        private CountingIterator(Iterator<E> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public E next() {
+            taken++;
+            return delegate.next();
+        }
+    }
+
+    @Test
+    public void iteratorConvertsOnDemand() {
+        CountingIterator<Item> source = new CountingIterator<>(Arrays.asList(new Item("a", 1), null, new Item("b", 2)).iterator());
+        Iterator<Map<String, Object>> maps = ObjectMappingMapUtil.objectsToMaps(source, Object.class, null);
+        assertEquals(0, source.taken);
+        assertEquals(ObjectMappingMapUtil.objectToMap(new Item("a", 1)), maps.next());
+        assertEquals(1, source.taken);
+        assertEquals(new HashMap<String, Object>(), maps.next());
+        assertTrue(maps.hasNext());
+        maps.next();
+        assertFalse(maps.hasNext());
+
+        List<Map<String, Object>> sourceMaps = new ArrayList<>(ObjectMappingMapUtil.objectsToMaps(Arrays.asList(new Item("a", 1), new Item("b", 2))));
+        sourceMaps.add(null);
+        CountingIterator<Map<String, Object>> mapSource = new CountingIterator<>(sourceMaps.iterator());
+        Iterator<Item> items = ObjectMappingMapUtil.mapsToObjects(mapSource, Item.class);
+        assertEquals(0, mapSource.taken);
+        assertEquals("a", items.next().name);
+        assertEquals(1, mapSource.taken);
+        assertEquals(2, items.next().count);
+        assertNull(items.next());
+        assertFalse(items.hasNext());
+    }
+
+    @Test
+    public void parallelStreamMatchesSingleConversion() {
+        List<Item> source = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            source.add(new Item("i" + i, i));
+        }
+        List<Map<String, Object>> maps = ObjectMappingMapUtil.objectsToMaps(source.parallelStream(), Object.class, null).collect(Collectors.toList());
+        List<Item> items = ObjectMappingMapUtil.mapsToObjects(maps.parallelStream(), Item.class, null).collect(Collectors.toList());
+        for (int i = 0; i < source.size(); i++) {
+            assertEquals(ObjectMappingMapUtil.objectToMap(source.get(i)), maps.get(i));
+            assertEquals(source.get(i).name, items.get(i).name);
+            assertEquals(source.get(i).count, items.get(i).count);
+        }
+    }
+}
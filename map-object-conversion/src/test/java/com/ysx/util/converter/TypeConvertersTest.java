@@ -0,0 +1,41 @@
+package com.ysx.util.converter;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TypeConvertersTest {
+
+    @Test
+    public void narrowingKeepsValuesInRange() {
+        assertEquals(Integer.valueOf(42), TypeConverters.convert(42L, Integer.class));
+        assertEquals(Integer.valueOf(42), TypeConverters.convert(42.0d, int.class));
+        assertEquals(Byte.valueOf((byte) -128), TypeConverters.convert(-128, Byte.class));
+        assertEquals(Short.valueOf((short) 7), TypeConverters.convert(new BigDecimal("7.00"), Short.class));
+        assertEquals(Long.valueOf(Long.MAX_VALUE), TypeConverters.convert(BigInteger.valueOf(Long.MAX_VALUE), Long.class));
+        assertEquals(BigInteger.TEN, TypeConverters.convert(10.0d, BigInteger.class));
+    }
+
+    @Test
+    public void narrowingRejectsOverflowAndFractions() {
+        assertNull(TypeConverters.convert(Integer.MAX_VALUE + 1L, Integer.class));
+        assertNull(TypeConverters.convert(128, Byte.class));
+        assertNull(TypeConverters.convert(40000, Short.class));
+        assertNull(TypeConverters.convert(1.5d, Integer.class));
+        assertNull(TypeConverters.convert(1e19d, Long.class));
+        assertNull(TypeConverters.convert(Double.NaN, Long.class));
+        assertNull(TypeConverters.convert(BigInteger.ONE.shiftLeft(64), Long.class));
+        assertNull(TypeConverters.convert(new BigDecimal("2.5"), BigInteger.class));
+    }
+
+    @Test
+    public void failedConversionReturnsNull() {
+        CachedConverter converter = new CachedConverter(int.class);
+        assertNull(converter.convert("abc"));
+        assertEquals(12, converter.convert(" 12 "));
+    }
+}